@@ -0,0 +1,298 @@
+package com.tc.lucene.jmh;
+
+import cn.hutool.json.JSONUtil;
+import com.tc.lucene.analysis.JcsegLexiconSnapshot;
+import lombok.Data;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.cn.smart.SmartChineseAnalyzer;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.lionsoul.jcseg.ISegment;
+import org.lionsoul.jcseg.analyzer.JcsegAnalyzer;
+import org.lionsoul.jcseg.dic.ADictionary;
+import org.lionsoul.jcseg.dic.DictionaryFactory;
+import org.lionsoul.jcseg.segmenter.SegmenterConfig;
+import org.wltea.analyzer.lucene.IKAnalyzer;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 分词器吞吐、内存分配对比
+ * <p>
+ * 对每个分词器测量：首次使用耗时(构建分词器、加载词典、分析第一篇文档)、各线程数下的 tokens/s、MB/s、每个token分配的字节数，
+ * 以及相对单线程的扩展倍数。多线程时共享同一个分词器实例，与索引时的用法一致。
+ * <pre>
+ * mvn -Pjmh compile exec:exec@analyzer
+ * mvn -Pjmh compile exec:exec@analyzer -Danalyzer.args="corpus=D:/corpus analyzers=smartcn,ik-smart,jcseg-complex threads=1,4,8 seconds=10"
+ * </pre>
+ * 参数(key=value)：
+ * <ul>
+ *     <li>corpus 语料文件或目录(.txt，每行一篇文档)，默认使用内置的示例文本</li>
+ *     <li>analyzers 逗号分隔，默认全部：{@link #ANALYZERS}</li>
+ *     <li>threads 逗号分隔的线程数，默认 1,2,4,8</li>
+ *     <li>seconds 每轮测量时长，默认5；warmup-seconds 预热时长，默认3</li>
+ *     <li>lexicon Jcseg词库目录，默认 lexicon</li>
+ *     <li>lexicon-snapshot Jcseg词库快照目录，设置后从 {@link JcsegLexiconSnapshot} 加载词典，不设置时解析文本词库</li>
+ *     <li>out 结果json，默认 target/analyzer-throughput.json</li>
+ * </ul>
+ *
+ * @author AnthubTC
+ * @version 1.0
+ * @className AnalyzerThroughputHarness
+ * @description
+ * @date 2026/10/18 17:20
+ **/
+public class AnalyzerThroughputHarness {
+    public static final String[] ANALYZERS = {
+            "standard", "smartcn", "ik", "ik-smart",
+            "jcseg-simple", "jcseg-complex", "jcseg-detect", "jcseg-most", "jcseg-nlp", "jcseg-ngram"
+    };
+    private static final String[] SAMPLE_TEXTS = {
+            "hello kim,I am tangcheng,我是 中国人,my email is xxfddsaz@163.com, and my QQ is 1096648780000",
+            "oh！见鬼，怎么办！ 他是一个中国人，据说他的名字叫刘霸天！",
+            "人名列表：苏轼、苏辙、毛泽东、普京、刘霸天、刘天霸",
+            "1月18日，陕西省农业农村厅网站发布文章《关于“谁来种地”重大问题的调研报告》（下称“调研报告”），调研报告显示，"
+                    + "自撂荒地整治工作开展以来，全省撂荒耕地面积从2020年底的337.9万亩降至2023年6月底的11.6万亩，下降96.6%。",
+            "谷歌地图之父拉斯加盟社交网站Facebook，此前他曾在谷歌工作多年，负责谷歌地图的开发工作。"
+    };
+
+    private static final com.sun.management.ThreadMXBean THREAD_MX_BEAN =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    public static void main(String[] args) throws Exception {
+        Options options = Options.parse(args);
+        List<String> documents = loadCorpus(options.corpus);
+        long[] documentBytes = new long[documents.size()];
+        long corpusBytes = 0;
+        for (int i = 0; i < documents.size(); i++) {
+            documentBytes[i] = documents.get(i).getBytes(StandardCharsets.UTF_8).length;
+            corpusBytes += documentBytes[i];
+        }
+        System.out.printf("语料: %d篇, %.1fKB, 线程数: %s%n", documents.size(), corpusBytes / 1024.0, options.threads);
+        System.out.printf("%-14s %12s %8s %14s %10s %14s %8s%n",
+                "analyzer", "first-use ms", "threads", "tokens/s", "MB/s", "alloc B/token", "scaling");
+
+        List<AnalyzerResult> results = new ArrayList<>();
+        for (String name : options.analyzers) {
+            AnalyzerResult result = new AnalyzerResult();
+            result.setAnalyzer(name);
+            // 首次使用：构建分词器(包括词典加载)并分析第一篇文档
+            long start = System.nanoTime();
+            Analyzer analyzer = createAnalyzer(name, options.lexicon, options.lexiconSnapshot);
+            countTokens(analyzer, documents.get(0));
+            result.setFirstUseMillis((System.nanoTime() - start) / 1_000_000.0);
+
+            run(analyzer, documents, documentBytes, 1, options.warmupSeconds);
+            for (int threads : options.threads) {
+                Measurement measurement = run(analyzer, documents, documentBytes, threads, options.seconds);
+                if (!result.getRuns().isEmpty()) {
+                    measurement.setScaling(measurement.getTokensPerSecond() / result.getRuns().get(0).getTokensPerSecond());
+                }
+                result.getRuns().add(measurement);
+                System.out.printf("%-14s %12.1f %8d %14.0f %10.2f %14.1f %8.2f%n", name, result.getFirstUseMillis(),
+                        threads, measurement.getTokensPerSecond(), measurement.getMegabytesPerSecond(),
+                        measurement.getAllocatedBytesPerToken(), measurement.getScaling());
+            }
+            analyzer.close();
+            results.add(result);
+        }
+
+        File out = new File(options.out);
+        if (out.getParentFile() != null) {
+            out.getParentFile().mkdirs();
+        }
+        Files.write(out.toPath(), JSONUtil.toJsonPrettyStr(results).getBytes(StandardCharsets.UTF_8));
+        System.out.println("结果已保存: " + out.getAbsolutePath());
+    }
+
+    static Analyzer createAnalyzer(String name, String lexicon, String lexiconSnapshot) throws IOException {
+        switch (name) {
+            case "standard":
+                return new StandardAnalyzer();
+            case "smartcn":
+                return new SmartChineseAnalyzer();
+            case "ik":
+                // IK的词典是进程内单例，只有第一个IK分词器的首次使用耗时包含词典加载
+                return new IKAnalyzer();
+            case "ik-smart":
+                return new IKAnalyzer(true);
+            default:
+                if (name.startsWith("jcseg-")) {
+                    ISegment.Type type = ISegment.Type.fromString(name.substring("jcseg-".length()));
+                    SegmenterConfig config = new SegmenterConfig(true);
+                    config.setLexiconPath(new String[]{lexicon});
+                    // 每个分词器单独加载词典，首次使用耗时包含词典加载
+                    ADictionary dictionary = lexiconSnapshot == null
+                            ? DictionaryFactory.createDefaultDictionary(config, true)
+                            : JcsegLexiconSnapshot.load(config, new File(lexiconSnapshot));
+                    return new JcsegAnalyzer(type, config, dictionary);
+                }
+                throw new IllegalArgumentException("未知的分词器: " + name + ", 可选: " + Arrays.toString(ANALYZERS));
+        }
+    }
+
+    /**
+     * 多个线程共享分析器，持续分析语料直到时间用完
+     */
+    private static Measurement run(Analyzer analyzer, List<String> documents, long[] documentBytes,
+                                   int threads, int seconds) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+            List<Future<long[]>> futures = new ArrayList<>(threads);
+            for (int t = 0; t < threads; t++) {
+                int offset = t * documents.size() / threads;
+                futures.add(executor.submit(() -> {
+                    long threadId = Thread.currentThread().getId();
+                    long allocatedStart = THREAD_MX_BEAN.getThreadAllocatedBytes(threadId);
+                    long tokens = 0;
+                    long bytes = 0;
+                    int i = offset;
+                    while (System.nanoTime() < deadline) {
+                        int doc = i++ % documents.size();
+                        tokens += countTokens(analyzer, documents.get(doc));
+                        bytes += documentBytes[doc];
+                    }
+                    long allocated = THREAD_MX_BEAN.getThreadAllocatedBytes(threadId) - allocatedStart;
+                    return new long[]{tokens, bytes, allocated};
+                }));
+            }
+            long tokens = 0;
+            long bytes = 0;
+            long allocated = 0;
+            for (Future<long[]> future : futures) {
+                long[] counts = future.get();
+                tokens += counts[0];
+                bytes += counts[1];
+                allocated += counts[2];
+            }
+            Measurement measurement = new Measurement();
+            measurement.setThreads(threads);
+            measurement.setTokensPerSecond((double) tokens / seconds);
+            measurement.setMegabytesPerSecond(bytes / 1024.0 / 1024.0 / seconds);
+            measurement.setAllocatedBytesPerToken(tokens == 0 ? 0 : (double) allocated / tokens);
+            measurement.setScaling(1);
+            return measurement;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static int countTokens(Analyzer analyzer, String text) throws IOException {
+        int count = 0;
+        try (TokenStream stream = analyzer.tokenStream("content", text)) {
+            stream.reset();
+            while (stream.incrementToken()) {
+                count++;
+            }
+            stream.end();
+        }
+        return count;
+    }
+
+    private static List<String> loadCorpus(String corpus) throws IOException {
+        List<String> documents = new ArrayList<>();
+        if (corpus == null) {
+            documents.addAll(Arrays.asList(SAMPLE_TEXTS));
+            return documents;
+        }
+        File file = new File(corpus);
+        File[] files = file.isDirectory() ? file.listFiles((dir, name) -> name.endsWith(".txt")) : new File[]{file};
+        if (files == null || files.length == 0) {
+            throw new IllegalArgumentException("没有找到语料: " + corpus);
+        }
+        Arrays.sort(files);
+        for (File f : files) {
+            for (String line : Files.readAllLines(f.toPath(), StandardCharsets.UTF_8)) {
+                if (!line.trim().isEmpty()) {
+                    documents.add(line);
+                }
+            }
+        }
+        return documents;
+    }
+
+    @Data
+    public static class AnalyzerResult {
+        private String analyzer;
+        private double firstUseMillis;
+        private List<Measurement> runs = new ArrayList<>();
+    }
+
+    @Data
+    public static class Measurement {
+        private int threads;
+        private double tokensPerSecond;
+        private double megabytesPerSecond;
+        private double allocatedBytesPerToken;
+        /**
+         * 相对第一轮(通常是单线程)的tokens/s倍数
+         */
+        private double scaling;
+    }
+
+    private static class Options {
+        private String corpus;
+        private List<String> analyzers = Arrays.asList(ANALYZERS);
+        private List<Integer> threads = Arrays.asList(1, 2, 4, 8);
+        private int seconds = 5;
+        private int warmupSeconds = 3;
+        private String lexicon = "lexicon";
+        private String lexiconSnapshot;
+        private String out = "target/analyzer-throughput.json";
+
+        static Options parse(String[] args) {
+            Options options = new Options();
+            for (String arg : args) {
+                int eq = arg.indexOf('=');
+                if (eq < 0) {
+                    throw new IllegalArgumentException("参数格式为key=value: " + arg);
+                }
+                String value = arg.substring(eq + 1);
+                switch (arg.substring(0, eq)) {
+                    case "corpus":
+                        options.corpus = value;
+                        break;
+                    case "analyzers":
+                        options.analyzers = Arrays.asList(value.split(","));
+                        break;
+                    case "threads":
+                        options.threads = new ArrayList<>();
+                        for (String thread : value.split(",")) {
+                            options.threads.add(Integer.valueOf(thread.trim()));
+                        }
+                        break;
+                    case "seconds":
+                        options.seconds = Integer.parseInt(value);
+                        break;
+                    case "warmup-seconds":
+                        options.warmupSeconds = Integer.parseInt(value);
+                        break;
+                    case "lexicon":
+                        options.lexicon = value;
+                        break;
+                    case "lexicon-snapshot":
+                        options.lexiconSnapshot = value;
+                        break;
+                    case "out":
+                        options.out = value;
+                        break;
+                    default:
+                        throw new IllegalArgumentException("未知的参数: " + arg);
+                }
+            }
+            return options;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.tc.lucene.jmh;
+
+import com.tc.lucene.dto.MavenArtifact;
+import com.tc.lucene.dto.MavenClassSet;
+import com.tc.lucene.dto.MavenJarClass;
+import org.apache.lucene.index.IndexableField;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 文档构建：MavenArtifact.toDocument、MavenJarClass.toDocument、class集合的文档块
+ *
+ * @author AnthubTC
+ * @version 1.0
+ * @className DocumentBenchmark
+ * @description
+ * @date 2026/10/18 16:50
+ **/
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DocumentBenchmark {
+    private MavenArtifact artifact;
+    private MavenJarClass mavenJarClass;
+    private List<MavenJarClass> classes;
+
+    @Setup
+    public void setUp() {
+        MavenCorpus.Entry entry = MavenCorpus.generate(1, 50).getEntries().get(0);
+        artifact = entry.getArtifact();
+        classes = entry.getClasses();
+        mavenJarClass = classes.get(0);
+    }
+
+    @Benchmark
+    public Iterable<? extends IndexableField> artifactToDocument() {
+        return artifact.toDocument();
+    }
+
+    @Benchmark
+    public Iterable<? extends IndexableField> classToDocument() {
+        return mavenJarClass.toDocument();
+    }
+
+    /**
+     * 50个class计算集合id并组成文档块
+     */
+    @Benchmark
+    public List<Iterable<? extends IndexableField>> classSetBlock() {
+        return MavenClassSet.of(classes).toBlock();
+    }
+}
@@ -0,0 +1,61 @@
+package com.tc.lucene.jmh;
+
+import com.tc.lucene.config.LuceneDemoConfig;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 索引吞吐：把整个语料写入内存目录，结果按jar计，单位 jars/s
+ *
+ * @author AnthubTC
+ * @version 1.0
+ * @className IndexingBenchmark
+ * @description
+ * @date 2026/10/18 16:50
+ **/
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class IndexingBenchmark {
+    private static final int ARTIFACTS = 1000;
+
+    @Param({LuceneDemoConfig.PROFILE_BULK_REBUILD, LuceneDemoConfig.PROFILE_INCREMENTAL})
+    public String profile;
+
+    private MavenCorpus corpus;
+    private LuceneDemoConfig.WriterProfile writerProfile;
+    private LuceneDemoConfig.CodecOptions codec;
+
+    @Setup
+    public void setUp() {
+        corpus = MavenCorpus.generate(ARTIFACTS, 20);
+        LuceneDemoConfig luceneDemoConfig = new LuceneDemoConfig();
+        writerProfile = luceneDemoConfig.getWriterProfile(profile);
+        codec = luceneDemoConfig.getCodec();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ARTIFACTS)
+    public ByteBuffersDirectory index() throws IOException {
+        ByteBuffersDirectory directory = new ByteBuffersDirectory();
+        corpus.writeTo(directory, writerProfile, codec);
+        return directory;
+    }
+}
@@ -0,0 +1,121 @@
+package com.tc.lucene.jmh;
+
+import com.tc.lucene.util.ClassMemberReader;
+import com.tc.lucene.util.JarClassScanner;
+import org.apache.lucene.index.IndexWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * 读取jar中的类名：JarFile逐个entry + replaceAll 与 只读中央目录的 JarClassScanner；
+ * 以及在lucene-core的jar上对比只读类名和同时解析public成员的耗时
+ *
+ * @author AnthubTC
+ * @version 1.0
+ * @className JarScanBenchmark
+ * @description
+ * @date 2026/10/18 20:50
+ **/
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JarScanBenchmark {
+    @Param({"50", "2000"})
+    private int classes;
+
+    private File jar;
+    private Path luceneCore;
+    private final JarClassScanner scanner = new JarClassScanner(false, false, false);
+
+    @Setup
+    public void setUp() throws IOException, URISyntaxException {
+        luceneCore = Paths.get(IndexWriter.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+        jar = File.createTempFile("jar-scan-", ".jar");
+        Random random = new Random(MavenCorpus.SEED);
+        try (ZipOutputStream out = new ZipOutputStream(new FileOutputStream(jar))) {
+            out.putNextEntry(new ZipEntry("META-INF/MANIFEST.MF"));
+            out.write("Manifest-Version: 1.0\n".getBytes());
+            for (int i = 0; i < classes; i++) {
+                String name = "org/demo/pkg" + (i % 20) + "/Class" + i + (random.nextInt(4) == 0 ? "$Inner" : "") + ".class";
+                out.putNextEntry(new ZipEntry(name));
+                byte[] body = new byte[512 + random.nextInt(2048)];
+                random.nextBytes(body);
+                out.write(body);
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(jar.toPath());
+    }
+
+    @Benchmark
+    public void jarFile(Blackhole blackhole) throws IOException {
+        try (JarFile jarFile = new JarFile(jar)) {
+            Enumeration<JarEntry> entries = jarFile.entries();
+            while (entries.hasMoreElements()) {
+                String name = entries.nextElement().getName();
+                if (name.endsWith(".class")) {
+                    blackhole.consume(name.replaceAll("/", ".").replace(".class", ""));
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public int centralDirectory(Blackhole blackhole) throws IOException {
+        return scanner.scan(jar.toPath(), blackhole::consume);
+    }
+
+    @Benchmark
+    public int luceneCoreClassNames(Blackhole blackhole) throws IOException {
+        return scanner.scan(luceneCore, blackhole::consume);
+    }
+
+    @Benchmark
+    public int luceneCoreMembers(Blackhole blackhole) throws IOException {
+        List<String> members = new ArrayList<>();
+        List<String> methodSignatures = new ArrayList<>();
+        return scanner.scanContent(luceneCore, (className, classFile, length) -> {
+            members.clear();
+            methodSignatures.clear();
+            if (classFile != null) {
+                blackhole.consume(ClassMemberReader.read(classFile, length, members, methodSignatures));
+            }
+            blackhole.consume(members);
+            blackhole.consume(methodSignatures);
+        });
+    }
+}
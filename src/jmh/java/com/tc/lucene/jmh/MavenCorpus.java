@@ -0,0 +1,129 @@
+package com.tc.lucene.jmh;
+
+import com.tc.lucene.analysis.AnalyzerRegistry;
+import com.tc.lucene.config.LuceneDemoConfig;
+import com.tc.lucene.dto.MavenArtifact;
+import com.tc.lucene.dto.MavenClassSet;
+import com.tc.lucene.dto.MavenJarClass;
+import com.tc.lucene.util.AnalyzerUtil;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.store.Directory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * 基准测试用的确定性语料
+ * <p>
+ * 相同的seed、数量生成完全相同的jar和class，不依赖本地maven仓库，各版本之间的结果可以直接对比
+ *
+ * @author AnthubTC
+ * @version 1.0
+ * @className MavenCorpus
+ * @description
+ * @date 2026/10/18 16:50
+ **/
+public class MavenCorpus {
+    public static final long SEED = 20240202L;
+
+    private static final String[] WORDS = {
+            "String", "Object", "Mapper", "Utils", "Factory", "Bean", "Context", "Application", "Spring", "Boot",
+            "Json", "Parser", "Reader", "Writer", "Stream", "Buffer", "Http", "Client", "Server", "Config",
+            "Loader", "Class", "Cache", "Lock", "Thread", "Pool", "Executor", "Service", "Handler", "Event"
+    };
+    private static final String[] PACKAGES = {
+            "org.apache.commons", "com.fasterxml.jackson", "org.springframework", "io.netty", "com.google.common",
+            "org.slf4j", "ch.qos.logback", "org.hibernate", "io.micrometer", "org.eclipse.jetty"
+    };
+
+    private final List<Entry> entries;
+
+    private MavenCorpus(List<Entry> entries) {
+        this.entries = entries;
+    }
+
+    /**
+     * @param artifacts          jar数量
+     * @param classesPerArtifact 每个jar的class数量
+     */
+    public static MavenCorpus generate(int artifacts, int classesPerArtifact) {
+        Random random = new Random(SEED);
+        List<Entry> entries = new ArrayList<>(artifacts);
+        for (int i = 0; i < artifacts; i++) {
+            String groupId = PACKAGES[random.nextInt(PACKAGES.length)];
+            String artifactId = word(random).toLowerCase() + "-" + word(random).toLowerCase();
+            String version = (1 + random.nextInt(6)) + "." + random.nextInt(20) + "." + random.nextInt(10);
+            MavenArtifact artifact = new MavenArtifact(groupId, artifactId, version);
+            artifact.setFilePath("/repository/" + groupId.replace('.', '/') + "/" + artifactId + "/" + version
+                    + "/" + artifactId + "-" + version + ".jar");
+            List<MavenJarClass> classes = new ArrayList<>(classesPerArtifact);
+            for (int j = 0; j < classesPerArtifact; j++) {
+                MavenJarClass mavenJarClass = MavenJarClass.create(artifact);
+                mavenJarClass.setClassName(groupId + "." + artifactId.replace("-", "") + "."
+                        + word(random) + word(random) + (random.nextInt(4) == 0 ? word(random) : ""));
+                classes.add(mavenJarClass);
+            }
+            entries.add(new Entry(artifact, classes));
+        }
+        return new MavenCorpus(entries);
+    }
+
+    public List<Entry> getEntries() {
+        return entries;
+    }
+
+    public int getClassCount() {
+        int count = 0;
+        for (Entry entry : entries) {
+            count += entry.getClasses().size();
+        }
+        return count;
+    }
+
+    /**
+     * 按maven索引的方式(class集合和class组成文档块，jar文档引用集合)写入，编解码与索引端一致
+     */
+    public void writeTo(Directory directory, LuceneDemoConfig.WriterProfile profile,
+                        LuceneDemoConfig.CodecOptions codec) throws IOException {
+        try (IndexWriter indexWriter = new IndexWriter(directory,
+                profile.newIndexWriterConfig(AnalyzerUtil.getAnalyzer(AnalyzerRegistry.MAVEN_INDEX))
+                        .setCodec(codec.newCodec()))) {
+            Set<String> classSetIds = new HashSet<>();
+            for (Entry entry : entries) {
+                MavenClassSet classSet = MavenClassSet.of(entry.getClasses());
+                if (classSetIds.add(classSet.getId())) {
+                    indexWriter.addDocuments(classSet.toBlock());
+                }
+                entry.getArtifact().setClassSetId(classSet.getId());
+                indexWriter.addDocument(entry.getArtifact().toDocument());
+            }
+            indexWriter.commit();
+        }
+    }
+
+    private static String word(Random random) {
+        return WORDS[random.nextInt(WORDS.length)];
+    }
+
+    public static class Entry {
+        private final MavenArtifact artifact;
+        private final List<MavenJarClass> classes;
+
+        Entry(MavenArtifact artifact, List<MavenJarClass> classes) {
+            this.artifact = artifact;
+            this.classes = classes;
+        }
+
+        public MavenArtifact getArtifact() {
+            return artifact;
+        }
+
+        public List<MavenJarClass> getClasses() {
+            return classes;
+        }
+    }
+}
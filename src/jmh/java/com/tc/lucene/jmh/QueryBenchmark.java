@@ -0,0 +1,127 @@
+package com.tc.lucene.jmh;
+
+import com.tc.lucene.config.LuceneDemoConfig;
+import com.tc.lucene.enums.MavenContentType;
+import com.tc.lucene.service.ConcurrentSearchExecutor;
+import com.tc.lucene.util.MavenBlockJoinUtil;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.FuzzyQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.PhraseQuery;
+import org.apache.lucene.search.PrefixQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.search.WildcardQuery;
+import org.apache.lucene.search.spans.SpanNearQuery;
+import org.apache.lucene.search.spans.SpanQuery;
+import org.apache.lucene.search.spans.SpanTermQuery;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 各类查询的延迟，查询类型与QueryTest中演示的一致，在className字段上执行；
+ * concurrent=true时由 {@link ConcurrentSearchExecutor} 按段切片并行执行
+ *
+ * @author AnthubTC
+ * @version 1.0
+ * @className QueryBenchmark
+ * @description
+ * @date 2026/10/18 16:50
+ **/
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class QueryBenchmark {
+    private static final String FIELD = "className";
+
+    @Param({"Term", "Prefix", "Wildcard", "Fuzzy", "Phrase", "Span", "Boolean"})
+    public String queryType;
+
+    @Param({"false", "true"})
+    public boolean concurrent;
+
+    private ByteBuffersDirectory directory;
+    private ConcurrentSearchExecutor executor;
+    private DirectoryReader reader;
+    private IndexSearcher searcher;
+    private Query query;
+
+    @Setup
+    public void setUp() throws IOException {
+        directory = new ByteBuffersDirectory();
+        // 按文档数刷新出多个段，查询内并发才有切片可分
+        LuceneDemoConfig.WriterProfile profile = LuceneDemoConfig.WriterProfile.bulkRebuild();
+        profile.setMaxBufferedDocs(10_000);
+        MavenCorpus.generate(5000, 20).writeTo(directory, profile, new LuceneDemoConfig.CodecOptions());
+        reader = DirectoryReader.open(directory);
+        if (concurrent) {
+            executor = new ConcurrentSearchExecutor(new LuceneDemoConfig.Searcher());
+            searcher = executor.newSearcher(reader);
+        } else {
+            searcher = new IndexSearcher(reader);
+        }
+        query = buildQuery(queryType);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        if (executor != null) {
+            executor.close();
+        }
+        reader.close();
+        directory.close();
+    }
+
+    @Benchmark
+    public TopDocs search() throws IOException {
+        return searcher.search(query, 10);
+    }
+
+    private static Query buildQuery(String queryType) {
+        switch (queryType) {
+            case "Term":
+                return new TermQuery(new Term(FIELD, "mapper"));
+            case "Prefix":
+                return new PrefixQuery(new Term(FIELD, "str"));
+            case "Wildcard":
+                return new WildcardQuery(new Term(FIELD, "*util*"));
+            case "Fuzzy":
+                return new FuzzyQuery(new Term(FIELD, "strng"));
+            case "Phrase":
+                return new PhraseQuery(FIELD, "string", "utils");
+            case "Span":
+                return new SpanNearQuery(new SpanQuery[]{
+                        new SpanTermQuery(new Term(FIELD, "object")),
+                        new SpanTermQuery(new Term(FIELD, "mapper"))}, 1, true);
+            case "Boolean":
+                return new BooleanQuery.Builder()
+                        .add(new TermQuery(new Term(FIELD, "json")), BooleanClause.Occur.MUST)
+                        .add(new TermQuery(new Term(FIELD, "parser")), BooleanClause.Occur.SHOULD)
+                        .add(MavenBlockJoinUtil.typeQuery(MavenContentType.Clazz), BooleanClause.Occur.FILTER)
+                        .build();
+            default:
+                throw new IllegalArgumentException("未知的查询类型: " + queryType);
+        }
+    }
+}
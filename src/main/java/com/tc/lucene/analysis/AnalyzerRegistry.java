@@ -0,0 +1,234 @@
+package com.tc.lucene.analysis;
+
+import com.tc.lucene.config.LuceneDemoConfig;
+import com.tc.lucene.util.AnalyzerUtil;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.AnalyzerWrapper;
+import org.apache.lucene.analysis.cn.smart.SmartChineseAnalyzer;
+import org.apache.lucene.analysis.core.KeywordAnalyzer;
+import org.apache.lucene.analysis.core.SimpleAnalyzer;
+import org.apache.lucene.analysis.core.WhitespaceAnalyzer;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.lionsoul.jcseg.ISegment;
+import org.lionsoul.jcseg.analyzer.JcsegAnalyzer;
+import org.lionsoul.jcseg.dic.ADictionary;
+import org.lionsoul.jcseg.dic.DictionaryFactory;
+import org.lionsoul.jcseg.segmenter.SegmenterConfig;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.stereotype.Component;
+import org.wltea.analyzer.lucene.IKAnalyzer;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Collections;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * 共享的分词器
+ * <p>
+ * 分词器按名称注册，第一次使用时创建，之后所有调用方共用一个实例。Analyzer本身线程安全，
+ * TokenStream组件按 {@link Analyzer.ReuseStrategy} 缓存在线程本地，每次查询新建分词器会丢掉这份缓存，中文分词器还会重复加载词典。
+ * <p>
+ * 每个分词器注册时指定复用策略：与字段无关的分词器用 {@link Analyzer#GLOBAL_REUSE_STRATEGY}，每个线程一套组件；
+ * 策略为null时保留分词器自己的策略，例如 {@link org.apache.lucene.analysis.miscellaneous.PerFieldAnalyzerWrapper} 按字段委托。
+ * 容器关闭时关闭所有已创建的分词器；非Spring环境通过 {@link AnalyzerUtil#getAnalyzer(String)} 使用默认实例。
+ *
+ * @author AnthubTC
+ * @version 1.0
+ * @className AnalyzerRegistry
+ * @description
+ * @date 2026/10/18 18:30
+ **/
+@Slf4j
+@Component
+public class AnalyzerRegistry implements InitializingBean, DisposableBean {
+    public static final String STANDARD = "standard";
+    public static final String SIMPLE = "simple";
+    public static final String WHITESPACE = "whitespace";
+    public static final String KEYWORD = "keyword";
+    public static final String SMART_CN = "smartcn";
+    public static final String IK = "ik";
+    public static final String IK_SMART = "ik-smart";
+    /**
+     * Jcseg各切分模式的前缀，例如 jcseg-complex、jcseg-nlp，共用一份词典
+     */
+    public static final String JCSEG_PREFIX = "jcseg-";
+    public static final String JCSEG_COMPLEX = JCSEG_PREFIX + "complex";
+    public static final String MAVEN_INDEX = "maven-index";
+    public static final String MAVEN_QUERY = "maven-query";
+
+    private final LuceneDemoConfig luceneDemoConfig;
+    private final Map<String, Registration> registrations = new ConcurrentHashMap<>();
+    private final Map<String, Analyzer> analyzers = new ConcurrentHashMap<>();
+    private volatile SegmenterConfig jcsegConfig;
+    private volatile ADictionary jcsegDictionary;
+    private volatile boolean closed;
+
+    public AnalyzerRegistry(LuceneDemoConfig luceneDemoConfig) {
+        this.luceneDemoConfig = luceneDemoConfig;
+        register(STANDARD, Analyzer.GLOBAL_REUSE_STRATEGY, StandardAnalyzer::new);
+        register(SIMPLE, Analyzer.GLOBAL_REUSE_STRATEGY, SimpleAnalyzer::new);
+        register(WHITESPACE, Analyzer.GLOBAL_REUSE_STRATEGY, WhitespaceAnalyzer::new);
+        register(KEYWORD, Analyzer.GLOBAL_REUSE_STRATEGY, KeywordAnalyzer::new);
+        register(SMART_CN, Analyzer.GLOBAL_REUSE_STRATEGY, SmartChineseAnalyzer::new);
+        register(IK, Analyzer.GLOBAL_REUSE_STRATEGY, IKAnalyzer::new);
+        register(IK_SMART, Analyzer.GLOBAL_REUSE_STRATEGY, () -> new IKAnalyzer(true));
+        for (ISegment.Type type : ISegment.Type.values()) {
+            register(JCSEG_PREFIX + type.name().toLowerCase(Locale.ROOT), Analyzer.GLOBAL_REUSE_STRATEGY,
+                    () -> new JcsegAnalyzer(type, jcsegConfig(), jcsegDictionary()));
+        }
+        register(MAVEN_INDEX, null, MavenFieldAnalyzers::indexAnalyzer);
+        register(MAVEN_QUERY, null, MavenFieldAnalyzers::queryAnalyzer);
+    }
+
+    /**
+     * 容器中的实例作为 {@link AnalyzerUtil#getAnalyzer(String)} 的来源
+     */
+    @Override
+    public void afterPropertiesSet() {
+        AnalyzerUtil.setRegistry(this);
+    }
+
+    /**
+     * 注册分词器，同名的覆盖；已经创建的实例不受影响
+     * @param name          名称
+     * @param reuseStrategy 复用策略，null时保留分词器自己的策略
+     * @param factory       创建分词器，只在第一次使用时调用
+     */
+    public void register(String name, Analyzer.ReuseStrategy reuseStrategy, Supplier<Analyzer> factory) {
+        registrations.put(name, new Registration(reuseStrategy, factory));
+    }
+
+    /**
+     * 取共享的分词器，调用方不要关闭
+     */
+    public Analyzer get(String name) {
+        if (closed) {
+            throw new IllegalStateException("分词器已关闭");
+        }
+        Analyzer analyzer = analyzers.get(name);
+        if (analyzer != null) {
+            return analyzer;
+        }
+        Registration registration = registrations.get(name);
+        if (registration == null) {
+            throw new IllegalArgumentException("未注册的分词器: " + name + ", 可选: " + getNames());
+        }
+        // 在map外创建：Jcseg等分词器首次创建时要加载词典，不能占着ConcurrentHashMap的锁；同时创建时保留先放入的，关闭多余的
+        Analyzer created = registration.create();
+        analyzer = analyzers.putIfAbsent(name, created);
+        if (analyzer == null) {
+            return created;
+        }
+        created.close();
+        return analyzer;
+    }
+
+    public Set<String> getNames() {
+        return Collections.unmodifiableSet(new TreeSet<>(registrations.keySet()));
+    }
+
+    @Override
+    public void destroy() {
+        closed = true;
+        AnalyzerUtil.clearRegistry(this);
+        for (Map.Entry<String, Analyzer> entry : analyzers.entrySet()) {
+            try {
+                entry.getValue().close();
+            } catch (RuntimeException e) {
+                log.warn("关闭分词器{}失败", entry.getKey(), e);
+            }
+        }
+        analyzers.clear();
+        if (jcsegDictionary != null) {
+            jcsegDictionary.stopAutoload();
+        }
+    }
+
+    private SegmenterConfig jcsegConfig() {
+        if (jcsegConfig == null) {
+            synchronized (this) {
+                if (jcsegConfig == null) {
+                    SegmenterConfig config = new SegmenterConfig(true);
+                    config.setLexiconPath(new String[]{luceneDemoConfig.getAnalysis().getJcsegLexiconPath()});
+                    config.setAutoload(false);
+                    jcsegConfig = config;
+                }
+            }
+        }
+        return jcsegConfig;
+    }
+
+    /**
+     * 各切分模式共用一份词典，有快照目录时从快照加载
+     */
+    private ADictionary jcsegDictionary() {
+        if (jcsegDictionary == null) {
+            synchronized (this) {
+                if (jcsegDictionary == null) {
+                    String snapshotPath = luceneDemoConfig.getAnalysis().getJcsegSnapshotPath();
+                    if (snapshotPath == null && luceneDemoConfig.getIndexDbPath() != null) {
+                        snapshotPath = luceneDemoConfig.getDemoIndexDbPath("jcseg-lexicon");
+                    }
+                    try {
+                        jcsegDictionary = snapshotPath == null
+                                ? DictionaryFactory.createDefaultDictionary(jcsegConfig(), true)
+                                : JcsegLexiconSnapshot.load(jcsegConfig(), new File(snapshotPath));
+                    } catch (IOException e) {
+                        throw new UncheckedIOException("加载Jcseg词典失败", e);
+                    }
+                }
+            }
+        }
+        return jcsegDictionary;
+    }
+
+    private static class Registration {
+        private final Analyzer.ReuseStrategy reuseStrategy;
+        private final Supplier<Analyzer> factory;
+
+        Registration(Analyzer.ReuseStrategy reuseStrategy, Supplier<Analyzer> factory) {
+            this.reuseStrategy = reuseStrategy;
+            this.factory = factory;
+        }
+
+        Analyzer create() {
+            Analyzer analyzer = factory.get();
+            if (reuseStrategy == null || reuseStrategy == analyzer.getReuseStrategy()) {
+                return analyzer;
+            }
+            return new ReuseStrategyAnalyzer(analyzer, reuseStrategy);
+        }
+    }
+
+    /**
+     * 用指定的复用策略缓存被包装分词器的组件
+     */
+    private static class ReuseStrategyAnalyzer extends AnalyzerWrapper {
+        private final Analyzer delegate;
+
+        ReuseStrategyAnalyzer(Analyzer delegate, ReuseStrategy reuseStrategy) {
+            super(reuseStrategy);
+            this.delegate = delegate;
+        }
+
+        @Override
+        protected Analyzer getWrappedAnalyzer(String fieldName) {
+            return delegate;
+        }
+
+        @Override
+        public void close() {
+            super.close();
+            delegate.close();
+        }
+    }
+}
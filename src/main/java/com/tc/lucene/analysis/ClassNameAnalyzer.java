@@ -0,0 +1,113 @@
+package com.tc.lucene.analysis;
+
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.LowerCaseFilter;
+import org.apache.lucene.analysis.TokenFilter;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.Tokenizer;
+import org.apache.lucene.analysis.core.FlattenGraphFilter;
+import org.apache.lucene.analysis.core.KeywordTokenizer;
+import org.apache.lucene.analysis.miscellaneous.WordDelimiterGraphFilter;
+import org.apache.lucene.analysis.ngram.EdgeNGramTokenFilter;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.analysis.util.CharTokenizer;
+
+import java.io.IOException;
+
+/**
+ * 类名、artifactId分词器
+ * <p>
+ * 按包名、'-'、'$'等分隔符切分，再按驼峰和数字切分并转小写：
+ * org.springframework.boot.SpringBootApplication -> org springframework boot spring boot application (以及整词springbootapplication)
+ * <ul>
+ *     <li>{@link Mode#INDEX}：索引主字段，保留整词</li>
+ *     <li>{@link Mode#QUERY}：查询时使用，只输出切分后的词</li>
+ *     <li>{@link Mode#EDGE_NGRAM}：在切分后的词上再生成前缀，BootApp 可以直接用 boot、app 两个词项命中</li>
+ *     <li>{@link Mode#INITIALS}：驼峰首字母及其前缀，SpringBootApplication -> sba</li>
+ * </ul>
+ *
+ * @author AnthubTC
+ * @version 1.0
+ * @className ClassNameAnalyzer
+ * @description
+ * @date 2026/10/18 14:40
+ **/
+public class ClassNameAnalyzer extends Analyzer {
+    public static final int MAX_GRAM = 20;
+
+    public enum Mode {
+        INDEX, QUERY, EDGE_NGRAM, INITIALS
+    }
+
+    private final Mode mode;
+
+    public ClassNameAnalyzer(Mode mode) {
+        this.mode = mode;
+    }
+
+    @Override
+    protected TokenStreamComponents createComponents(String fieldName) {
+        if (Mode.INITIALS == mode) {
+            Tokenizer tokenizer = new KeywordTokenizer();
+            TokenStream stream = new InitialsFilter(tokenizer);
+            return new TokenStreamComponents(tokenizer, new EdgeNGramTokenFilter(stream, 2, MAX_GRAM, true));
+        }
+        Tokenizer tokenizer = CharTokenizer.fromTokenCharPredicate(Character::isLetterOrDigit);
+        int flags = WordDelimiterGraphFilter.GENERATE_WORD_PARTS
+                | WordDelimiterGraphFilter.GENERATE_NUMBER_PARTS
+                | WordDelimiterGraphFilter.SPLIT_ON_CASE_CHANGE
+                | WordDelimiterGraphFilter.SPLIT_ON_NUMERICS;
+        if (Mode.QUERY != mode) {
+            flags |= WordDelimiterGraphFilter.PRESERVE_ORIGINAL;
+        }
+        TokenStream stream = new WordDelimiterGraphFilter(tokenizer, flags, null);
+        if (Mode.QUERY != mode) {
+            // 索引不支持图结构的token流，需要拍平
+            stream = new FlattenGraphFilter(stream);
+        }
+        stream = new LowerCaseFilter(stream);
+        if (Mode.EDGE_NGRAM == mode) {
+            stream = new EdgeNGramTokenFilter(stream, 1, MAX_GRAM, true);
+        }
+        return new TokenStreamComponents(tokenizer, stream);
+    }
+
+    /**
+     * 取每个单词的首字母，单词边界为分隔符、小写转大写、字母数字切换；URLClassLoader -> ucl
+     */
+    public static String initials(String text) {
+        StringBuilder initials = new StringBuilder();
+        char prev = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                boolean boundary = !Character.isLetterOrDigit(prev)
+                        || (Character.isUpperCase(c) && !Character.isUpperCase(prev))
+                        || Character.isDigit(c) != Character.isDigit(prev);
+                if (boundary) {
+                    initials.append(Character.toLowerCase(c));
+                }
+            }
+            prev = c;
+        }
+        return initials.toString();
+    }
+
+    private static final class InitialsFilter extends TokenFilter {
+        private final CharTermAttribute termAttribute = addAttribute(CharTermAttribute.class);
+
+        InitialsFilter(TokenStream input) {
+            super(input);
+        }
+
+        @Override
+        public boolean incrementToken() throws IOException {
+            if (!input.incrementToken()) {
+                return false;
+            }
+            String initials = initials(termAttribute.toString());
+            termAttribute.setEmpty().append(initials);
+            return true;
+        }
+    }
+}
@@ -0,0 +1,423 @@
+package com.tc.lucene.analysis;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.lucene.codecs.CodecUtil;
+import org.apache.lucene.index.CorruptIndexException;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.IOContext;
+import org.apache.lucene.store.IndexInput;
+import org.apache.lucene.store.IndexOutput;
+import org.apache.lucene.store.MMapDirectory;
+import org.lionsoul.jcseg.IWord;
+import org.lionsoul.jcseg.SynonymsEntry;
+import org.lionsoul.jcseg.dic.ADictionary;
+import org.lionsoul.jcseg.dic.DictionaryFactory;
+import org.lionsoul.jcseg.dic.HashMapDictionary;
+import org.lionsoul.jcseg.dic.ILexicon;
+import org.lionsoul.jcseg.segmenter.SegmenterConfig;
+import org.lionsoul.jcseg.segmenter.Word;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.zip.CRC32;
+
+/**
+ * Jcseg词库的二进制快照
+ * <p>
+ * 文本词库(lexicon/lex-*.lex)每次启动都要逐行正则解析，二十多万行耗时且产生大量临时对象。
+ * 这里把解析后的词典(词条、词性、拼音、实体、同义词网)写成一个二进制文件，用lucene的 {@link MMapDirectory} 映射读取。
+ * 文件头记录每个词库文件的长度和CRC32，以及影响加载结果的配置项，任何一项变化都重新解析文本并覆盖快照；
+ * 文件尾是lucene的校验和，快照损坏时同样回退到文本解析。
+ * <pre>
+ * java -cp ... com.tc.lucene.analysis.JcsegLexiconSnapshot lexicon target/jcseg-lexicon
+ * </pre>
+ * 快照加载的词典不记录同义词根词表，开启autoload时新增的同义词不会并入已有的同义词组。
+ *
+ * @author AnthubTC
+ * @version 1.0
+ * @className JcsegLexiconSnapshot
+ * @description
+ * @date 2026/10/18 17:50
+ **/
+@Slf4j
+public class JcsegLexiconSnapshot {
+    public static final String FILE_NAME = "jcseg-lexicon.snap";
+    private static final String CODEC = "JcsegLexicon";
+    private static final int VERSION = 1;
+
+    /**
+     * 加载词典：快照与词库一致时读快照，否则解析文本词库并重写快照
+     * @param config      分词配置，词库目录取自 {@link SegmenterConfig#getLexiconPath()}
+     * @param snapshotDir 快照目录
+     */
+    public static ADictionary load(SegmenterConfig config, File snapshotDir) throws IOException {
+        List<SourceFile> sources = sourceFiles(config);
+        ADictionary dictionary = null;
+        if (new File(snapshotDir, FILE_NAME).exists()) {
+            try (Directory directory = new MMapDirectory(snapshotDir.toPath())) {
+                dictionary = read(directory, config, sources);
+            }
+        }
+        if (dictionary == null) {
+            long start = System.currentTimeMillis();
+            dictionary = parse(config);
+            write(dictionary, sources, snapshotDir);
+            log.info("Jcseg词库已重新解析并写入快照, 耗时{}ms, {}", System.currentTimeMillis() - start, snapshotDir);
+        }
+        if (config.isAutoload()) {
+            dictionary.startAutoload();
+        }
+        return dictionary;
+    }
+
+    /**
+     * 快照是否与当前词库一致
+     */
+    public static boolean isFresh(SegmenterConfig config, File snapshotDir) throws IOException {
+        if (!new File(snapshotDir, FILE_NAME).exists()) {
+            return false;
+        }
+        List<SourceFile> sources = sourceFiles(config);
+        try (Directory directory = new MMapDirectory(snapshotDir.toPath());
+             IndexInput in = directory.openInput(FILE_NAME, IOContext.READ)) {
+            CodecUtil.checksumEntireFile(in);
+            CodecUtil.checkHeader(in, CODEC, VERSION, VERSION);
+            return matches(in, config, sources);
+        } catch (IOException | RuntimeException e) {
+            // 截断、损坏的快照
+            return false;
+        }
+    }
+
+    /**
+     * 解析文本词库，与 {@link DictionaryFactory#createDefaultDictionary(SegmenterConfig, boolean)} 一致，但不启动autoload
+     */
+    public static ADictionary parse(SegmenterConfig config) throws IOException {
+        ADictionary dictionary = DictionaryFactory.createDefaultDictionary(config, false);
+        for (String path : config.getLexiconPath()) {
+            dictionary.loadDirectory(path);
+        }
+        dictionary.resetSynonymsNet();
+        return dictionary;
+    }
+
+    public static void write(ADictionary dictionary, List<SourceFile> sources, File snapshotDir) throws IOException {
+        Map<String, IWord>[] dictMap = dictMap(dictionary);
+        // 先收集词条和共享字符串，同一个词条对象只写一次
+        Map<IWord, Integer> wordIds = new IdentityHashMap<>();
+        List<IWord> words = new ArrayList<>();
+        Map<SynonymsEntry, Integer> synonyms = new IdentityHashMap<>();
+        for (Map<String, IWord> dictWords : dictMap) {
+            for (IWord word : dictWords.values()) {
+                collect(word, wordIds, words, synonyms);
+            }
+        }
+        for (SynonymsEntry entry : new ArrayList<>(synonyms.keySet())) {
+            if (entry.getRootWord() != null) {
+                collect(entry.getRootWord(), wordIds, words, synonyms);
+            }
+            for (IWord word : entry.getList()) {
+                collect(word, wordIds, words, synonyms);
+            }
+        }
+        Map<String, Integer> strings = new LinkedHashMap<>();
+        for (IWord word : words) {
+            stringId(strings, word.getPinyin());
+            stringId(strings, word.getParameter());
+            stringIds(strings, word.getPartSpeech());
+            stringIds(strings, word.getEntity());
+        }
+
+        snapshotDir.mkdirs();
+        try (Directory directory = new MMapDirectory(snapshotDir.toPath())) {
+            String tempName;
+            try (IndexOutput out = directory.createTempOutput("jcseg-lexicon", "snap", IOContext.DEFAULT)) {
+                tempName = out.getName();
+                CodecUtil.writeHeader(out, CODEC, VERSION);
+                writeSources(out, dictionary.getConfig(), sources);
+                out.writeVInt(dictionary.mixPrefixLength);
+                out.writeVInt(dictionary.mixSuffixLength);
+
+                out.writeVInt(strings.size());
+                for (String string : strings.keySet()) {
+                    out.writeString(string);
+                }
+                out.writeVInt(words.size());
+                for (IWord word : words) {
+                    out.writeString(word.getValue());
+                    out.writeVInt(word.getFrequency());
+                    out.writeZInt(word.getType());
+                    out.writeVInt(stringId(strings, word.getPinyin()) + 1);
+                    out.writeVInt(stringId(strings, word.getParameter()) + 1);
+                    writeStringIds(out, strings, word.getPartSpeech());
+                    writeStringIds(out, strings, word.getEntity());
+                }
+                for (Map<String, IWord> dictWords : dictMap) {
+                    out.writeVInt(dictWords.size());
+                    for (IWord word : dictWords.values()) {
+                        out.writeVInt(wordIds.get(word));
+                    }
+                }
+                out.writeVInt(synonyms.size());
+                for (SynonymsEntry entry : synonyms.keySet()) {
+                    out.writeVInt(entry.getRootWord() == null ? 0 : wordIds.get(entry.getRootWord()) + 1);
+                    out.writeVInt(entry.size());
+                    for (IWord word : entry.getList()) {
+                        out.writeVInt(wordIds.get(word));
+                    }
+                }
+                CodecUtil.writeFooter(out);
+            }
+            // 写完再替换，读快照的进程不会看到半个文件
+            directory.sync(Collections.singletonList(tempName));
+            if (Arrays.asList(directory.listAll()).contains(FILE_NAME)) {
+                directory.deleteFile(FILE_NAME);
+            }
+            directory.rename(tempName, FILE_NAME);
+            directory.syncMetaData();
+        }
+    }
+
+    /**
+     * 读快照，词库或配置已变化、快照损坏时返回null
+     * <p>
+     * 先校验整个文件的校验和再解码，截断或损坏的快照不会按错误的长度分配数组、越界读取
+     */
+    private static ADictionary read(Directory directory, SegmenterConfig config, List<SourceFile> sources) {
+        try (IndexInput in = directory.openInput(FILE_NAME, IOContext.READ)) {
+            CodecUtil.checksumEntireFile(in);
+            CodecUtil.checkHeader(in, CODEC, VERSION, VERSION);
+            if (!matches(in, config, sources)) {
+                log.info("Jcseg词库已变化，快照失效");
+                return null;
+            }
+            ADictionary dictionary = DictionaryFactory.createDefaultDictionary(config, false);
+            dictionary.mixPrefixLength = in.readVInt();
+            dictionary.mixSuffixLength = in.readVInt();
+
+            String[] strings = new String[in.readVInt()];
+            for (int i = 0; i < strings.length; i++) {
+                strings[i] = in.readString();
+            }
+            IWord[] words = new IWord[in.readVInt()];
+            for (int i = 0; i < words.length; i++) {
+                Word word = new Word(in.readString(), 0);
+                word.setFrequency(in.readVInt());
+                word.setType(in.readZInt());
+                word.setPinyin(string(strings, in.readVInt()));
+                word.setParameter(string(strings, in.readVInt()));
+                word.setPartSpeech(readStringIds(in, strings));
+                word.setEntity(readStringIds(in, strings));
+                words[i] = word;
+            }
+            for (int index = 0; index < ILexicon.T_LEN; index++) {
+                int size = in.readVInt();
+                for (int i = 0; i < size; i++) {
+                    dictionary.add(index, words[in.readVInt()]);
+                }
+            }
+            int synonymCount = in.readVInt();
+            for (int i = 0; i < synonymCount; i++) {
+                int root = in.readVInt();
+                SynonymsEntry entry = new SynonymsEntry(root == 0 ? null : words[root - 1]);
+                int size = in.readVInt();
+                for (int j = 0; j < size; j++) {
+                    // 词性、实体在解析时已经从根词继承过，不走SynonymsEntry#add
+                    IWord word = words[in.readVInt()];
+                    word.setSyn(entry);
+                    entry.getList().add(word);
+                }
+            }
+            if (in.getFilePointer() != in.length() - CodecUtil.footerLength()) {
+                throw new CorruptIndexException("快照内容与文件尾不连续", in);
+            }
+            return dictionary;
+        } catch (IOException | RuntimeException e) {
+            // 校验和正确但解码失败(例如写入快照的程序有缺陷)也当作快照失效
+            log.warn("Jcseg词库快照损坏，重新解析文本词库", e);
+            return null;
+        }
+    }
+
+    /**
+     * 词库目录下的 lex-*.lex，按文件名排序
+     */
+    public static List<SourceFile> sourceFiles(SegmenterConfig config) throws IOException {
+        List<SourceFile> sources = new ArrayList<>();
+        for (String path : config.getLexiconPath()) {
+            File[] files = new File(path).listFiles((dir, name) -> name.startsWith("lex-") && name.endsWith(".lex"));
+            if (files == null) {
+                throw new IOException("Lexicon directory [" + path + "] is not exists.");
+            }
+            Arrays.sort(files);
+            for (File file : files) {
+                sources.add(new SourceFile(file.getName(), file.length(), crc32(file)));
+            }
+        }
+        return sources;
+    }
+
+    private static boolean matches(IndexInput in, SegmenterConfig config, List<SourceFile> sources) throws IOException {
+        if (in.readVInt() != configKey(config)) {
+            return false;
+        }
+        int count = in.readVInt();
+        List<SourceFile> snapshotSources = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            snapshotSources.add(new SourceFile(in.readString(), in.readVLong(), in.readVLong()));
+        }
+        return snapshotSources.equals(sources);
+    }
+
+    private static void writeSources(IndexOutput out, SegmenterConfig config, List<SourceFile> sources) throws IOException {
+        out.writeVInt(configKey(config));
+        out.writeVInt(sources.size());
+        for (SourceFile source : sources) {
+            out.writeString(source.name);
+            out.writeVLong(source.length);
+            out.writeVLong(source.crc);
+        }
+    }
+
+    /**
+     * 影响词库解析结果的配置项
+     */
+    private static int configKey(SegmenterConfig config) {
+        int flags = (config.LOAD_CJK_PINYIN ? 1 : 0)
+                | (config.LOAD_CJK_POS ? 1 << 1 : 0)
+                | (config.LOAD_CJK_SYN ? 1 << 2 : 0)
+                | (config.LOAD_CJK_ENTITY ? 1 << 3 : 0)
+                | (config.LOAD_PARAMETER ? 1 << 4 : 0);
+        return config.MAX_LENGTH << 5 | flags;
+    }
+
+    private static long crc32(File file) throws IOException {
+        CRC32 crc = new CRC32();
+        byte[] buffer = new byte[64 * 1024];
+        try (InputStream in = Files.newInputStream(file.toPath())) {
+            for (int n; (n = in.read(buffer)) > 0; ) {
+                crc.update(buffer, 0, n);
+            }
+        }
+        return crc.getValue();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, IWord>[] dictMap(ADictionary dictionary) {
+        if (!(dictionary instanceof HashMapDictionary)) {
+            throw new IllegalArgumentException("只支持HashMapDictionary: " + dictionary.getClass().getName());
+        }
+        return ((HashMapDictionary) dictionary).dictMap;
+    }
+
+    private static void collect(IWord word, Map<IWord, Integer> wordIds, List<IWord> words,
+                                Map<SynonymsEntry, Integer> synonyms) {
+        if (wordIds.containsKey(word)) {
+            return;
+        }
+        wordIds.put(word, words.size());
+        words.add(word);
+        if (word.getSyn() != null) {
+            synonyms.putIfAbsent(word.getSyn(), synonyms.size());
+        }
+    }
+
+    private static int stringId(Map<String, Integer> strings, String string) {
+        return string == null ? -1 : strings.computeIfAbsent(string, key -> strings.size());
+    }
+
+    private static void stringIds(Map<String, Integer> strings, String[] values) {
+        if (values != null) {
+            for (String value : values) {
+                stringId(strings, value);
+            }
+        }
+    }
+
+    /**
+     * null写0，否则写长度+1，区分null和空数组
+     */
+    private static void writeStringIds(IndexOutput out, Map<String, Integer> strings, String[] values) throws IOException {
+        if (values == null) {
+            out.writeVInt(0);
+            return;
+        }
+        out.writeVInt(values.length + 1);
+        for (String value : values) {
+            out.writeVInt(stringId(strings, value) + 1);
+        }
+    }
+
+    private static String[] readStringIds(IndexInput in, String[] strings) throws IOException {
+        int length = in.readVInt() - 1;
+        if (length < 0) {
+            return null;
+        }
+        String[] values = new String[length];
+        for (int i = 0; i < length; i++) {
+            values[i] = string(strings, in.readVInt());
+        }
+        return values;
+    }
+
+    private static String string(String[] strings, int id) {
+        return id == 0 ? null : strings[id - 1];
+    }
+
+    /**
+     * 命令行预编译快照：JcsegLexiconSnapshot 词库目录[,词库目录] 快照目录
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("用法: JcsegLexiconSnapshot <lexiconDir[,lexiconDir]> <snapshotDir>");
+            System.exit(1);
+        }
+        SegmenterConfig config = new SegmenterConfig(true);
+        config.setLexiconPath(args[0].split(","));
+        File snapshotDir = new File(args[1]);
+        if (isFresh(config, snapshotDir)) {
+            System.out.println("快照已是最新: " + snapshotDir.getAbsolutePath());
+            return;
+        }
+        long start = System.currentTimeMillis();
+        write(parse(config), sourceFiles(config), snapshotDir);
+        System.out.printf("快照已生成: %s, 耗时%dms%n", new File(snapshotDir, FILE_NAME).getAbsolutePath(),
+                System.currentTimeMillis() - start);
+    }
+
+    public static class SourceFile {
+        private final String name;
+        private final long length;
+        private final long crc;
+
+        SourceFile(String name, long length, long crc) {
+            this.name = name;
+            this.length = length;
+            this.crc = crc;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof SourceFile)) {
+                return false;
+            }
+            SourceFile that = (SourceFile) o;
+            return length == that.length && crc == that.crc && name.equals(that.name);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(name, length, crc);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.tc.lucene.analysis;
+
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.LowerCaseFilter;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.Tokenizer;
+import org.apache.lucene.analysis.core.KeywordTokenizer;
+import org.apache.lucene.analysis.core.SimpleAnalyzer;
+import org.apache.lucene.analysis.miscellaneous.PerFieldAnalyzerWrapper;
+import org.apache.lucene.analysis.pattern.PatternReplaceCharFilter;
+
+import java.io.Reader;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * maven索引各字段的分词器
+ * <p>
+ * className、artifactId使用 {@link ClassNameAnalyzer}，并在索引时额外写入 .ngram 和 .initials 子字段；
+ * members(成员名称)同样按驼峰切分；methodSignatures(方法签名)整体作为一个词，去掉空白并转小写，
+ * 查询时写成 methodSignatures:"readValue(String, Class)"；其它字段仍用SimpleAnalyzer
+ *
+ * @author AnthubTC
+ * @version 1.0
+ * @className MavenFieldAnalyzers
+ * @description
+ * @date 2026/10/18 14:40
+ **/
+public class MavenFieldAnalyzers {
+    public static final String NGRAM_SUFFIX = ".ngram";
+    public static final String INITIALS_SUFFIX = ".initials";
+    public static final String[] NAME_FIELDS = {"className", "artifactId"};
+    public static final String MEMBERS = "members";
+    public static final String METHOD_SIGNATURES = "methodSignatures";
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    public static Analyzer indexAnalyzer() {
+        return create(new ClassNameAnalyzer(ClassNameAnalyzer.Mode.INDEX));
+    }
+
+    public static Analyzer queryAnalyzer() {
+        return create(new ClassNameAnalyzer(ClassNameAnalyzer.Mode.QUERY));
+    }
+
+    private static Analyzer create(Analyzer nameAnalyzer) {
+        Analyzer ngramAnalyzer = new ClassNameAnalyzer(ClassNameAnalyzer.Mode.EDGE_NGRAM);
+        Analyzer initialsAnalyzer = new ClassNameAnalyzer(ClassNameAnalyzer.Mode.INITIALS);
+        Map<String, Analyzer> analyzers = new HashMap<>();
+        for (String field : NAME_FIELDS) {
+            analyzers.put(field, nameAnalyzer);
+            analyzers.put(field + NGRAM_SUFFIX, ngramAnalyzer);
+            analyzers.put(field + INITIALS_SUFFIX, initialsAnalyzer);
+        }
+        analyzers.put(MEMBERS, nameAnalyzer);
+        analyzers.put(METHOD_SIGNATURES, signatureAnalyzer());
+        return new PerFieldAnalyzerWrapper(new SimpleAnalyzer(), analyzers);
+    }
+
+    private static Analyzer signatureAnalyzer() {
+        return new Analyzer() {
+            @Override
+            protected TokenStreamComponents createComponents(String fieldName) {
+                Tokenizer tokenizer = new KeywordTokenizer();
+                return new TokenStreamComponents(tokenizer, new LowerCaseFilter(tokenizer));
+            }
+
+            @Override
+            protected Reader initReader(String fieldName, Reader reader) {
+                return new PatternReplaceCharFilter(WHITESPACE, "", reader);
+            }
+
+            @Override
+            protected TokenStream normalize(String fieldName, TokenStream in) {
+                return new LowerCaseFilter(in);
+            }
+        };
+    }
+}
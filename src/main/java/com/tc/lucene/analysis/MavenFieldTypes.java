@@ -0,0 +1,39 @@
+package com.tc.lucene.analysis;
+
+import org.apache.lucene.document.FieldType;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexOptions;
+
+/**
+ * maven索引中分词字段的索引选项
+ * <p>
+ * TextField默认记录词频、位置和norms，只有可能被短语查询、按长度打分的字段才需要：
+ * .ngram、.initials 子字段只用词项查询，methodSignatures整体是一个词，都只记录文档；
+ * members是多值字段，长度是所有成员的词数之和，按长度打分没有意义，去掉norms，保留位置以支持 members:"read value"。
+ * className、artifactId仍使用TextField，可以用QueryParser写短语查询。
+ *
+ * @author AnthubTC
+ * @version 1.0
+ * @className MavenFieldTypes
+ * @description
+ * @date 2026/10/18 22:40
+ **/
+public class MavenFieldTypes {
+    /**
+     * 只做词项匹配：不存储，不记录词频、位置和norms
+     */
+    public static final FieldType MATCH_ONLY = new FieldType();
+    /**
+     * 多值的分词字段：不存储，不记录norms
+     */
+    public static final FieldType MULTI_VALUED_TEXT = new FieldType(TextField.TYPE_NOT_STORED);
+
+    static {
+        MATCH_ONLY.setTokenized(true);
+        MATCH_ONLY.setOmitNorms(true);
+        MATCH_ONLY.setIndexOptions(IndexOptions.DOCS);
+        MATCH_ONLY.freeze();
+        MULTI_VALUED_TEXT.setOmitNorms(true);
+        MULTI_VALUED_TEXT.freeze();
+    }
+}
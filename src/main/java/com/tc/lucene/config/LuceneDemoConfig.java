@@ -1,12 +1,37 @@
 package com.tc.lucene.config;
 
+import com.tc.lucene.enums.DirectoryType;
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.codecs.Codec;
+import org.apache.lucene.codecs.PostingsFormat;
+import org.apache.lucene.codecs.bloom.BloomFilteringPostingsFormat;
+import org.apache.lucene.codecs.lucene87.Lucene87Codec;
+import org.apache.lucene.index.ConcurrentMergeScheduler;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.TieredMergePolicy;
+import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.EnvironmentAware;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
 import org.springframework.stereotype.Component;
 
 import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * @author AnthubTC
@@ -17,11 +42,385 @@ import java.io.File;
  **/
 @Data
 @Configuration
-@ConfigurationProperties(prefix = "com.tc.lucene")
-public class LuceneDemoConfig {
+@ConfigurationProperties(prefix = LuceneDemoConfig.PREFIX)
+public class LuceneDemoConfig implements EnvironmentAware, InitializingBean {
+    public static final String PREFIX = "com.tc.lucene";
+    public static final String PROFILE_BULK_REBUILD = "bulk-rebuild";
+    public static final String PROFILE_INCREMENTAL = "incremental";
+
     private String indexDbPath;
 
+    /**
+     * maven仓库索引配置
+     */
+    private MavenIndex mavenIndex = new MavenIndex();
+
+    /**
+     * 搜索端配置
+     */
+    private Searcher searcher = new Searcher();
+
+    /**
+     * 分词器配置
+     */
+    private Analysis analysis = new Analysis();
+
+    /**
+     * 索引目录配置
+     */
+    private Storage storage = new Storage();
+
+    /**
+     * 索引编解码配置
+     */
+    private CodecOptions codec = new CodecOptions();
+
+    /**
+     * IndexWriter配置，按名称区分，例如 bulk-rebuild、incremental；内置的两个配置预先放入，配置文件只需写要改的属性
+     */
+    private Map<String, WriterProfile> writerProfiles = builtInWriterProfiles();
+
+    /**
+     * 用于在内置写入配置上重新绑定，不是配置项
+     */
+    @Getter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private Environment environment;
+
     public String getDemoIndexDbPath(String demo) {
         return indexDbPath + File.separator + demo + File.separator;
     }
+
+    /**
+     * 取配置的IndexWriter配置，没有配置的名称使用lucene的默认值
+     */
+    public WriterProfile getWriterProfile(String name) {
+        WriterProfile profile = writerProfiles.get(name);
+        return profile != null ? profile : new WriterProfile();
+    }
+
+    @Override
+    public void setEnvironment(Environment environment) {
+        this.environment = environment;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        if (environment != null) {
+            bindBuiltInWriterProfiles(Binder.get(environment));
+        }
+    }
+
+    /**
+     * Map中的配置对象是绑定时新建的，只配置部分属性时其余属性会变成lucene的默认值；
+     * 内置的配置改为在内置默认值上重新绑定，未配置的属性保留内置默认值
+     */
+    public void bindBuiltInWriterProfiles(Binder binder) {
+        for (Map.Entry<String, WriterProfile> entry : builtInWriterProfiles().entrySet()) {
+            WriterProfile profile = entry.getValue();
+            writerProfiles.put(entry.getKey(), binder.bind(PREFIX + ".writer-profiles." + entry.getKey(),
+                    Bindable.ofInstance(profile)).orElse(profile));
+        }
+    }
+
+    private static Map<String, WriterProfile> builtInWriterProfiles() {
+        Map<String, WriterProfile> profiles = new LinkedHashMap<>();
+        profiles.put(PROFILE_BULK_REBUILD, WriterProfile.bulkRebuild());
+        profiles.put(PROFILE_INCREMENTAL, WriterProfile.incremental());
+        return profiles;
+    }
+
+    @Data
+    public static class MavenIndex {
+        /**
+         * maven本地仓库目录
+         */
+        private String repositoryPath;
+        /**
+         * 索引名称，索引目录为 getDemoIndexDbPath(indexName)
+         */
+        private String indexName = "mvn";
+        /**
+         * 建索引的工作线程数，小于等于0时取CPU核数
+         */
+        private int threads = 0;
+        /**
+         * 目录遍历和工作线程之间的待处理jar队列容量，遍历速度超过索引速度时阻塞遍历线程
+         */
+        private int queueCapacity = 1024;
+        /**
+         * 进度日志的输出间隔(秒)，不大于0时不输出
+         */
+        private int progressIntervalSeconds = 10;
+        /**
+         * 增量索引时是否校验jar内容(sha1)，大小相同但修改时间变化的jar内容未变时不重建索引
+         */
+        private boolean contentHash = false;
+        /**
+         * 分片数，按groupId的哈希分片，大于1时分片目录为 getDemoIndexDbPath(indexName/shard-i)；修改后需要全量重建
+         */
+        private int shards = 1;
+        /**
+         * 跳过内部类、匿名类和编译器生成的类(类名含 '$')
+         */
+        private boolean skipInnerClasses = false;
+        /**
+         * 跳过 module-info
+         */
+        private boolean skipModuleInfo = false;
+        /**
+         * 跳过多版本jar中 META-INF/versions/ 下与根目录重复的class；只在版本目录中才有的class保留，按去掉版本目录的类名索引
+         */
+        private boolean skipVersionedClasses = false;
+        /**
+         * 是否解析class文件，索引public方法、字段名称(members)和方法签名(methodSignatures)；会增加建索引的时间和索引大小
+         */
+        private boolean indexMembers = false;
+        /**
+         * 解析成员时读取的class大小上限(字节)，更大的class只索引类名
+         */
+        private int maxClassFileBytes = 1024 * 1024;
+
+        public int resolveThreads() {
+            return threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        }
+
+        public int resolveShards() {
+            return Math.max(1, shards);
+        }
+
+        /**
+         * groupId所在的分片，同一groupId下的jar(包括同一artifact的所有版本)在同一个分片
+         */
+        public int shardOf(String groupId) {
+            return Math.floorMod(groupId.hashCode(), resolveShards());
+        }
+
+        /**
+         * 分片的索引名称，只有一个分片时就是indexName
+         */
+        public String shardIndexName(int shard) {
+            return resolveShards() == 1 ? indexName : indexName + "/shard-" + shard;
+        }
+
+        public List<String> shardIndexNames() {
+            List<String> names = new ArrayList<>(resolveShards());
+            for (int shard = 0; shard < resolveShards(); shard++) {
+                names.add(shardIndexName(shard));
+            }
+            return names;
+        }
+    }
+
+    @Data
+    public static class Searcher {
+        /**
+         * 后台检查索引新提交的间隔(毫秒)，小于等于0时只在收到提交事件时刷新
+         */
+        private long refreshIntervalMillis = 1000;
+        /**
+         * 新reader投入使用前是否预热
+         */
+        private boolean warm = true;
+        /**
+         * 同时执行的最大查询数，小于等于0时取CPU核数的2倍
+         */
+        private int maxConcurrentSearches = 0;
+        /**
+         * 查询排队等待的最长时间(毫秒)，超时返回繁忙
+         */
+        private long admissionTimeoutMillis = 2000;
+        /**
+         * 搜索结果缓存的最大内存(MB)，小于等于0时不缓存
+         */
+        private int resultCacheSizeMb = 16;
+        /**
+         * 分片并发查询的线程数，小于等于0时取CPU核数
+         */
+        private int shardSearchThreads = 0;
+        /**
+         * 是否开启查询内并发，开启后一个查询的段按切片在共享线程池中并行执行
+         */
+        private boolean concurrent = false;
+        /**
+         * 查询内并发的线程数，小于等于0时取CPU核数；线程都在忙时切片在查询线程上执行
+         */
+        private int concurrentThreads = 0;
+        /**
+         * 一个切片最多包含的文档数，超过的段单独成为一个切片
+         */
+        private int maxDocsPerSlice = 250_000;
+        /**
+         * 一个切片最多包含的段数
+         */
+        private int maxSegmentsPerSlice = 5;
+        /**
+         * 一个查询最多使用的切片数，小于等于0时取查询内并发的线程数
+         */
+        private int maxSlicesPerQuery = 4;
+
+        public int resolveMaxConcurrentSearches() {
+            return maxConcurrentSearches > 0 ? maxConcurrentSearches : Runtime.getRuntime().availableProcessors() * 2;
+        }
+
+        public int resolveShardSearchThreads() {
+            return shardSearchThreads > 0 ? shardSearchThreads : Runtime.getRuntime().availableProcessors();
+        }
+
+        public int resolveConcurrentThreads() {
+            return concurrentThreads > 0 ? concurrentThreads : Runtime.getRuntime().availableProcessors();
+        }
+
+        public int resolveMaxSlicesPerQuery() {
+            return maxSlicesPerQuery > 0 ? maxSlicesPerQuery : resolveConcurrentThreads();
+        }
+    }
+
+    @Data
+    public static class Analysis {
+        /**
+         * Jcseg词库目录
+         */
+        private String jcsegLexiconPath = "lexicon";
+        /**
+         * Jcseg词库快照目录，不配置时为 getDemoIndexDbPath("jcseg-lexicon")
+         */
+        private String jcsegSnapshotPath;
+    }
+
+    @Data
+    public static class Storage {
+        /**
+         * 索引目录的实现方式
+         */
+        private DirectoryType type = DirectoryType.FS;
+        /**
+         * MMAP、NRT_CACHING时预加载到页缓存的文件扩展名，例如 cfs、tip、tim、dvd；为空时不预加载。
+         * 写入配置开启复合文件时，小段的tip、tim等都在cfs里，只配tip、tim预加载不到这些段
+         */
+        private Set<String> preloadExtensions = new LinkedHashSet<>();
+        /**
+         * NRT_CACHING时缓存的单个段的最大大小(MB)，超过的段直接写入磁盘；缓存按索引目录在进程内共享，第一次打开时的配置生效
+         */
+        private double nrtMaxMergeSizeMb = 5;
+        /**
+         * NRT_CACHING时缓存的总大小(MB)
+         */
+        private double nrtMaxCachedMb = 60;
+    }
+
+    @Data
+    public static class CodecOptions {
+        /**
+         * 存储字段的压缩方式：BEST_SPEED(LZ4)、BEST_COMPRESSION(DEFLATE)，存储字段只在取结果时读取，默认取压缩率高的
+         */
+        private Lucene87Codec.Mode storedFieldsMode = Lucene87Codec.Mode.BEST_COMPRESSION;
+        /**
+         * 词典前加一层BloomFilter的字段，适合按主键精确查找且经常查不到的字段(增量更新时新jar的filePath、删除集合时的classSetId)；
+         * 只对精确查找(seekExact)有效，前缀、范围查询照常遍历词典
+         */
+        private Set<String> bloomFilterFields = new LinkedHashSet<>(Arrays.asList("filePath", "classSetId"));
+
+        /**
+         * 写入时使用的编解码器；编解码器名称仍是Lucene87，读取时按段和字段记录的格式解码，不需要同样的配置
+         */
+        public Codec newCodec() {
+            PostingsFormat bloomFilter = new BloomFilteringPostingsFormat(PostingsFormat.forName("Lucene84"));
+            Set<String> fields = new LinkedHashSet<>(bloomFilterFields);
+            return new Lucene87Codec(storedFieldsMode) {
+                @Override
+                public PostingsFormat getPostingsFormatForField(String field) {
+                    return fields.contains(field) ? bloomFilter : super.getPostingsFormatForField(field);
+                }
+            };
+        }
+    }
+
+    /**
+     * IndexWriter的写入、合并参数，默认值与lucene一致
+     */
+    @Data
+    public static class WriterProfile {
+        /**
+         * 单个分片最少分到的内存缓冲区(MB)
+         */
+        public static final double MIN_SHARD_RAM_BUFFER_SIZE_MB = 16;
+        /**
+         * 内存缓冲区大小(MB)，写满后刷新成一个新段；是一次写入所有分片IndexWriter共用的总量，按分片数平分
+         */
+        private double ramBufferSizeMb = IndexWriterConfig.DEFAULT_RAM_BUFFER_SIZE_MB;
+        /**
+         * 缓冲的文档数达到后刷新，小于等于0时只按内存刷新
+         */
+        private int maxBufferedDocs = 0;
+        /**
+         * TieredMergePolicy每层允许的段数，越大合并越少、段越多
+         */
+        private double segmentsPerTier = 10;
+        /**
+         * 合并产生的最大段(MB)
+         */
+        private double maxMergedSegmentMb = 5 * 1024;
+        /**
+         * 合并线程数，小于等于0时由lucene按磁盘类型和CPU核数决定
+         */
+        private int mergeThreads = 0;
+        /**
+         * 是否使用复合文件(.cfs)，减少文件句柄，但写入时多一次拷贝
+         */
+        private boolean useCompoundFile = true;
+        /**
+         * 提交后强制合并到的段数，小于等于0时不强制合并
+         */
+        private int forceMergeSegments = 0;
+
+        public static WriterProfile bulkRebuild() {
+            WriterProfile profile = new WriterProfile();
+            profile.setRamBufferSizeMb(256);
+            profile.setSegmentsPerTier(20);
+            profile.setUseCompoundFile(false);
+            return profile;
+        }
+
+        public static WriterProfile incremental() {
+            WriterProfile profile = new WriterProfile();
+            profile.setRamBufferSizeMb(32);
+            return profile;
+        }
+
+        public IndexWriterConfig newIndexWriterConfig(Analyzer analyzer) {
+            return newIndexWriterConfig(analyzer, 1);
+        }
+
+        /**
+         * 同时打开writers个IndexWriter时每个的配置，内存缓冲区按writers平分，峰值堆内存不随分片数翻倍
+         */
+        public IndexWriterConfig newIndexWriterConfig(Analyzer analyzer, int writers) {
+            TieredMergePolicy mergePolicy = new TieredMergePolicy();
+            mergePolicy.setSegmentsPerTier(segmentsPerTier);
+            mergePolicy.setMaxMergedSegmentMB(maxMergedSegmentMb);
+            if (!useCompoundFile) {
+                mergePolicy.setNoCFSRatio(0.0);
+            }
+            ConcurrentMergeScheduler mergeScheduler = new ConcurrentMergeScheduler();
+            if (mergeThreads > 0) {
+                mergeScheduler.setMaxMergesAndThreads(mergeThreads + 5, mergeThreads);
+            }
+            return new IndexWriterConfig(analyzer)
+                    .setRAMBufferSizeMB(shardRamBufferSizeMb(writers))
+                    .setMaxBufferedDocs(maxBufferedDocs > 0 ? maxBufferedDocs : IndexWriterConfig.DISABLE_AUTO_FLUSH)
+                    .setMergePolicy(mergePolicy)
+                    .setMergeScheduler(mergeScheduler)
+                    .setUseCompoundFile(useCompoundFile);
+        }
+
+        /**
+         * 平分后的缓冲区不低于MIN_SHARD_RAM_BUFFER_SIZE_MB，避免分片多时频繁刷新出大量小段；总量本身更小时不再放大
+         */
+        public double shardRamBufferSizeMb(int writers) {
+            double share = ramBufferSizeMb / Math.max(1, writers);
+            return Math.max(share, Math.min(ramBufferSizeMb, MIN_SHARD_RAM_BUFFER_SIZE_MB));
+        }
+    }
 }
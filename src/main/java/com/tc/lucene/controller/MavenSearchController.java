@@ -0,0 +1,123 @@
+package com.tc.lucene.controller;
+
+import com.tc.lucene.dto.IndexSizeReport;
+import com.tc.lucene.dto.MavenJar;
+import com.tc.lucene.dto.MavenSearchRequest;
+import com.tc.lucene.dto.MavenSuggestion;
+import com.tc.lucene.dto.PageResult;
+import com.tc.lucene.dto.SearchCacheStats;
+import com.tc.lucene.enums.MavenContentType;
+import com.tc.lucene.enums.MavenSortType;
+import com.tc.lucene.service.MavenRepoIndexer;
+import com.tc.lucene.service.MavenSearchService;
+import com.tc.lucene.service.MavenSuggester;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.lucene.index.IndexNotFoundException;
+import org.apache.lucene.queryparser.classic.ParseException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * maven仓库搜索接口
+ * <p>
+ * GET /api/maven/search?type=Artifact|Clazz&q=spring-core&versionRange=[5.3,6)&sort=Relevance|Version&collapse=true&withFilePath=false&page=1&size=10
+ * GET /api/maven/suggest?q=StringU&size=10
+ * GET /api/maven/cache/stats
+ * GET /api/maven/index/size
+ *
+ * @author AnthubTC
+ * @version 1.0
+ * @className MavenSearchController
+ * @description
+ * @date 2026/10/18 13:20
+ **/
+@Slf4j
+@RestController
+@RequestMapping("/api/maven")
+public class MavenSearchController {
+    private static final int MAX_PAGE_SIZE = 100;
+
+    private final MavenSearchService mavenSearchService;
+    private final MavenSuggester mavenSuggester;
+    private final MavenRepoIndexer mavenRepoIndexer;
+
+    public MavenSearchController(MavenSearchService mavenSearchService, MavenSuggester mavenSuggester,
+                                 MavenRepoIndexer mavenRepoIndexer) {
+        this.mavenSearchService = mavenSearchService;
+        this.mavenSuggester = mavenSuggester;
+        this.mavenRepoIndexer = mavenRepoIndexer;
+    }
+
+    @GetMapping("/search")
+    public PageResult<MavenJar> search(@RequestParam(defaultValue = "Artifact") MavenContentType type,
+                                       @RequestParam("q") String keyword,
+                                       @RequestParam(required = false) String versionRange,
+                                       @RequestParam(defaultValue = "Relevance") MavenSortType sort,
+                                       @RequestParam(defaultValue = "false") boolean collapse,
+                                       @RequestParam(defaultValue = "false") boolean withFilePath,
+                                       @RequestParam(defaultValue = "1") int page,
+                                       @RequestParam(defaultValue = "10") int size) throws ParseException, IOException {
+        if (page < 1 || size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("page从1开始，size范围1~" + MAX_PAGE_SIZE);
+        }
+        MavenSearchService.checkResultWindow(page, size);
+        MavenSearchRequest request = MavenSearchRequest.of(type, keyword, page, size);
+        request.setVersionRange(versionRange);
+        request.setSort(sort);
+        request.setCollapse(collapse);
+        request.setWithFilePath(withFilePath);
+        return mavenSearchService.search(request);
+    }
+
+    @GetMapping("/suggest")
+    public List<MavenSuggestion> suggest(@RequestParam("q") String prefix,
+                                         @RequestParam(defaultValue = "10") int size) throws IOException {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("size范围1~" + MAX_PAGE_SIZE);
+        }
+        return mavenSuggester.suggest(prefix, size);
+    }
+
+    @GetMapping("/cache/stats")
+    public SearchCacheStats cacheStats() {
+        return mavenSearchService.getCacheStats();
+    }
+
+    /**
+     * 按文件类型和字段统计索引大小，需要遍历整个索引；索引没有新提交时返回上次的结果，同时只有一个请求在统计
+     */
+    @GetMapping("/index/size")
+    public IndexSizeReport indexSize() throws IOException {
+        return mavenRepoIndexer.sizeReport();
+    }
+
+    @ExceptionHandler({ParseException.class, IllegalArgumentException.class})
+    public ResponseEntity<Map<String, String>> badRequest(Exception e) {
+        return error(HttpStatus.BAD_REQUEST, e.getMessage());
+    }
+
+    @ExceptionHandler(MavenSearchService.SearchBusyException.class)
+    public ResponseEntity<Map<String, String>> busy(MavenSearchService.SearchBusyException e) {
+        return error(HttpStatus.SERVICE_UNAVAILABLE, e.getMessage());
+    }
+
+    @ExceptionHandler(IndexNotFoundException.class)
+    public ResponseEntity<Map<String, String>> indexNotFound(IndexNotFoundException e) {
+        log.warn("索引不存在", e);
+        return error(HttpStatus.SERVICE_UNAVAILABLE, "索引尚未建立");
+    }
+
+    private static ResponseEntity<Map<String, String>> error(HttpStatus status, String message) {
+        return ResponseEntity.status(status).body(Collections.singletonMap("message", message));
+    }
+}
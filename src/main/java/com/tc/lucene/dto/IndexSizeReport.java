@@ -0,0 +1,174 @@
+package com.tc.lucene.dto;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 索引大小报告
+ * <p>
+ * 文件类型部分是磁盘上的实际大小(压缩后)，复合文件(.cfs)拆开按内部文件统计；
+ * 字段部分是各字段写入的原始数据量(压缩前)，用来判断哪些字段占得多、修改索引选项后能省多少，
+ * 两部分都包含已删除但还没有合并掉的文档。
+ *
+ * @author AnthubTC
+ * @version 1.0
+ * @className IndexSizeReport
+ * @description
+ * @date 2026/10/18 22:50
+ **/
+@Data
+public class IndexSizeReport {
+    private static final Map<String, String> FILE_TYPES = new HashMap<>();
+
+    static {
+        FILE_TYPES.put("segments", "提交点");
+        FILE_TYPES.put("si", "段信息");
+        FILE_TYPES.put("fnm", "字段信息");
+        FILE_TYPES.put("liv", "删除标记");
+        FILE_TYPES.put("tim", "词典");
+        FILE_TYPES.put("tip", "词典索引");
+        FILE_TYPES.put("tmd", "词典元数据");
+        FILE_TYPES.put("doc", "文档列表和词频");
+        FILE_TYPES.put("pos", "位置");
+        FILE_TYPES.put("pay", "payload和偏移");
+        FILE_TYPES.put("blm", "BloomFilter");
+        FILE_TYPES.put("nvd", "norms");
+        FILE_TYPES.put("nvm", "norms元数据");
+        FILE_TYPES.put("dvd", "doc values");
+        FILE_TYPES.put("dvm", "doc values元数据");
+        FILE_TYPES.put("fdt", "存储字段");
+        FILE_TYPES.put("fdx", "存储字段索引");
+        FILE_TYPES.put("fdm", "存储字段元数据");
+        FILE_TYPES.put("dii", "点索引");
+        FILE_TYPES.put("dim", "点数据");
+        FILE_TYPES.put("kdi", "点索引");
+        FILE_TYPES.put("kdd", "点数据");
+        FILE_TYPES.put("kdm", "点元数据");
+        FILE_TYPES.put("tvd", "词向量");
+        FILE_TYPES.put("tvx", "词向量索引");
+        FILE_TYPES.put("tvm", "词向量元数据");
+    }
+
+    private int segments;
+    private long maxDoc;
+    private long numDocs;
+    /**
+     * 各段存储字段的压缩方式
+     */
+    private Set<String> storedFieldsModes = new LinkedHashSet<>();
+    /**
+     * 扩展名 -> 字节数
+     */
+    private Map<String, Long> fileTypes = new LinkedHashMap<>();
+    private List<FieldSize> fields = new ArrayList<>();
+
+    public long getTotalBytes() {
+        long total = 0;
+        for (long bytes : fileTypes.values()) {
+            total += bytes;
+        }
+        return total;
+    }
+
+    @Override
+    public String toString() {
+        long total = getTotalBytes();
+        StringBuilder builder = new StringBuilder(String.format("索引大小: %s, 段数: %d, 文档数: %d, 已删除: %d, 存储字段压缩: %s%n",
+                bytes(total), segments, numDocs, maxDoc - numDocs, storedFieldsModes));
+        builder.append("按文件类型:\n");
+        for (Map.Entry<String, Long> entry : fileTypes.entrySet()) {
+            builder.append(String.format("  %-6s %-14s %10s %5.1f%%%n", entry.getKey(),
+                    FILE_TYPES.getOrDefault(entry.getKey(), ""), bytes(entry.getValue()),
+                    total == 0 ? 0 : entry.getValue() * 100.0 / total));
+        }
+        builder.append("按字段(压缩前):\n");
+        for (FieldSize field : fields) {
+            builder.append("  ").append(field).append('\n');
+        }
+        return builder.toString();
+    }
+
+    static String bytes(long bytes) {
+        if (bytes < 1024) {
+            return bytes + "B";
+        }
+        if (bytes < 1024 * 1024) {
+            return String.format("%.1fKB", bytes / 1024.0);
+        }
+        return String.format("%.1fMB", bytes / 1024.0 / 1024);
+    }
+
+    @Data
+    public static class FieldSize {
+        private String name;
+        /**
+         * 倒排的索引选项，NONE表示不索引
+         */
+        private String indexOptions;
+        /**
+         * 倒排格式，例如 Lucene84、BloomFilter
+         */
+        private String postingsFormat;
+        private boolean norms;
+        /**
+         * doc values类型，NONE表示没有
+         */
+        private String docValuesType;
+        /**
+         * 各段的词数之和，同一个词在多个段中重复计数
+         */
+        private long terms;
+        private long termBytes;
+        /**
+         * 文档列表的条数(各词的文档频率之和)
+         */
+        private long postings;
+        /**
+         * 位置的个数(各词的词频之和)，不记录词频时为0
+         */
+        private long positions;
+        private long storedBytes;
+        /**
+         * doc values的值字节数，SORTED、SORTED_SET按每段去重后的值计算
+         */
+        private long docValuesBytes;
+
+        public FieldSize(String name) {
+            this.name = name;
+        }
+
+        /**
+         * 词、存储字段和doc values的原始字节数之和，用于排序
+         */
+        public long getRawBytes() {
+            return termBytes + storedBytes + docValuesBytes;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder builder = new StringBuilder(String.format("%-24s %10s", name, bytes(getRawBytes())));
+            if (!"NONE".equals(indexOptions)) {
+                builder.append(String.format(", 倒排: %s/%s, 词: %d个 %s, 文档列表: %d条",
+                        indexOptions, postingsFormat, terms, bytes(termBytes), postings));
+                if (positions > 0) {
+                    builder.append(", 位置: ").append(positions).append('个');
+                }
+                builder.append(norms ? ", norms" : "");
+            }
+            if (storedBytes > 0) {
+                builder.append(", 存储: ").append(bytes(storedBytes));
+            }
+            if (!"NONE".equals(docValuesType)) {
+                builder.append(", docValues: ").append(docValuesType).append(' ').append(bytes(docValuesBytes));
+            }
+            return builder.toString();
+        }
+    }
+}
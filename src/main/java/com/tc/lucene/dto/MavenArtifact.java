@@ -1,12 +1,18 @@
 package com.tc.lucene.dto;
 
+import com.tc.lucene.analysis.MavenFieldAnalyzers;
+import com.tc.lucene.analysis.MavenFieldTypes;
 import com.tc.lucene.enums.MavenContentType;
+import com.tc.lucene.util.MavenVersionUtil;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
 import org.apache.lucene.document.*;
 import org.apache.lucene.index.IndexableField;
+import org.apache.lucene.util.BytesRef;
+
+import java.io.File;
 
 
 /**
@@ -19,10 +25,27 @@ import org.apache.lucene.index.IndexableField;
 @Data
 @EqualsAndHashCode(callSuper = true)
 public class MavenArtifact extends MavenJar {
+    /**
+     * 是否是带classifier的jar(-sources、-tests等)，主jar为0；按artifact合并结果时同一版本优先取主jar
+     */
+    public static final String FIELD_CLASSIFIED = "classified";
+
     private String groupId;
     private String artifactId;
     private String version;
     private String filePath;
+    /**
+     * jar文件指纹，只在jar文档上存储
+     */
+    private MavenJarFingerprint fingerprint;
+    /**
+     * jar中class集合的id，见 {@link MavenClassSet}
+     */
+    private String classSetId;
+    /**
+     * 按artifact合并搜索结果时，该artifact命中的版本数；不写入索引
+     */
+    private Long versionCount;
 
     public MavenArtifact() {
         super.setType(MavenContentType.Artifact.getType());
@@ -35,16 +58,59 @@ public class MavenArtifact extends MavenJar {
         this.version = version;
     }
 
+    /**
+     * 坐标 groupId:artifactId:version；同一版本目录下的 -sources、-tests 等jar与主jar的坐标相同，不能用来区分jar文件
+     */
+    public String getGav() {
+        return groupId + ":" + artifactId + ":" + version;
+    }
+
+    /**
+     * 不含版本的坐标 groupId:artifactId
+     */
+    public String getGa() {
+        return groupId + ":" + artifactId;
+    }
+
     public Iterable<? extends IndexableField> toDocument() {
         Document document = new Document();
         document.add(new StringField("type", String.valueOf(this.getType()), Field.Store.YES));
+        document.add(new SortedDocValuesField("type", new BytesRef(String.valueOf(this.getType()))));
+        document.add(new StringField("ga", this.getGa(), Field.Store.NO));
+        document.add(new SortedDocValuesField("ga", new BytesRef(this.getGa())));
         document.add(new StringField("groupId", this.getGroupId(), Field.Store.YES));
+        document.add(new SortedDocValuesField("groupId", new BytesRef(this.getGroupId())));
         document.add(new TextField("artifactId", this.getArtifactId(), Field.Store.YES));
+        document.add(new Field("artifactId" + MavenFieldAnalyzers.NGRAM_SUFFIX, this.getArtifactId(), MavenFieldTypes.MATCH_ONLY));
+        document.add(new Field("artifactId" + MavenFieldAnalyzers.INITIALS_SUFFIX, this.getArtifactId(), MavenFieldTypes.MATCH_ONLY));
+        document.add(new SortedDocValuesField("artifactId", new BytesRef(this.getArtifactId())));
         document.add(new StringField("version", this.getVersion(), Field.Store.YES));
-        document.add(new StoredField("filePath", this.getFilePath()));
+        document.add(new SortedDocValuesField("version", new BytesRef(this.getVersion())));
+        // 版本排序key，按maven版本语义排序、范围过滤
+        BytesRef versionKey = MavenVersionUtil.sortKey(this.getVersion());
+        document.add(new StringField(MavenVersionUtil.FIELD_VERSION_KEY, versionKey, Field.Store.NO));
+        document.add(new SortedDocValuesField(MavenVersionUtil.FIELD_VERSION_KEY, versionKey));
+        // jar文件的唯一标识，增量索引时按它更新、删除jar文档
+        document.add(new StringField("filePath", this.getFilePath(), Field.Store.YES));
+        document.add(new NumericDocValuesField(FIELD_CLASSIFIED, this.hasClassifier() ? 1 : 0));
+        if (this.getFingerprint() != null) {
+            this.getFingerprint().addTo(document);
+        }
+        if (this.getClassSetId() != null) {
+            // 查询时按它从class集合关联到jar
+            document.add(new StringField(MavenClassSet.FIELD_ID, this.getClassSetId(), Field.Store.NO));
+            document.add(new SortedDocValuesField(MavenClassSet.FIELD_ID, new BytesRef(this.getClassSetId())));
+        }
         return document;
     }
 
+    /**
+     * 主jar的文件名是 artifactId-version.jar，其他同目录的jar都带classifier
+     */
+    private boolean hasClassifier() {
+        return !new File(this.getFilePath()).getName().equals(this.getArtifactId() + "-" + this.getVersion() + ".jar");
+    }
+
     public static MavenArtifact fromDocument(Document document) {
         MavenArtifact mavenArtifact = new MavenArtifact();
         mavenArtifact.setType(Integer.valueOf(document.get("type")));
@@ -52,6 +118,7 @@ public class MavenArtifact extends MavenJar {
         mavenArtifact.setArtifactId(document.get("artifactId"));
         mavenArtifact.setVersion(document.get("version"));
         mavenArtifact.setFilePath(document.get("filePath"));
+        mavenArtifact.setFingerprint(MavenJarFingerprint.fromDocument(document));
         return mavenArtifact;
     }
 
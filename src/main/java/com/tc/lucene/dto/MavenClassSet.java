@@ -0,0 +1,109 @@
+package com.tc.lucene.dto;
+
+import cn.hutool.core.util.HexUtil;
+import com.tc.lucene.enums.MavenContentType;
+import lombok.Getter;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.SortedDocValuesField;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.index.IndexableField;
+import org.apache.lucene.util.BytesRef;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * jar中的class集合，按内容寻址
+ * <p>
+ * 同一artifact相邻版本的class列表往往完全相同，按排序后的类名(解析了成员时连同成员和方法签名)计算sha1作为id，
+ * 内容相同的jar共用一个集合，class文档只写一次。集合和它的class组成一个文档块：class是子文档在前，集合是父文档在最后，
+ * 供block join查询；jar文档通过 classSetId 引用集合，查询时再关联回各个版本的jar。
+ *
+ * @author AnthubTC
+ * @version 1.0
+ * @className MavenClassSet
+ * @description
+ * @date 2026/10/18 21:50
+ **/
+@Getter
+public class MavenClassSet {
+    public static final String FIELD_ID = "classSetId";
+
+    private final String id;
+    private final List<MavenJarClass> classes;
+
+    private MavenClassSet(String id, List<MavenJarClass> classes) {
+        this.id = id;
+        this.classes = classes;
+    }
+
+    /**
+     * @param mavenJarClasses jar中的class，按类名排序后计算id
+     */
+    public static MavenClassSet of(List<MavenJarClass> mavenJarClasses) {
+        List<MavenJarClass> sorted = new ArrayList<>(mavenJarClasses);
+        sorted.sort(Comparator.comparing(MavenJarClass::getClassName));
+        MessageDigest digest = sha1();
+        for (MavenJarClass mavenJarClass : sorted) {
+            update(digest, mavenJarClass.getClassName());
+            update(digest, mavenJarClass.getMembers());
+            update(digest, mavenJarClass.getMethodSignatures());
+        }
+        return new MavenClassSet(HexUtil.encodeHexStr(digest.digest()), sorted);
+    }
+
+    /**
+     * class文档在前，集合文档在最后，同一次addDocuments写入，保证在索引中相邻；
+     * class文档也带上classSetId，集合不再被引用时按它整块删除
+     */
+    public List<Iterable<? extends IndexableField>> toBlock() {
+        List<Iterable<? extends IndexableField>> documents = new ArrayList<>(classes.size() + 1);
+        for (MavenJarClass mavenJarClass : classes) {
+            Document document = mavenJarClass.toDocument();
+            document.add(new StringField(FIELD_ID, id, Field.Store.NO));
+            documents.add(document);
+        }
+        String type = String.valueOf(MavenContentType.ClassSet.getType());
+        Document document = new Document();
+        document.add(new StringField("type", type, Field.Store.YES));
+        document.add(new SortedDocValuesField("type", new BytesRef(type)));
+        document.add(new StringField(FIELD_ID, id, Field.Store.NO));
+        document.add(new SortedDocValuesField(FIELD_ID, new BytesRef(id)));
+        document.add(new StoredField("classCount", classes.size()));
+        documents.add(document);
+        return documents;
+    }
+
+    /**
+     * 每个值后面跟一个分隔符，未解析成员(null)与没有成员(空列表)区分开
+     */
+    private static void update(MessageDigest digest, List<String> values) {
+        if (values == null) {
+            digest.update((byte) 2);
+            return;
+        }
+        for (String value : values) {
+            update(digest, value);
+        }
+        digest.update((byte) 1);
+    }
+
+    private static void update(MessageDigest digest, String value) {
+        digest.update(value.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+    }
+
+    private static MessageDigest sha1() {
+        try {
+            return MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
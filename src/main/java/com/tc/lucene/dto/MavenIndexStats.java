@@ -0,0 +1,187 @@
+package com.tc.lucene.dto;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * @author AnthubTC
+ * @version 1.0
+ * @className MavenIndexStats
+ * @description maven仓库索引的吞吐统计，多个工作线程并发累加
+ * @date 2026/10/18 10:20
+ **/
+public class MavenIndexStats {
+    private final long startNanos = System.nanoTime();
+    private final AtomicLong discoveredJars = new AtomicLong();
+    private final AtomicLong jars = new AtomicLong();
+    private final AtomicLong classes = new AtomicLong();
+    private final AtomicLong failedJars = new AtomicLong();
+    private final AtomicLong skippedJars = new AtomicLong();
+    private final AtomicLong deletedJars = new AtomicLong();
+    private final AtomicLong unreadablePaths = new AtomicLong();
+    private final AtomicLong indexedClassSets = new AtomicLong();
+    private final AtomicLong reusedClassSets = new AtomicLong();
+    private final AtomicLong deletedClassSets = new AtomicLong();
+    private volatile long endNanos;
+    private volatile String writerProfile;
+    private volatile int segments;
+    private volatile int shards;
+
+    public void jarDiscovered() {
+        discoveredJars.incrementAndGet();
+    }
+
+    public void jarIndexed(int classCount) {
+        jars.incrementAndGet();
+        classes.addAndGet(classCount);
+    }
+
+    public void jarFailed() {
+        failedJars.incrementAndGet();
+    }
+
+    public void jarSkipped() {
+        skippedJars.incrementAndGet();
+    }
+
+    public void jarDeleted() {
+        deletedJars.incrementAndGet();
+    }
+
+    /**
+     * 遍历仓库时有文件或目录无法访问，其中原来索引的jar保留，不当作已删除
+     */
+    public void pathsUnreadable(int count) {
+        unreadablePaths.addAndGet(count);
+    }
+
+    /**
+     * 写入了新的class集合
+     */
+    public void classSetIndexed() {
+        indexedClassSets.incrementAndGet();
+    }
+
+    /**
+     * jar的class集合已经在索引中，没有重复写入class文档
+     */
+    public void classSetReused() {
+        reusedClassSets.incrementAndGet();
+    }
+
+    /**
+     * 删除了不再被引用的class集合
+     */
+    public void classSetDeleted() {
+        deletedClassSets.incrementAndGet();
+    }
+
+    public String getWriterProfile() {
+        return writerProfile;
+    }
+
+    public void setWriterProfile(String writerProfile) {
+        this.writerProfile = writerProfile;
+    }
+
+    /**
+     * 提交后索引的段数，多个分片时为各分片之和
+     */
+    public int getSegments() {
+        return segments;
+    }
+
+    public void setSegments(int segments) {
+        this.segments = segments;
+    }
+
+    /**
+     * 本次写入的分片数
+     */
+    public int getShards() {
+        return shards;
+    }
+
+    public void setShards(int shards) {
+        this.shards = shards;
+    }
+
+    public void finish() {
+        endNanos = System.nanoTime();
+    }
+
+    public long getDiscoveredJars() {
+        return discoveredJars.get();
+    }
+
+    public long getJars() {
+        return jars.get();
+    }
+
+    public long getClasses() {
+        return classes.get();
+    }
+
+    public long getFailedJars() {
+        return failedJars.get();
+    }
+
+    public long getSkippedJars() {
+        return skippedJars.get();
+    }
+
+    public long getDeletedJars() {
+        return deletedJars.get();
+    }
+
+    public long getUnreadablePaths() {
+        return unreadablePaths.get();
+    }
+
+    public long getIndexedClassSets() {
+        return indexedClassSets.get();
+    }
+
+    public long getReusedClassSets() {
+        return reusedClassSets.get();
+    }
+
+    public long getDeletedClassSets() {
+        return deletedClassSets.get();
+    }
+
+    public long getElapsedMillis() {
+        long end = endNanos > 0 ? endNanos : System.nanoTime();
+        return TimeUnit.NANOSECONDS.toMillis(end - startNanos);
+    }
+
+    public double getJarsPerSecond() {
+        return perSecond(getJars());
+    }
+
+    public double getClassesPerSecond() {
+        return perSecond(getClasses());
+    }
+
+    private double perSecond(long count) {
+        long millis = Math.max(1, getElapsedMillis());
+        return count * 1000.0 / millis;
+    }
+
+    /**
+     * 进度汇总
+     * @param pendingJars 队列中等待处理的jar数
+     */
+    public String progress(int pendingJars) {
+        return String.format("已发现jar: %d个, 待处理: %d个, %s", getDiscoveredJars(), pendingJars, this);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("jar: %d个(失败%d个, 未变化%d个, 已删除%d个, 无法访问的路径%d个), class: %d个, class集合: 新增%d个(复用%d次, 已删除%d个), "
+                        + "耗时: %.1fs, 吞吐: %.1f jars/s, %.1f classes/s, 写入配置: %s, 分片数: %d, 段数: %d",
+                getJars(), getFailedJars(), getSkippedJars(), getDeletedJars(), getUnreadablePaths(), getClasses(), getIndexedClassSets(),
+                getReusedClassSets(), getDeletedClassSets(), getElapsedMillis() / 1000.0,
+                getJarsPerSecond(), getClassesPerSecond(), getWriterProfile(), getShards(), getSegments());
+    }
+}
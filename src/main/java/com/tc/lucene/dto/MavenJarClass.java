@@ -1,15 +1,16 @@
 package com.tc.lucene.dto;
 
+import com.tc.lucene.analysis.MavenFieldAnalyzers;
+import com.tc.lucene.analysis.MavenFieldTypes;
 import com.tc.lucene.enums.MavenContentType;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.Setter;
 import org.apache.lucene.document.*;
-import org.apache.lucene.index.IndexableField;
+import org.apache.lucene.util.BytesRef;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * @author AnthubTC
@@ -23,6 +24,14 @@ import java.util.stream.Collectors;
 @Getter @Setter
 public class MavenJarClass extends MavenArtifact {
     private String className;
+    /**
+     * public方法、字段名称，构造方法为简单类名；未解析class时为null
+     */
+    private List<String> members;
+    /**
+     * public方法签名，例如 readValue(String,Class)；未解析class时为null
+     */
+    private List<String> methodSignatures;
 
     public MavenJarClass() {
         super.setType(MavenContentType.Clazz.getType());
@@ -37,21 +46,50 @@ public class MavenJarClass extends MavenArtifact {
         return mavenJarClass;
     }
 
-    public static MavenJarClass fromDocument(Document document) {
-        MavenArtifact mavenArtifact = MavenArtifact.fromDocument(document);
+    /**
+     * @param document       class文档
+     * @param parentDocument 引用该class所在集合的jar文档
+     */
+    public static MavenJarClass fromDocument(Document document, Document parentDocument) {
+        MavenArtifact mavenArtifact = MavenArtifact.fromDocument(parentDocument);
         MavenJarClass mavenJarClass = create(mavenArtifact);
         mavenJarClass.setClassName(document.get("className"));
         return mavenJarClass;
     }
 
-    public Iterable<? extends IndexableField> toDocument() {
-        Document document = (Document) super.toDocument();
+    /**
+     * 不带包名的类名，内部类保留外部类名，例如 Outer$Inner
+     */
+    public String getSimpleClassName() {
+        return className.substring(className.lastIndexOf('.') + 1);
+    }
+
+    /**
+     * class作为class集合的子文档，不带坐标信息，classSetId由 {@link MavenClassSet#toBlock()} 添加
+     */
+    @Override
+    public Document toDocument() {
+        Document document = new Document();
+        document.add(new StringField("type", String.valueOf(this.getType()), Field.Store.YES));
+        document.add(new SortedDocValuesField("type", new BytesRef(String.valueOf(this.getType()))));
         document.add(new TextField("className", this.getClassName(), Field.Store.YES));
+        document.add(new SortedDocValuesField("className", new BytesRef(this.getClassName())));
+        // 完整类名不分词，输入提示按它统计包含该类的jar数量
+        document.add(new StringField("className.keyword", this.getClassName(), Field.Store.NO));
+        document.add(new Field("className" + MavenFieldAnalyzers.NGRAM_SUFFIX, this.getClassName(), MavenFieldTypes.MATCH_ONLY));
+        document.add(new Field("className" + MavenFieldAnalyzers.INITIALS_SUFFIX, this.getSimpleClassName(), MavenFieldTypes.MATCH_ONLY));
+        if (members != null) {
+            for (String member : members) {
+                document.add(new Field(MavenFieldAnalyzers.MEMBERS, member, MavenFieldTypes.MULTI_VALUED_TEXT));
+            }
+        }
+        if (methodSignatures != null) {
+            for (String methodSignature : methodSignatures) {
+                document.add(new Field(MavenFieldAnalyzers.METHOD_SIGNATURES, methodSignature, MavenFieldTypes.MATCH_ONLY));
+            }
+        }
         return document;
     }
-    public static Iterable<? extends Iterable<? extends IndexableField>> toDocuments(List<MavenJarClass> mavenJarClasses) {
-        return mavenJarClasses.stream().map(MavenJarClass::toDocument).collect(Collectors.toList());
-    }
 
 
     @Override
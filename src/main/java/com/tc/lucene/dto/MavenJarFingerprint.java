@@ -0,0 +1,83 @@
+package com.tc.lucene.dto;
+
+import cn.hutool.crypto.digest.DigestUtil;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.index.IndexableField;
+
+import java.io.File;
+
+/**
+ * @author AnthubTC
+ * @version 1.0
+ * @className MavenJarFingerprint
+ * @description jar文件指纹，增量索引时据此判断jar是否变化
+ * @date 2026/10/18 11:05
+ **/
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MavenJarFingerprint {
+    public static final String FIELD_SIZE = "fileSize";
+    public static final String FIELD_LAST_MODIFIED = "fileLastModified";
+    public static final String FIELD_HASH = "fileHash";
+
+    private long size;
+    private long lastModified;
+    /**
+     * 文件内容sha1，未开启内容校验时为空
+     */
+    private String hash;
+
+    public static MavenJarFingerprint of(File file) {
+        return new MavenJarFingerprint(file.length(), file.lastModified(), null);
+    }
+
+    public void computeHash(File file) {
+        if (hash == null) {
+            hash = DigestUtil.sha1Hex(file);
+        }
+    }
+
+    /**
+     * 判断jar是否未变化：大小和修改时间都相同；
+     * 开启内容校验时，修改时间变了但大小和内容都相同(例如重新下载)也视为未变化
+     * @param current     当前文件的指纹
+     * @param file        当前文件
+     * @param contentHash 是否开启内容校验
+     */
+    public boolean unchanged(MavenJarFingerprint current, File file, boolean contentHash) {
+        if (size != current.getSize()) {
+            return false;
+        }
+        if (lastModified == current.getLastModified()) {
+            return true;
+        }
+        if (contentHash && hash != null) {
+            current.computeHash(file);
+            return hash.equals(current.getHash());
+        }
+        return false;
+    }
+
+    public void addTo(Document document) {
+        document.add(new StoredField(FIELD_SIZE, size));
+        document.add(new StoredField(FIELD_LAST_MODIFIED, lastModified));
+        if (hash != null) {
+            document.add(new StoredField(FIELD_HASH, hash));
+        }
+    }
+
+    public static MavenJarFingerprint fromDocument(Document document) {
+        IndexableField sizeField = document.getField(FIELD_SIZE);
+        IndexableField lastModifiedField = document.getField(FIELD_LAST_MODIFIED);
+        if (sizeField == null || lastModifiedField == null) {
+            return null;
+        }
+        return new MavenJarFingerprint(sizeField.numericValue().longValue(),
+                lastModifiedField.numericValue().longValue(), document.get(FIELD_HASH));
+    }
+}
@@ -0,0 +1,48 @@
+package com.tc.lucene.dto;
+
+import com.tc.lucene.enums.MavenContentType;
+import com.tc.lucene.enums.MavenSortType;
+import lombok.Data;
+
+/**
+ * @author AnthubTC
+ * @version 1.0
+ * @className MavenSearchRequest
+ * @description 搜索条件
+ * @date 2026/10/18 14:10
+ **/
+@Data
+public class MavenSearchRequest {
+    private MavenContentType type = MavenContentType.Artifact;
+    /**
+     * 查询语句，QueryParser语法
+     */
+    private String keyword;
+    /**
+     * 版本范围，例如 [5.3,6) 或 >=5.3,<6，为空不过滤
+     */
+    private String versionRange;
+    private MavenSortType sort = MavenSortType.Relevance;
+    /**
+     * 按 groupId:artifactId 合并，每个artifact只返回命中的最高版本
+     */
+    private boolean collapse;
+    /**
+     * 是否返回filePath等存储字段，列表展示不需要
+     */
+    private boolean withFilePath;
+    /**
+     * 页码，从1开始
+     */
+    private int page = 1;
+    private int size = 10;
+
+    public static MavenSearchRequest of(MavenContentType type, String keyword, int page, int size) {
+        MavenSearchRequest request = new MavenSearchRequest();
+        request.setType(type);
+        request.setKeyword(keyword);
+        request.setPage(page);
+        request.setSize(size);
+        return request;
+    }
+}
@@ -0,0 +1,34 @@
+package com.tc.lucene.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * @author AnthubTC
+ * @version 1.0
+ * @className MavenSuggestion
+ * @description 输入提示结果
+ * @date 2026/10/18 15:10
+ **/
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MavenSuggestion {
+    /**
+     * MavenContentType的type：1 jar，2 class
+     */
+    private Integer type;
+    /**
+     * 提示文本：类名(不含包名)或artifactId
+     */
+    private String text;
+    /**
+     * 完整类名或 groupId:artifactId
+     */
+    private String value;
+    /**
+     * 包含该类的jar数量，或该artifact的版本数量
+     */
+    private long weight;
+}
@@ -0,0 +1,30 @@
+package com.tc.lucene.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * @author AnthubTC
+ * @version 1.0
+ * @className PageResult
+ * @description 分页结果
+ * @date 2026/10/18 13:00
+ **/
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PageResult<T> {
+    /**
+     * 页码，从1开始
+     */
+    private int page;
+    private int size;
+    /**
+     * 命中总数
+     */
+    private long total;
+    private List<T> records;
+}
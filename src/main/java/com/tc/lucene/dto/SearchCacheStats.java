@@ -0,0 +1,39 @@
+package com.tc.lucene.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * @author AnthubTC
+ * @version 1.0
+ * @className SearchCacheStats
+ * @description 搜索结果缓存统计
+ * @date 2026/10/18 16:10
+ **/
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchCacheStats {
+    private long hits;
+    private long misses;
+    /**
+     * 超出容量被淘汰的条数
+     */
+    private long evictions;
+    /**
+     * 索引有新提交后失效的条数
+     */
+    private long invalidations;
+    private int entries;
+    /**
+     * 缓存内容的估算大小(字节)
+     */
+    private long bytes;
+    private long maxBytes;
+
+    public double getHitRatio() {
+        long total = hits + misses;
+        return total == 0 ? 0 : (double) hits / total;
+    }
+}
@@ -0,0 +1,39 @@
+package com.tc.lucene.enums;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * @author AnthubTC
+ * @version 1.0
+ * @className DirectoryType
+ * @description 索引目录的实现方式
+ * @date 2026/10/18 19:50
+ **/
+@AllArgsConstructor
+@Getter
+public enum DirectoryType {
+    /**
+     * FSDirectory.open，由lucene按平台选择，64位JVM上是MMapDirectory
+     */
+    FS("自动选择"),
+    /**
+     * 内存映射，可以按扩展名预加载到页缓存
+     */
+    MMAP("内存映射"),
+    /**
+     * FileChannel按位置读取，适合虚拟地址空间受限的环境；查询线程被中断时channel会关闭
+     */
+    NIO("NIO"),
+    /**
+     * 堆内的ByteBuffersDirectory，不落盘，同一进程内按目录共享
+     */
+    MEMORY("内存"),
+    /**
+     * 内存映射之上缓存新写入的小段，提交时才写入磁盘，减少增量写入的小文件IO
+     */
+    NRT_CACHING("内存映射+小段缓存")
+    ;
+
+    private final String name;
+}
@@ -14,7 +14,11 @@ import lombok.Getter;
 @Getter
 public enum MavenContentType {
     Artifact(1, "Artifact"),
-    Clazz(2, "Class")
+    Clazz(2, "Class"),
+    /**
+     * class集合，jar中的class作为它的子文档，内容相同的jar共用一个
+     */
+    ClassSet(3, "ClassSet")
     ;
 
     private final Integer type;
@@ -0,0 +1,27 @@
+package com.tc.lucene.enums;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * @author AnthubTC
+ * @version 1.0
+ * @className MavenSortType
+ * @description 搜索结果排序方式
+ * @date 2026/10/18 14:10
+ **/
+@AllArgsConstructor
+@Getter
+public enum MavenSortType {
+    /**
+     * 按得分，得分相同时新版本在前
+     */
+    Relevance("相关度"),
+    /**
+     * 按artifactId分组，组内新版本在前
+     */
+    Version("版本")
+    ;
+
+    private final String name;
+}
@@ -0,0 +1,34 @@
+package com.tc.lucene.event;
+
+import lombok.Getter;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * @author AnthubTC
+ * @version 1.0
+ * @className IndexCommittedEvent
+ * @description 索引提交事件，搜索端收到后刷新reader
+ * @date 2026/10/18 12:05
+ **/
+@Getter
+public class IndexCommittedEvent {
+    /**
+     * 索引名称，对应 LuceneDemoConfig.getDemoIndexDbPath(indexName)
+     */
+    private final String indexName;
+    /**
+     * 本次提交的分片索引名称，不分片时只有indexName
+     */
+    private final List<String> shardIndexNames;
+
+    public IndexCommittedEvent(String indexName) {
+        this(indexName, Collections.singletonList(indexName));
+    }
+
+    public IndexCommittedEvent(String indexName, List<String> shardIndexNames) {
+        this.indexName = indexName;
+        this.shardIndexNames = shardIndexNames;
+    }
+}
@@ -0,0 +1,154 @@
+package com.tc.lucene.service;
+
+import com.tc.lucene.config.LuceneDemoConfig;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.search.IndexSearcher;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 查询内并发：一个查询的段按切片分给共享线程池并行执行，最后一个切片在调用线程上执行
+ * <p>
+ * 线程池有界且不排队，线程都在忙时切片直接在调用线程上执行，大查询在空闲时降低延迟，
+ * 并发查询多时逐渐退化为单线程执行，不会因为排队等待其它查询的切片而变慢。
+ * 切片按 maxDocsPerSlice、maxSegmentsPerSlice 划分(与lucene默认的切片规则相同，但可配置)，
+ * 一个查询最多使用 maxSlicesPerQuery 个切片，超出时按文档数均衡合并。
+ *
+ * @author AnthubTC
+ * @version 1.0
+ * @className ConcurrentSearchExecutor
+ * @description
+ * @date 2026/10/18 19:20
+ **/
+public class ConcurrentSearchExecutor implements Executor, Closeable {
+    private final ThreadPoolExecutor pool;
+    private final int maxDocsPerSlice;
+    private final int maxSegmentsPerSlice;
+    private final int maxSlicesPerQuery;
+
+    public ConcurrentSearchExecutor(LuceneDemoConfig.Searcher searcher) {
+        int threads = searcher.resolveConcurrentThreads();
+        AtomicInteger counter = new AtomicInteger();
+        this.pool = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS, new SynchronousQueue<>(), r -> {
+            Thread thread = new Thread(r, "lucene-search-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }, new ThreadPoolExecutor.CallerRunsPolicy());
+        this.pool.allowCoreThreadTimeOut(true);
+        this.maxDocsPerSlice = searcher.getMaxDocsPerSlice();
+        this.maxSegmentsPerSlice = searcher.getMaxSegmentsPerSlice();
+        this.maxSlicesPerQuery = searcher.resolveMaxSlicesPerQuery();
+    }
+
+    /**
+     * 使用本线程池并按配置切片的searcher
+     */
+    public IndexSearcher newSearcher(IndexReader reader) {
+        return new SlicedIndexSearcher(reader, this);
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        pool.execute(command);
+    }
+
+    /**
+     * 段按文档数从大到小排列，超过 maxDocsPerSlice 的段单独成为一个切片，其余的段依次装入切片，
+     * 切片的文档数超过 maxDocsPerSlice 或段数达到 maxSegmentsPerSlice 时换下一个切片；
+     * 切片数超过上限时改为把段依次放入文档数最少的切片
+     */
+    IndexSearcher.LeafSlice[] slices(List<LeafReaderContext> leaves) {
+        List<LeafReaderContext> sorted = new ArrayList<>(leaves);
+        sorted.sort(Comparator.comparingInt((LeafReaderContext leaf) -> leaf.reader().maxDoc()).reversed());
+        List<List<LeafReaderContext>> groups = new ArrayList<>();
+        List<LeafReaderContext> group = null;
+        long docs = 0;
+        for (LeafReaderContext leaf : sorted) {
+            int maxDoc = leaf.reader().maxDoc();
+            if (maxDoc > maxDocsPerSlice) {
+                groups.add(Collections.singletonList(leaf));
+                continue;
+            }
+            if (group == null) {
+                group = new ArrayList<>();
+                groups.add(group);
+            }
+            group.add(leaf);
+            docs += maxDoc;
+            if (docs > maxDocsPerSlice || group.size() >= maxSegmentsPerSlice) {
+                group = null;
+                docs = 0;
+            }
+        }
+        if (groups.size() > maxSlicesPerQuery) {
+            groups = balance(sorted, maxSlicesPerQuery);
+        }
+        IndexSearcher.LeafSlice[] slices = new IndexSearcher.LeafSlice[groups.size()];
+        for (int i = 0; i < slices.length; i++) {
+            slices[i] = new IndexSearcher.LeafSlice(groups.get(i).toArray(new LeafReaderContext[0]));
+        }
+        // 文档多的切片排在前面交给线程池，调用线程执行最后一个较小的切片
+        Arrays.sort(slices, Comparator.comparingLong(ConcurrentSearchExecutor::maxDoc).reversed());
+        return slices;
+    }
+
+    /**
+     * 按文档数从大到小依次放入当前文档数最少的切片
+     */
+    private static List<List<LeafReaderContext>> balance(List<LeafReaderContext> sorted, int sliceCount) {
+        List<List<LeafReaderContext>> groups = new ArrayList<>(sliceCount);
+        long[] docs = new long[sliceCount];
+        for (int i = 0; i < sliceCount; i++) {
+            groups.add(new ArrayList<>());
+        }
+        for (LeafReaderContext leaf : sorted) {
+            int smallest = 0;
+            for (int i = 1; i < docs.length; i++) {
+                if (docs[i] < docs[smallest]) {
+                    smallest = i;
+                }
+            }
+            groups.get(smallest).add(leaf);
+            docs[smallest] += leaf.reader().maxDoc();
+        }
+        return groups;
+    }
+
+    private static long maxDoc(IndexSearcher.LeafSlice slice) {
+        long maxDoc = 0;
+        for (LeafReaderContext leaf : slice.leaves) {
+            maxDoc += leaf.reader().maxDoc();
+        }
+        return maxDoc;
+    }
+
+    @Override
+    public void close() {
+        pool.shutdownNow();
+    }
+
+    /**
+     * IndexSearcher在构造方法中切片，此时子类字段还没有赋值，切片参数从executor取
+     */
+    private static class SlicedIndexSearcher extends IndexSearcher {
+        SlicedIndexSearcher(IndexReader reader, ConcurrentSearchExecutor executor) {
+            super(reader, executor);
+        }
+
+        @Override
+        protected LeafSlice[] slices(List<LeafReaderContext> leaves) {
+            return ((ConcurrentSearchExecutor) getExecutor()).slices(leaves);
+        }
+    }
+}
@@ -0,0 +1,309 @@
+package com.tc.lucene.service;
+
+import com.tc.lucene.config.LuceneDemoConfig;
+import com.tc.lucene.event.IndexCommittedEvent;
+import com.tc.lucene.util.DirectoryUtil;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.lucene.index.FieldInfo;
+import org.apache.lucene.index.IndexOptions;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.Terms;
+import org.apache.lucene.index.TermsEnum;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.MatchAllDocsQuery;
+import org.apache.lucene.search.SearcherFactory;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.store.Directory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 长期持有的索引搜索器
+ * <p>
+ * 每个索引(getDemoIndexDbPath(indexName))共享一个SearcherManager，查询时acquire/release，不再每次打开、关闭reader；
+ * 索引提交后收到 {@link IndexCommittedEvent} 立即刷新，其它进程写入的提交由后台定时刷新发现；新reader打开时先预热。
+ * 分片索引一次借出所有分片的searcher，各分片上的查询由 {@link #fanOut} 在分片查询线程池中并发执行；
+ * 开启查询内并发时searcher由 {@link ConcurrentSearchExecutor} 创建，单个查询的段也并行执行。
+ *
+ * @author AnthubTC
+ * @version 1.0
+ * @className LuceneSearcherRegistry
+ * @description
+ * @date 2026/10/18 12:10
+ **/
+@Slf4j
+@Component
+public class LuceneSearcherRegistry implements DisposableBean {
+    private final LuceneDemoConfig luceneDemoConfig;
+    private final Map<String, Holder> holders = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService refresher;
+    private final ExecutorService shardExecutor;
+    private final ConcurrentSearchExecutor searchExecutor;
+
+    public LuceneSearcherRegistry(LuceneDemoConfig luceneDemoConfig) {
+        this.luceneDemoConfig = luceneDemoConfig;
+        this.refresher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "lucene-searcher-refresher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = luceneDemoConfig.getSearcher().getRefreshIntervalMillis();
+        if (interval > 0) {
+            refresher.scheduleWithFixedDelay(this::refreshAll, interval, interval, TimeUnit.MILLISECONDS);
+        }
+        AtomicInteger shardThreads = new AtomicInteger();
+        this.shardExecutor = Executors.newFixedThreadPool(luceneDemoConfig.getSearcher().resolveShardSearchThreads(), r -> {
+            Thread thread = new Thread(r, "lucene-shard-search-" + shardThreads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.searchExecutor = luceneDemoConfig.getSearcher().isConcurrent()
+                ? new ConcurrentSearchExecutor(luceneDemoConfig.getSearcher()) : null;
+    }
+
+    @FunctionalInterface
+    public interface SearcherCallback<T> {
+        T apply(IndexSearcher searcher) throws IOException;
+    }
+
+    @FunctionalInterface
+    public interface ShardsCallback<T> {
+        T apply(IndexSearcher[] searchers) throws IOException;
+    }
+
+    /**
+     * 按配置创建searcher，开启查询内并发时使用共享的线程池；用于不经过SearcherManager的reader
+     */
+    public IndexSearcher newSearcher(IndexReader reader) {
+        return searchExecutor == null ? new IndexSearcher(reader) : searchExecutor.newSearcher(reader);
+    }
+
+    /**
+     * 借出searcher执行查询，结束后归还
+     * @param indexName 索引名称
+     * @param callback  查询逻辑，不要在回调之外持有searcher
+     */
+    public <T> T search(String indexName, SearcherCallback<T> callback) throws IOException {
+        SearcherManager searcherManager = getSearcherManager(indexName);
+        IndexSearcher searcher = searcherManager.acquire();
+        try {
+            return callback.apply(searcher);
+        } finally {
+            searcherManager.release(searcher);
+        }
+    }
+
+    /**
+     * 同时借出多个分片的searcher，顺序与indexNames一致，结束后全部归还
+     * @param indexNames 分片索引名称
+     * @param callback   查询逻辑，不要在回调之外持有searcher
+     */
+    public <T> T search(List<String> indexNames, ShardsCallback<T> callback) throws IOException {
+        SearcherManager[] searcherManagers = new SearcherManager[indexNames.size()];
+        IndexSearcher[] searchers = new IndexSearcher[indexNames.size()];
+        try {
+            for (int i = 0; i < searchers.length; i++) {
+                searcherManagers[i] = getSearcherManager(indexNames.get(i));
+                searchers[i] = searcherManagers[i].acquire();
+            }
+            return callback.apply(searchers);
+        } finally {
+            for (int i = 0; i < searchers.length && searchers[i] != null; i++) {
+                searcherManagers[i].release(searchers[i]);
+            }
+        }
+    }
+
+    /**
+     * 在每个分片上并发执行同一个查询，结果与searchers顺序一致；只有一个分片时在当前线程执行
+     * @param searchers {@link #search(List, ShardsCallback)} 借出的searcher
+     * @param callback  单个分片上的查询
+     */
+    public <T> List<T> fanOut(IndexSearcher[] searchers, SearcherCallback<T> callback) throws IOException {
+        if (searchers.length == 1) {
+            return Collections.singletonList(callback.apply(searchers[0]));
+        }
+        List<Future<T>> futures = new ArrayList<>(searchers.length);
+        try {
+            for (IndexSearcher searcher : searchers) {
+                futures.add(shardExecutor.submit(() -> callback.apply(searcher)));
+            }
+            List<T> results = new ArrayList<>(searchers.length);
+            for (Future<T> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("分片查询被中断", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IOException("分片查询失败", e.getCause());
+        } catch (RejectedExecutionException e) {
+            throw new IllegalStateException("分片查询线程池已关闭", e);
+        } finally {
+            // 任一分片失败时取消还没开始的分片；不中断执行中的查询，NIOFSDirectory的channel被中断会关闭
+            for (Future<T> future : futures) {
+                future.cancel(false);
+            }
+        }
+    }
+
+    public SearcherManager getSearcherManager(String indexName) throws IOException {
+        Holder holder = holders.get(indexName);
+        if (holder != null) {
+            return holder.searcherManager;
+        }
+        // 在map的锁之外打开，打开索引时不阻塞其他索引；并发打开同一个索引时保留先放入的，关闭多余的
+        Holder created = open(indexName);
+        holder = holders.putIfAbsent(indexName, created);
+        if (holder == null) {
+            return created.searcherManager;
+        }
+        created.close();
+        return holder.searcherManager;
+    }
+
+    /**
+     * 索引有新的提交时刷新，没有变化时开销很小
+     */
+    public void refresh(String indexName) throws IOException {
+        Holder holder = holders.get(indexName);
+        if (holder != null) {
+            holder.searcherManager.maybeRefreshBlocking();
+        }
+    }
+
+    @EventListener
+    public void onIndexCommitted(IndexCommittedEvent event) throws IOException {
+        for (String indexName : event.getShardIndexNames()) {
+            refresh(indexName);
+        }
+    }
+
+    private void refreshAll() {
+        for (Map.Entry<String, Holder> entry : holders.entrySet()) {
+            try {
+                entry.getValue().searcherManager.maybeRefresh();
+            } catch (IOException | RuntimeException e) {
+                log.warn("刷新索引失败: {}", entry.getKey(), e);
+            }
+        }
+    }
+
+    private Holder open(String indexName) throws IOException {
+        String indexPath = luceneDemoConfig.getDemoIndexDbPath(indexName);
+        Directory directory = null;
+        try {
+            directory = DirectoryUtil.open(luceneDemoConfig, indexName);
+            SearcherManager searcherManager = new SearcherManager(directory, new WarmingSearcherFactory(
+                    this, luceneDemoConfig.getSearcher().isWarm()));
+            log.info("打开索引: {}, {}", indexPath, directory.getClass().getSimpleName());
+            return new Holder(directory, searcherManager);
+        } catch (IOException | RuntimeException e) {
+            closeQuietly(directory);
+            throw e;
+        }
+    }
+
+    @Override
+    public void destroy() {
+        refresher.shutdownNow();
+        shardExecutor.shutdownNow();
+        if (searchExecutor != null) {
+            searchExecutor.close();
+        }
+        for (Holder holder : holders.values()) {
+            holder.close();
+        }
+        holders.clear();
+    }
+
+    private static void closeQuietly(Directory directory) {
+        if (directory == null) {
+            return;
+        }
+        try {
+            directory.close();
+        } catch (IOException e) {
+            log.warn("关闭索引目录失败", e);
+        }
+    }
+
+    private static class Holder {
+        private final Directory directory;
+        private final SearcherManager searcherManager;
+
+        Holder(Directory directory, SearcherManager searcherManager) {
+            this.directory = directory;
+            this.searcherManager = searcherManager;
+        }
+
+        void close() {
+            try {
+                searcherManager.close();
+            } catch (IOException e) {
+                log.warn("关闭SearcherManager失败", e);
+            }
+            closeQuietly(directory);
+        }
+    }
+
+    /**
+     * 新reader投入使用前预热：加载各字段的词典索引、跑一次全量查询，把索引文件读进操作系统页缓存
+     */
+    private static class WarmingSearcherFactory extends SearcherFactory {
+        private final LuceneSearcherRegistry registry;
+        private final boolean warm;
+
+        WarmingSearcherFactory(LuceneSearcherRegistry registry, boolean warm) {
+            this.registry = registry;
+            this.warm = warm;
+        }
+
+        @Override
+        public IndexSearcher newSearcher(IndexReader reader, IndexReader previousReader) throws IOException {
+            IndexSearcher searcher = registry.newSearcher(reader);
+            if (warm) {
+                long start = System.nanoTime();
+                for (LeafReaderContext leaf : reader.leaves()) {
+                    for (FieldInfo fieldInfo : leaf.reader().getFieldInfos()) {
+                        if (fieldInfo.getIndexOptions() == IndexOptions.NONE) {
+                            continue;
+                        }
+                        Terms terms = leaf.reader().terms(fieldInfo.name);
+                        if (terms != null) {
+                            TermsEnum termsEnum = terms.iterator();
+                            termsEnum.next();
+                        }
+                    }
+                }
+                searcher.search(new MatchAllDocsQuery(), 1);
+                log.debug("reader预热完成, 耗时{}ms", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            }
+            return searcher;
+        }
+    }
+}
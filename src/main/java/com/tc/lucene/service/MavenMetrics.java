@@ -0,0 +1,133 @@
+package com.tc.lucene.service;
+
+import com.tc.lucene.enums.MavenContentType;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * maven索引、搜索各阶段的耗时指标
+ * <p>
+ * 建索引 maven.index.phase，标签 phase、type、profile：
+ * walk(遍历仓库目录，不含等待队列的时间)、scan(读取jar中的class，type=Clazz)、
+ * build(构建文档，type=ClassSet/Artifact)、write(交给IndexWriter，type=ClassSet/Artifact)、commit(每个分片的清理、提交和合并)；
+ * 搜索 maven.search.phase，标签 phase、type、query(terms为直接拆词，parser为QueryParser语法)：
+ * admission(等待查询并发数)、parse(生成查询)、search(各分片查询并归并)、hydrate(组装结果)。
+ * 都发布百分位直方图，prometheus上用 histogram_quantile 计算p99，可以跨实例聚合。
+ *
+ * @author AnthubTC
+ * @version 1.0
+ * @className MavenMetrics
+ * @description
+ * @date 2026/10/18 23:30
+ **/
+@Component
+public class MavenMetrics {
+    public static final String INDEX_PHASE = "maven.index.phase";
+    public static final String SEARCH_PHASE = "maven.search.phase";
+    public static final String PHASE_WALK = "walk";
+    public static final String PHASE_SCAN = "scan";
+    public static final String PHASE_BUILD = "build";
+    public static final String PHASE_WRITE = "write";
+    public static final String PHASE_COMMIT = "commit";
+    public static final String PHASE_ADMISSION = "admission";
+    public static final String PHASE_PARSE = "parse";
+    public static final String PHASE_SEARCH = "search";
+    public static final String PHASE_HYDRATE = "hydrate";
+    /**
+     * 不区分文档类型的阶段
+     */
+    public static final String TYPE_ALL = "all";
+    public static final String QUERY_TERMS = "terms";
+    public static final String QUERY_PARSER = "parser";
+    /**
+     * 没有注册表时(单元测试中直接创建服务)使用，不记录
+     */
+    private static final MavenMetrics DISABLED = new MavenMetrics(new CompositeMeterRegistry());
+
+    private final MeterRegistry meterRegistry;
+
+    public MavenMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    public static MavenMetrics disabled() {
+        return DISABLED;
+    }
+
+    /**
+     * 一次建索引使用的timer
+     * @param profile 写入配置名称
+     */
+    public IndexTimers indexTimers(String profile) {
+        return new IndexTimers(profile);
+    }
+
+    /**
+     * 一次查询使用的timer
+     * @param queryType {@link #QUERY_TERMS} 或 {@link #QUERY_PARSER}
+     */
+    public SearchTimers searchTimers(MavenContentType type, String queryType) {
+        return new SearchTimers(type.name(), queryType);
+    }
+
+    private Timer timer(String name, String description, String... tags) {
+        return Timer.builder(name)
+                .description(description)
+                .tags(tags)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    /**
+     * 记录从startNanos到现在的耗时
+     */
+    public static void record(Timer timer, long startNanos) {
+        timer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public class IndexTimers {
+        public final Timer walk;
+        public final Timer scan;
+        public final Timer buildClassSet;
+        public final Timer buildArtifact;
+        public final Timer writeClassSet;
+        public final Timer writeArtifact;
+        public final Timer commit;
+
+        IndexTimers(String profile) {
+            this.walk = index(PHASE_WALK, TYPE_ALL, profile);
+            this.scan = index(PHASE_SCAN, MavenContentType.Clazz.name(), profile);
+            this.buildClassSet = index(PHASE_BUILD, MavenContentType.ClassSet.name(), profile);
+            this.buildArtifact = index(PHASE_BUILD, MavenContentType.Artifact.name(), profile);
+            this.writeClassSet = index(PHASE_WRITE, MavenContentType.ClassSet.name(), profile);
+            this.writeArtifact = index(PHASE_WRITE, MavenContentType.Artifact.name(), profile);
+            this.commit = index(PHASE_COMMIT, TYPE_ALL, profile);
+        }
+
+        private Timer index(String phase, String type, String profile) {
+            return timer(INDEX_PHASE, "maven索引各阶段耗时", "phase", phase, "type", type, "profile", profile);
+        }
+    }
+
+    public class SearchTimers {
+        public final Timer admission;
+        public final Timer parse;
+        public final Timer search;
+        public final Timer hydrate;
+
+        SearchTimers(String type, String queryType) {
+            this.admission = search(PHASE_ADMISSION, type, queryType);
+            this.parse = search(PHASE_PARSE, type, queryType);
+            this.search = search(PHASE_SEARCH, type, queryType);
+            this.hydrate = search(PHASE_HYDRATE, type, queryType);
+        }
+
+        private Timer search(String phase, String type, String queryType) {
+            return timer(SEARCH_PHASE, "maven搜索各阶段耗时", "phase", phase, "type", type, "query", queryType);
+        }
+    }
+}
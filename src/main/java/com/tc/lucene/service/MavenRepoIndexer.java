@@ -0,0 +1,678 @@
+package com.tc.lucene.service;
+
+import com.tc.lucene.analysis.AnalyzerRegistry;
+import com.tc.lucene.config.LuceneDemoConfig;
+import com.tc.lucene.dto.IndexSizeReport;
+import com.tc.lucene.dto.MavenArtifact;
+import com.tc.lucene.dto.MavenClassSet;
+import com.tc.lucene.dto.MavenIndexStats;
+import com.tc.lucene.dto.MavenJarClass;
+import com.tc.lucene.dto.MavenJarFingerprint;
+import com.tc.lucene.enums.MavenContentType;
+import com.tc.lucene.event.IndexCommittedEvent;
+import com.tc.lucene.util.AnalyzerUtil;
+import com.tc.lucene.util.DirectoryUtil;
+import com.tc.lucene.util.IndexSizeUtil;
+import com.tc.lucene.util.JarClassScanner;
+import com.tc.lucene.util.MavenDocValuesUtil;
+import com.tc.lucene.util.MavenRepoUtil;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.IndexableField;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.PostingsEnum;
+import org.apache.lucene.index.SegmentInfos;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.DocIdSetIterator;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.util.Bits;
+import org.apache.lucene.util.IOUtils;
+import org.apache.lucene.util.StringHelper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * maven本地仓库索引器
+ * <p>
+ * jar扫描和文档构建由工作线程池并行处理，IndexWriter本身是线程安全的，各线程直接把文档交给同一个IndexWriter。
+ * 仓库目录边遍历边通过有界队列交给工作线程，进度按固定间隔汇总输出。
+ * <p>
+ * 配置了多个分片时按groupId的哈希把jar写入各分片的IndexWriter，同一artifact的所有版本在同一个分片，
+ * 分片之间互不依赖，可以单独重建，见 {@link #rebuildShard(File, int)}。
+ * <p>
+ * jar中的class按内容去重，见 {@link MavenClassSet}：每个分片记录已写入的集合id，新的集合才写入class文档，jar文档只引用集合；
+ * 提交前删除不再被任何jar引用的集合。
+ * <p>
+ * 遍历、读取jar、构建文档、写入和提交各阶段的耗时见 {@link MavenMetrics}。
+ *
+ * @author AnthubTC
+ * @version 1.0
+ * @className MavenRepoIndexer
+ * @description
+ * @date 2026/10/18 10:25
+ **/
+@Slf4j
+@Component
+public class MavenRepoIndexer {
+    /**
+     * 目录遍历结束标记
+     */
+    private static final File END_OF_WALK = new File("");
+    /**
+     * 索引中已有的class集合的写入结果
+     */
+    private static final CompletableFuture<Void> WRITTEN = CompletableFuture.completedFuture(null);
+    /**
+     * 提交数据中记录的分片数
+     */
+    private static final String COMMIT_SHARDS = "shards";
+    /**
+     * 提交数据中记录的索引格式：class按集合去重之前的索引没有这一项，classSets的索引中filePath没有建索引
+     */
+    private static final String COMMIT_FORMAT = "format";
+    private static final String FORMAT_FILE_PATH_KEY = "filePathKey";
+    /**
+     * 大小统计遇到并发提交时最多统计的次数
+     */
+    private static final int SIZE_REPORT_ATTEMPTS = 3;
+
+    private final LuceneDemoConfig luceneDemoConfig;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MavenMetrics mavenMetrics;
+    /**
+     * 最近一次的大小报告和统计时各分片的提交点id，同时只统计一次
+     */
+    private final Object sizeReportLock = new Object();
+    private IndexSizeReport sizeReport;
+    private List<String> sizeReportCommits;
+
+    public MavenRepoIndexer(LuceneDemoConfig luceneDemoConfig, ApplicationEventPublisher eventPublisher) {
+        this(luceneDemoConfig, eventPublisher, MavenMetrics.disabled());
+    }
+
+    @Autowired
+    public MavenRepoIndexer(LuceneDemoConfig luceneDemoConfig, ApplicationEventPublisher eventPublisher,
+                            MavenMetrics mavenMetrics) {
+        this.luceneDemoConfig = luceneDemoConfig;
+        this.eventPublisher = eventPublisher;
+        this.mavenMetrics = mavenMetrics;
+    }
+
+    /**
+     * 按配置的仓库目录全量重建索引
+     */
+    public MavenIndexStats rebuild() throws IOException {
+        return rebuild(new File(luceneDemoConfig.getMavenIndex().getRepositoryPath()));
+    }
+
+    /**
+     * 全量重建索引，丢弃已有索引
+     */
+    public MavenIndexStats rebuild(File repositoryDir) throws IOException {
+        return run(repositoryDir, false);
+    }
+
+    /**
+     * 按配置的仓库目录增量索引
+     */
+    public MavenIndexStats incremental() throws IOException {
+        return incremental(new File(luceneDemoConfig.getMavenIndex().getRepositoryPath()));
+    }
+
+    /**
+     * 增量索引：未变化的jar跳过，变化的jar按文件路径整体替换，仓库中已删除的jar从索引中删除
+     */
+    public MavenIndexStats incremental(File repositoryDir) throws IOException {
+        return run(repositoryDir, true);
+    }
+
+    /**
+     * 只重建一个分片，其它分片不受影响；仓库中只有groupId落在该分片的jar会被索引
+     * @param repositoryDir maven仓库目录
+     * @param shard         分片序号，从0开始
+     */
+    public MavenIndexStats rebuildShard(File repositoryDir, int shard) throws IOException {
+        int shards = luceneDemoConfig.getMavenIndex().resolveShards();
+        if (shard < 0 || shard >= shards) {
+            throw new IllegalArgumentException("分片序号超出范围: " + shard + ", 分片数: " + shards);
+        }
+        return run(repositoryDir, false, Collections.singletonList(shard));
+    }
+
+    /**
+     * 各分片合并的索引大小报告，需要遍历整个索引；各分片没有新提交时返回上次的报告，调用方不要修改
+     */
+    public IndexSizeReport sizeReport() throws IOException {
+        synchronized (sizeReportLock) {
+            for (int attempt = 1; ; attempt++) {
+                try {
+                    return doSizeReport();
+                } catch (NoSuchFileException | FileNotFoundException e) {
+                    // 统计期间有新的提交，旧提交点的文件被删除，换到新的提交点重新统计
+                    if (attempt >= SIZE_REPORT_ATTEMPTS) {
+                        throw e;
+                    }
+                    log.debug("索引大小统计期间有新的提交, 重新统计", e);
+                }
+            }
+        }
+    }
+
+    /**
+     * 每个分片只打开一个reader，提交点id、文件列表和字段统计都来自同一个提交点
+     */
+    private IndexSizeReport doSizeReport() throws IOException {
+        List<DirectoryReader> readers = new ArrayList<>();
+        List<Directory> directories = new ArrayList<>();
+        try {
+            List<String> commits = new ArrayList<>();
+            for (String indexName : luceneDemoConfig.getMavenIndex().shardIndexNames()) {
+                Directory directory = DirectoryUtil.open(luceneDemoConfig, indexName);
+                directories.add(directory);
+                DirectoryReader reader = DirectoryReader.open(directory);
+                readers.add(reader);
+                // 提交点id每次提交随机生成，目录删除后重建也不会重复
+                commits.add(StringHelper.idToString(IndexSizeUtil.segmentInfos(reader).getId()));
+            }
+            if (!commits.equals(sizeReportCommits)) {
+                sizeReport = IndexSizeUtil.report(readers);
+                sizeReportCommits = commits;
+            }
+            return sizeReport;
+        } finally {
+            // 先关闭reader再关闭目录
+            List<Closeable> closeables = new ArrayList<>(readers);
+            closeables.addAll(directories);
+            IOUtils.close(closeables);
+        }
+    }
+
+    private MavenIndexStats run(File repositoryDir, boolean incremental) throws IOException {
+        List<Integer> shards = new ArrayList<>();
+        for (int shard = 0; shard < luceneDemoConfig.getMavenIndex().resolveShards(); shard++) {
+            shards.add(shard);
+        }
+        return run(repositoryDir, incremental, shards);
+    }
+
+    /**
+     * 每个分片一个IndexWriter，工作线程按groupId把jar交给所在分片的IndexWriter，各分片的提交、合并并行执行
+     * @param targetShards 要写入的分片，不在其中的分片对应的jar跳过
+     */
+    private MavenIndexStats run(File repositoryDir, boolean incremental, List<Integer> targetShards) throws IOException {
+        LuceneDemoConfig.MavenIndex mavenIndex = luceneDemoConfig.getMavenIndex();
+        Analyzer analyzer = AnalyzerUtil.getAnalyzer(AnalyzerRegistry.MAVEN_INDEX);
+        String profileName = incremental ? LuceneDemoConfig.PROFILE_INCREMENTAL : LuceneDemoConfig.PROFILE_BULK_REBUILD;
+        LuceneDemoConfig.WriterProfile profile = luceneDemoConfig.getWriterProfile(profileName);
+        MavenMetrics.IndexTimers timers = mavenMetrics.indexTimers(profileName);
+        boolean fullRebuild = !incremental && targetShards.size() == mavenIndex.resolveShards();
+        Directory[] directories = new Directory[mavenIndex.resolveShards()];
+        IndexWriter[] indexWriters = new IndexWriter[directories.length];
+        boolean committed = false;
+        try {
+            for (int shard : targetShards) {
+                directories[shard] = DirectoryUtil.open(luceneDemoConfig, mavenIndex.shardIndexName(shard));
+                if (!fullRebuild) {
+                    checkCommit(directories[shard], directories.length);
+                }
+                IndexWriterConfig conf = profile.newIndexWriterConfig(analyzer, targetShards.size())
+                        .setCodec(luceneDemoConfig.getCodec().newCodec())
+                        .setOpenMode(incremental ? IndexWriterConfig.OpenMode.CREATE_OR_APPEND : IndexWriterConfig.OpenMode.CREATE)
+                        // 只在成功时显式提交，失败时关闭不能把写了一半的索引提交上去
+                        .setCommitOnClose(false);
+                indexWriters[shard] = new IndexWriter(directories[shard], conf);
+                Map<String, String> commitData = new HashMap<>();
+                commitData.put(COMMIT_SHARDS, String.valueOf(directories.length));
+                commitData.put(COMMIT_FORMAT, FORMAT_FILE_PATH_KEY);
+                indexWriters[shard].setLiveCommitData(commitData.entrySet());
+            }
+            Map<String, MavenArtifact> indexedJars = new ConcurrentHashMap<>();
+            List<ConcurrentMap<String, CompletableFuture<Void>>> classSets = new ArrayList<>(indexWriters.length);
+            for (IndexWriter indexWriter : indexWriters) {
+                classSets.add(incremental ? loadClassSets(indexWriter) : new ConcurrentHashMap<>());
+                if (incremental) {
+                    indexedJars.putAll(loadIndexedJars(indexWriter));
+                }
+            }
+            List<Path> unreadablePaths = new ArrayList<>();
+            MavenIndexStats stats = index(repositoryDir, indexWriters, indexedJars, classSets, unreadablePaths, timers);
+            // 仓库中已经不存在的jar；无法访问的目录没有遍历到，其中的jar不能当作已删除
+            for (MavenArtifact removed : indexedJars.values()) {
+                if (MavenRepoUtil.isUnder(removed.getFilePath(), unreadablePaths)) {
+                    continue;
+                }
+                route(indexWriters, removed.getGroupId()).deleteDocuments(new Term("filePath", removed.getFilePath()));
+                stats.jarDeleted();
+            }
+            // 两阶段提交：所有分片都准备好(写入、合并、同步到磁盘)后才提交，任一分片失败时全部回滚，分片之间不会停在不同的提交上
+            forEachShard(targetShards, shard -> {
+                long start = System.nanoTime();
+                deleteOrphanClassSets(indexWriters[shard], stats);
+                if (profile.getForceMergeSegments() > 0) {
+                    indexWriters[shard].forceMerge(profile.getForceMergeSegments());
+                }
+                indexWriters[shard].prepareCommit();
+                MavenMetrics.record(timers.commit, start);
+            });
+            int segments = 0;
+            for (int shard : targetShards) {
+                indexWriters[shard].commit();
+                segments += SegmentInfos.readLatestCommit(directories[shard]).size();
+            }
+            committed = true;
+            stats.setWriterProfile(profileName);
+            stats.setShards(targetShards.size());
+            stats.setSegments(segments);
+            List<String> shardIndexNames = new ArrayList<>(targetShards.size());
+            for (int shard : targetShards) {
+                shardIndexNames.add(mavenIndex.shardIndexName(shard));
+            }
+            eventPublisher.publishEvent(new IndexCommittedEvent(mavenIndex.getIndexName(), shardIndexNames));
+            stats.finish();
+            log.info("maven库索引{}完成, {}", incremental ? "增量更新" : fullRebuild ? "重建" : "重建分片" + targetShards, stats);
+            return stats;
+        } finally {
+            if (!committed) {
+                // 回滚到上一次提交，重建失败时保留原来的索引
+                rollback(indexWriters);
+            }
+            // 先关闭IndexWriter再关闭目录
+            List<Closeable> closeables = new ArrayList<>(Arrays.asList(indexWriters));
+            closeables.addAll(Arrays.asList(directories));
+            IOUtils.close(closeables);
+        }
+    }
+
+    private static void rollback(IndexWriter[] indexWriters) {
+        for (IndexWriter indexWriter : indexWriters) {
+            if (indexWriter == null) {
+                continue;
+            }
+            try {
+                indexWriter.rollback();
+            } catch (IOException | RuntimeException e) {
+                log.warn("索引回滚失败", e);
+            }
+        }
+    }
+
+    /**
+     * 已有索引的分片数与配置不一致时，jar会被路由到错误的分片；索引格式不同时class文档的组织方式不同，都只能全量重建
+     */
+    private static void checkCommit(Directory directory, int shards) throws IOException {
+        if (!DirectoryReader.indexExists(directory)) {
+            return;
+        }
+        Map<String, String> userData = SegmentInfos.readLatestCommit(directory).getUserData();
+        String committed = userData.get(COMMIT_SHARDS);
+        int committedShards = committed == null ? 1 : Integer.parseInt(committed);
+        if (committedShards != shards) {
+            throw new IllegalStateException("索引的分片数为" + committedShards + ", 配置为" + shards + ", 需要全量重建");
+        }
+        if (!FORMAT_FILE_PATH_KEY.equals(userData.get(COMMIT_FORMAT))) {
+            throw new IllegalStateException("索引格式为旧版本(" + userData.get(COMMIT_FORMAT) + "), 需要全量重建");
+        }
+    }
+
+    @FunctionalInterface
+    private interface ShardTask {
+        void run(int shard) throws IOException;
+    }
+
+    private static void forEachShard(List<Integer> shards, ShardTask task) throws IOException {
+        if (shards.size() == 1) {
+            task.run(shards.get(0));
+            return;
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(shards.size(), new IndexerThreadFactory("mvn-indexer-commit-"));
+        try {
+            List<Future<?>> futures = new ArrayList<>(shards.size());
+            for (int shard : shards) {
+                futures.add(executor.submit(() -> {
+                    task.run(shard);
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("提交被中断", e);
+        } catch (ExecutionException e) {
+            throw new IOException("分片提交失败", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * jar所在分片的IndexWriter，只有一个IndexWriter时全部写入它；分片不在本次写入范围内时为null
+     */
+    private IndexWriter route(IndexWriter[] indexWriters, String groupId) {
+        return indexWriters[shardOf(indexWriters, groupId)];
+    }
+
+    private int shardOf(IndexWriter[] indexWriters, String groupId) {
+        return indexWriters.length == 1 ? 0 : luceneDemoConfig.getMavenIndex().shardOf(groupId);
+    }
+
+    /**
+     * 读取索引中已有的jar，key为jar文件路径
+     */
+    private Map<String, MavenArtifact> loadIndexedJars(IndexWriter indexWriter) throws IOException {
+        Map<String, MavenArtifact> indexedJars = new HashMap<>();
+        if (indexWriter == null) {
+            return indexedJars;
+        }
+        Term artifactTerm = new Term("type", String.valueOf(MavenContentType.Artifact.getType()));
+        try (DirectoryReader reader = DirectoryReader.open(indexWriter)) {
+            for (LeafReaderContext leaf : reader.leaves()) {
+                PostingsEnum postings = leaf.reader().postings(artifactTerm, PostingsEnum.NONE);
+                if (postings == null) {
+                    continue;
+                }
+                Bits liveDocs = leaf.reader().getLiveDocs();
+                for (int doc = postings.nextDoc(); doc != DocIdSetIterator.NO_MORE_DOCS; doc = postings.nextDoc()) {
+                    if (liveDocs == null || liveDocs.get(doc)) {
+                        MavenArtifact mavenArtifact = MavenDocValuesUtil.loadArtifact(leaf.reader(), doc, true);
+                        indexedJars.put(mavenArtifact.getFilePath(), mavenArtifact);
+                    }
+                }
+            }
+        }
+        log.info("索引中已有jar: {}个", indexedJars.size());
+        return indexedJars;
+    }
+
+    /**
+     * 读取索引中已有的class集合，id -> 写入结果(已完成)，工作线程并发读写
+     */
+    private static ConcurrentMap<String, CompletableFuture<Void>> loadClassSets(IndexWriter indexWriter) throws IOException {
+        ConcurrentMap<String, CompletableFuture<Void>> classSets = new ConcurrentHashMap<>();
+        if (indexWriter == null) {
+            return classSets;
+        }
+        try (DirectoryReader reader = DirectoryReader.open(indexWriter)) {
+            MavenDocValuesUtil.forEachClassSetId(reader, MavenContentType.ClassSet, (doc, classSetId) -> classSets.put(classSetId, WRITTEN));
+        }
+        return classSets;
+    }
+
+    /**
+     * 删除没有jar引用的class集合(集合文档和它的class文档都带有classSetId，按它整块删除)，
+     * jar被删除、更新后内容变化，或者jar文档写入失败时都会留下这样的集合
+     */
+    private static void deleteOrphanClassSets(IndexWriter indexWriter, MavenIndexStats stats) throws IOException {
+        Set<String> referenced = new HashSet<>();
+        List<String> classSetIds = new ArrayList<>();
+        try (DirectoryReader reader = DirectoryReader.open(indexWriter)) {
+            MavenDocValuesUtil.forEachClassSetId(reader, MavenContentType.Artifact, (doc, classSetId) -> referenced.add(classSetId));
+            MavenDocValuesUtil.forEachClassSetId(reader, MavenContentType.ClassSet, (doc, classSetId) -> classSetIds.add(classSetId));
+        }
+        for (String classSetId : classSetIds) {
+            if (!referenced.contains(classSetId)) {
+                indexWriter.deleteDocuments(new Term(MavenClassSet.FIELD_ID, classSetId));
+                stats.classSetDeleted();
+            }
+        }
+    }
+
+    /**
+     * 并行索引仓库中的jar
+     * <p>
+     * 当前线程惰性遍历仓库目录，把jar放入有界队列，工作线程从队列中取jar建索引，遍历和索引同时进行，内存占用与仓库大小无关。
+     * @param repositoryDir maven仓库目录
+     * @param indexWriter   索引写入器
+     * @return 吞吐统计
+     */
+    public MavenIndexStats index(File repositoryDir, IndexWriter indexWriter) throws IOException {
+        // 调用方自己配置的IndexWriter，没有写入配置名称
+        return index(repositoryDir, new IndexWriter[]{indexWriter}, new ConcurrentHashMap<>(),
+                Collections.singletonList(loadClassSets(indexWriter)), new ArrayList<>(), mavenMetrics.indexTimers("custom"));
+    }
+
+    /**
+     * 并行索引仓库中的jar
+     * @param repositoryDir maven仓库目录
+     * @param indexWriters  各分片的索引写入器，下标为分片序号
+     * @param indexedJars   索引中已有的jar，处理过的jar会从中移除，剩下的就是仓库中已删除的jar
+     * @param classSets     各分片已写入或正在写入的class集合，id -> 写入结果
+     * @param unreadablePaths 遍历时无法访问的文件或目录，由本方法填充
+     * @param timers        各阶段耗时
+     * @return 吞吐统计
+     */
+    private MavenIndexStats index(File repositoryDir, IndexWriter[] indexWriters, Map<String, MavenArtifact> indexedJars,
+                                  List<ConcurrentMap<String, CompletableFuture<Void>>> classSets, List<Path> unreadablePaths,
+                                  MavenMetrics.IndexTimers timers) throws IOException {
+        LuceneDemoConfig.MavenIndex mavenIndex = luceneDemoConfig.getMavenIndex();
+        int threads = mavenIndex.resolveThreads();
+        BlockingQueue<File> queue = new ArrayBlockingQueue<>(mavenIndex.getQueueCapacity());
+        MavenIndexStats stats = new MavenIndexStats();
+        log.info("开始索引maven仓库: {}, 工作线程:{}个", repositoryDir.getAbsolutePath(), threads);
+
+        ExecutorService workers = Executors.newFixedThreadPool(threads, new IndexerThreadFactory("mvn-indexer-"));
+        int interval = mavenIndex.getProgressIntervalSeconds();
+        // 间隔不大于0时不输出进度日志
+        ScheduledExecutorService reporter = interval > 0
+                ? Executors.newSingleThreadScheduledExecutor(new IndexerThreadFactory("mvn-indexer-progress-")) : null;
+        if (reporter != null) {
+            reporter.scheduleAtFixedRate(() -> log.info("索引进度, {}", stats.progress(queue.size())), interval, interval, TimeUnit.SECONDS);
+        }
+        try {
+            List<Future<?>> futures = new ArrayList<>(threads);
+            for (int i = 0; i < threads; i++) {
+                futures.add(workers.submit(() -> consume(repositoryDir, queue, indexWriters, indexedJars, classSets, stats, timers)));
+            }
+            long walkStart = System.nanoTime();
+            // 队列满时阻塞的时间不算遍历耗时
+            AtomicLong blockedNanos = new AtomicLong();
+            try {
+                unreadablePaths.addAll(MavenRepoUtil.walkJarFiles(repositoryDir, file -> {
+                    stats.jarDiscovered();
+                    long putStart = System.nanoTime();
+                    queue.put(file);
+                    blockedNanos.addAndGet(System.nanoTime() - putStart);
+                }));
+                if (!unreadablePaths.isEmpty()) {
+                    stats.pathsUnreadable(unreadablePaths.size());
+                    log.warn("仓库遍历不完整, {}个路径无法访问, 其中已索引的jar保留: {}", unreadablePaths.size(), unreadablePaths);
+                }
+                timers.walk.record(System.nanoTime() - walkStart - blockedNanos.get(), TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                // 恢复中断标记，下面不再放入结束标记
+                Thread.currentThread().interrupt();
+                throw e;
+            } finally {
+                // 每个工作线程一个结束标记，被中断时由shutdownNow结束工作线程
+                for (int i = 0; i < threads && !Thread.currentThread().isInterrupted(); i++) {
+                    queue.put(END_OF_WALK);
+                }
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("索引被中断", e);
+        } catch (ExecutionException e) {
+            throw new IOException("索引失败", e.getCause());
+        } finally {
+            if (reporter != null) {
+                reporter.shutdownNow();
+            }
+            workers.shutdownNow();
+        }
+        return stats;
+    }
+
+    private void consume(File repositoryDir, BlockingQueue<File> queue, IndexWriter[] indexWriters,
+                         Map<String, MavenArtifact> indexedJars, List<ConcurrentMap<String, CompletableFuture<Void>>> classSets,
+                         MavenIndexStats stats,
+                         MavenMetrics.IndexTimers timers) {
+        try {
+            File file;
+            while ((file = queue.take()) != END_OF_WALK) {
+                try {
+                    indexJar(repositoryDir, file, indexWriters, indexedJars, classSets, stats, timers);
+                } catch (Throwable e) {
+                    // Error也只记为这个jar失败，工作线程不能退出，否则遍历线程会一直阻塞在已满的队列上
+                    stats.jarFailed();
+                    log.error("jar索引失败: {}", file.getAbsolutePath(), e);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void indexJar(File repositoryDir, File file, IndexWriter[] indexWriters, Map<String, MavenArtifact> indexedJars,
+                          List<ConcurrentMap<String, CompletableFuture<Void>>> classSets, MavenIndexStats stats,
+                          MavenMetrics.IndexTimers timers) {
+        try {
+            MavenArtifact mavenArtifact = MavenRepoUtil.buildMavenArtifact(repositoryDir, file);
+            int shard = shardOf(indexWriters, mavenArtifact.getGroupId());
+            IndexWriter indexWriter = indexWriters[shard];
+            if (indexWriter == null) {
+                return;
+            }
+            boolean contentHash = luceneDemoConfig.getMavenIndex().isContentHash();
+            MavenJarFingerprint fingerprint = MavenJarFingerprint.of(file);
+            MavenArtifact indexed = indexedJars.remove(file.getAbsolutePath());
+            if (indexed != null && indexed.getFingerprint() != null
+                    && indexed.getFingerprint().unchanged(fingerprint, file, contentHash)) {
+                stats.jarSkipped();
+                return;
+            }
+            if (contentHash) {
+                fingerprint.computeHash(file);
+            }
+
+            mavenArtifact.setFingerprint(fingerprint);
+            JarClassScanner scanner = JarClassScanner.of(luceneDemoConfig.getMavenIndex());
+            long start = System.nanoTime();
+            // 成员在各工作线程上随jar一起解析
+            List<MavenJarClass> mavenJarClasses = luceneDemoConfig.getMavenIndex().isIndexMembers()
+                    ? MavenRepoUtil.buildMavenJarClassWithMembers(mavenArtifact, scanner)
+                    : MavenRepoUtil.buildMavenJarClass(mavenArtifact, scanner);
+            MavenMetrics.record(timers.scan, start);
+
+            start = System.nanoTime();
+            MavenClassSet classSet = MavenClassSet.of(mavenJarClasses);
+            if (writeClassSet(classSets.get(shard), classSet, indexWriter, timers, start)) {
+                stats.classSetIndexed();
+            } else {
+                stats.classSetReused();
+            }
+            mavenArtifact.setClassSetId(classSet.getId());
+            start = System.nanoTime();
+            Iterable<? extends IndexableField> document = mavenArtifact.toDocument();
+            MavenMetrics.record(timers.buildArtifact, start);
+            start = System.nanoTime();
+            if (indexed != null) {
+                // 按文件路径替换jar文档(同一gav下可能有 -sources 等多个jar)，原来引用的集合没有其它jar引用时在提交前删除
+                indexWriter.updateDocument(new Term("filePath", indexed.getFilePath()), document);
+            } else {
+                indexWriter.addDocument(document);
+            }
+            MavenMetrics.record(timers.writeArtifact, start);
+            stats.jarIndexed(mavenJarClasses.size());
+        } catch (IOException | RuntimeException e) {
+            // IndexWriter出现不可恢复的异常后会关闭，后续写入都会失败，这里只记录单个jar的失败
+            stats.jarFailed();
+            log.warn("jar索引失败: {}", file.getAbsolutePath(), e);
+        }
+    }
+
+    /**
+     * 写入jar的class集合：同一集合只由第一个遇到它的线程写入，其它线程等它写入成功后再引用，
+     * 不会有jar文档引用写入失败的集合；写入失败时移除占位，等待的线程重新争抢写入
+     * @param classSets 分片的class集合，id -> 写入结果
+     * @param start     开始计算集合id的时间
+     * @return true表示本线程写入了集合，false表示复用已写入的集合
+     */
+    private static boolean writeClassSet(ConcurrentMap<String, CompletableFuture<Void>> classSets, MavenClassSet classSet,
+                                         IndexWriter indexWriter, MavenMetrics.IndexTimers timers, long start) throws IOException {
+        // 复用的集合只计算了id
+        long idNanos = System.nanoTime() - start;
+        while (true) {
+            CompletableFuture<Void> written = new CompletableFuture<>();
+            CompletableFuture<Void> writing = classSets.putIfAbsent(classSet.getId(), written);
+            if (writing == null) {
+                try {
+                    List<Iterable<? extends IndexableField>> block = classSet.toBlock();
+                    MavenMetrics.record(timers.buildClassSet, start);
+                    long writeStart = System.nanoTime();
+                    indexWriter.addDocuments(block);
+                    MavenMetrics.record(timers.writeClassSet, writeStart);
+                } catch (Throwable e) {
+                    classSets.remove(classSet.getId(), written);
+                    written.completeExceptionally(e);
+                    throw e;
+                }
+                written.complete(null);
+                return true;
+            }
+            try {
+                writing.get();
+                timers.buildClassSet.record(idNanos, TimeUnit.NANOSECONDS);
+                return false;
+            } catch (ExecutionException e) {
+                log.debug("class集合写入失败, 重新写入: {}", classSet.getId(), e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("索引被中断");
+            }
+        }
+    }
+
+    private static class IndexerThreadFactory implements ThreadFactory {
+        private final AtomicInteger counter = new AtomicInteger();
+        private final String namePrefix;
+
+        IndexerThreadFactory(String namePrefix) {
+            this.namePrefix = namePrefix;
+        }
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r, namePrefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
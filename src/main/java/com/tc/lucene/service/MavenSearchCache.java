@@ -0,0 +1,143 @@
+package com.tc.lucene.service;
+
+import com.tc.lucene.dto.MavenArtifact;
+import com.tc.lucene.dto.MavenJar;
+import com.tc.lucene.dto.MavenJarClass;
+import com.tc.lucene.dto.MavenSearchRequest;
+import com.tc.lucene.dto.PageResult;
+import com.tc.lucene.dto.SearchCacheStats;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 搜索结果页缓存
+ * <p>
+ * 按查询条件(规范化后的查询语句、类型、页码等)缓存结果页，LRU淘汰，容量按结果的估算内存计算；
+ * 缓存记录所用reader的版本，出现更新的reader(索引有新提交并刷新)后整体失效；
+ * 版本比缓存旧的reader(刷新前借出的searcher)既不命中也不清空缓存，查出的结果不缓存。
+ * 缓存的结果在多个请求间共享，调用方不要修改。
+ *
+ * @author AnthubTC
+ * @version 1.0
+ * @className MavenSearchCache
+ * @description
+ * @date 2026/10/18 16:10
+ **/
+public class MavenSearchCache {
+    /**
+     * 对象头、引用等固定开销的粗略估算
+     */
+    private static final int ENTRY_OVERHEAD = 128;
+    private static final int RECORD_OVERHEAD = 64;
+
+    private final long maxBytes;
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long readerVersion = -1;
+    private long bytes;
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long invalidations;
+
+    public MavenSearchCache(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    public boolean isEnabled() {
+        return maxBytes > 0;
+    }
+
+    public static String key(MavenSearchRequest request) {
+        String keyword = request.getKeyword() == null ? "" : request.getKeyword().trim().replaceAll("\\s+", " ");
+        String versionRange = request.getVersionRange() == null ? "" : request.getVersionRange().replaceAll("\\s+", "");
+        return request.getType() + "\u0000" + keyword + "\u0000" + versionRange + "\u0000" + request.getSort()
+                + "\u0000" + request.isCollapse() + "\u0000" + request.isWithFilePath()
+                + "\u0000" + request.getPage() + "\u0000" + request.getSize();
+    }
+
+    /**
+     * @param key           {@link #key(MavenSearchRequest)}
+     * @param readerVersion 当前reader的版本
+     * @return 没有缓存、已失效或reader比缓存旧时返回null
+     */
+    public synchronized PageResult<MavenJar> get(String key, long readerVersion) {
+        checkVersion(readerVersion);
+        Entry entry = readerVersion == this.readerVersion ? entries.get(key) : null;
+        if (entry == null) {
+            misses++;
+            return null;
+        }
+        hits++;
+        return entry.result;
+    }
+
+    public synchronized void put(String key, long readerVersion, PageResult<MavenJar> result) {
+        if (readerVersion != this.readerVersion) {
+            // 比缓存版本旧的reader查出的结果不缓存，版本由get切换
+            return;
+        }
+        long size = estimateBytes(key, result);
+        if (size > maxBytes) {
+            return;
+        }
+        Entry previous = entries.put(key, new Entry(result, size));
+        if (previous != null) {
+            bytes -= previous.bytes;
+        }
+        bytes += size;
+        Iterator<Map.Entry<String, Entry>> iterator = entries.entrySet().iterator();
+        while (bytes > maxBytes && iterator.hasNext()) {
+            bytes -= iterator.next().getValue().bytes;
+            iterator.remove();
+            evictions++;
+        }
+    }
+
+    public synchronized SearchCacheStats stats() {
+        return new SearchCacheStats(hits, misses, evictions, invalidations, entries.size(), bytes, maxBytes);
+    }
+
+    /**
+     * 出现更新的reader时清空缓存，只有版本相同时才命中
+     */
+    private void checkVersion(long readerVersion) {
+        if (readerVersion > this.readerVersion) {
+            invalidations += entries.size();
+            entries.clear();
+            bytes = 0;
+            this.readerVersion = readerVersion;
+        }
+    }
+
+    private static long estimateBytes(String key, PageResult<MavenJar> result) {
+        long size = ENTRY_OVERHEAD + key.length() * 2L;
+        for (MavenJar record : result.getRecords()) {
+            size += RECORD_OVERHEAD;
+            if (record instanceof MavenArtifact) {
+                MavenArtifact artifact = (MavenArtifact) record;
+                size += length(artifact.getGroupId()) + length(artifact.getArtifactId())
+                        + length(artifact.getVersion()) + length(artifact.getFilePath());
+            }
+            if (record instanceof MavenJarClass) {
+                size += length(((MavenJarClass) record).getClassName());
+            }
+        }
+        return size;
+    }
+
+    private static long length(String value) {
+        return value == null ? 0 : 40 + value.length() * 2L;
+    }
+
+    private static class Entry {
+        private final PageResult<MavenJar> result;
+        private final long bytes;
+
+        Entry(PageResult<MavenJar> result, long bytes) {
+            this.result = result;
+            this.bytes = bytes;
+        }
+    }
+}
@@ -0,0 +1,414 @@
+package com.tc.lucene.service;
+
+import com.tc.lucene.analysis.AnalyzerRegistry;
+import com.tc.lucene.config.LuceneDemoConfig;
+import com.tc.lucene.dto.MavenArtifact;
+import com.tc.lucene.dto.MavenJar;
+import com.tc.lucene.dto.MavenSearchRequest;
+import com.tc.lucene.dto.PageResult;
+import com.tc.lucene.dto.SearchCacheStats;
+import com.tc.lucene.enums.MavenContentType;
+import com.tc.lucene.enums.MavenSortType;
+import com.tc.lucene.util.AnalyzerUtil;
+import com.tc.lucene.util.MavenBlockJoinUtil;
+import com.tc.lucene.util.MavenDocValuesUtil;
+import com.tc.lucene.util.MavenQueryUtil;
+import com.tc.lucene.util.MavenVersionUtil;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.DocValues;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.SortedDocValues;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.queryparser.classic.ParseException;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.FieldDoc;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.ScoreMode;
+import org.apache.lucene.search.SimpleCollector;
+import org.apache.lucene.search.Sort;
+import org.apache.lucene.search.SortField;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.search.TopFieldDocs;
+import org.apache.lucene.search.TotalHits;
+import org.apache.lucene.search.grouping.GroupDocs;
+import org.apache.lucene.search.grouping.GroupingSearch;
+import org.apache.lucene.search.grouping.TopGroups;
+import org.apache.lucene.util.BytesRef;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * maven仓库搜索
+ * <p>
+ * 线程安全：reader由 {@link LuceneSearcherRegistry} 在请求间共享，QueryParser非线程安全，需要时每次查询新建；
+ * 同时执行的查询数受限，超出的请求排队等待，避免CPU被过多并发查询挤满导致整体延迟抖动；
+ * 结果页按reader版本缓存，见 {@link MavenSearchCache}；未命中缓存的查询按阶段记录耗时，见 {@link MavenMetrics}。
+ * <p>
+ * class搜索先在class集合的文档块上做block join，再按classSetId关联到引用这些集合的jar，每个版本的jar各自作为一条结果，
+ * 关联查询与searcher绑定，在各分片上分别创建。
+ * <p>
+ * 分片索引上的查询并发发到所有分片，每个分片取前 from+size 条，再用 {@link TopDocs#merge} 按同一排序归并出当前页；
+ * 相关度得分使用各分片自己的词频统计，分片按groupId哈希、文档分布均匀时与不分片的得分接近。
+ *
+ * @author AnthubTC
+ * @version 1.0
+ * @className MavenSearchService
+ * @description
+ * @date 2026/10/18 13:05
+ **/
+@Component
+public class MavenSearchService {
+    /**
+     * 最多能翻到的结果条数(page*size)，每个分片都要收集前 from+size 条，深翻页不加限制会占用大量内存
+     */
+    public static final int MAX_RESULT_WINDOW = 10_000;
+
+    private final LuceneDemoConfig luceneDemoConfig;
+    private final LuceneSearcherRegistry luceneSearcherRegistry;
+    private final Semaphore searchPermits;
+    private final MavenSearchCache searchCache;
+    private final MavenMetrics mavenMetrics;
+
+    public MavenSearchService(LuceneDemoConfig luceneDemoConfig, LuceneSearcherRegistry luceneSearcherRegistry) {
+        this(luceneDemoConfig, luceneSearcherRegistry, MavenMetrics.disabled());
+    }
+
+    @Autowired
+    public MavenSearchService(LuceneDemoConfig luceneDemoConfig, LuceneSearcherRegistry luceneSearcherRegistry,
+                              MavenMetrics mavenMetrics) {
+        this.luceneDemoConfig = luceneDemoConfig;
+        this.luceneSearcherRegistry = luceneSearcherRegistry;
+        this.mavenMetrics = mavenMetrics;
+        this.searchPermits = new Semaphore(luceneDemoConfig.getSearcher().resolveMaxConcurrentSearches(), true);
+        this.searchCache = new MavenSearchCache(luceneDemoConfig.getSearcher().getResultCacheSizeMb() * 1024L * 1024L);
+    }
+
+    /**
+     * 版本倒序，版本key是按maven语义编码的，直接按字节比较
+     */
+    private static final SortField VERSION_DESC = new SortField(MavenVersionUtil.FIELD_VERSION_KEY, SortField.Type.STRING, true);
+    /**
+     * 主jar在前，没有该字段的旧索引都按主jar处理
+     */
+    private static final SortField CLASSIFIED_ASC = new SortField(MavenArtifact.FIELD_CLASSIFIED, SortField.Type.LONG);
+    private static final Sort RELEVANCE_SORT = new Sort(SortField.FIELD_SCORE, VERSION_DESC);
+    private static final Sort VERSION_SORT = new Sort(new SortField("artifactId", SortField.Type.STRING), VERSION_DESC,
+            SortField.FIELD_SCORE);
+
+    /**
+     * 搜索jar或class
+     * @param searchType 搜索类型
+     * @param keyword    查询语句，QueryParser语法
+     * @param page       页码，从1开始
+     * @param size       每页条数
+     */
+    public PageResult<MavenJar> search(MavenContentType searchType, String keyword, int page, int size)
+            throws ParseException, IOException {
+        return search(MavenSearchRequest.of(searchType, keyword, page, size));
+    }
+
+    /**
+     * 搜索jar或class，版本过滤和排序都在索引中完成
+     */
+    public PageResult<MavenJar> search(MavenSearchRequest request) throws ParseException, IOException {
+        checkResultWindow(request.getPage(), request.getSize());
+        List<String> shardIndexNames = luceneDemoConfig.getMavenIndex().shardIndexNames();
+        String cacheKey = searchCache.isEnabled() ? MavenSearchCache.key(request) : null;
+        try {
+            return luceneSearcherRegistry.search(shardIndexNames, searchers -> {
+                // 缓存的查找和写入都用这次借出的searcher的版本，与执行查询的reader一致
+                long readerVersion = readerVersion(searchers);
+                if (cacheKey != null) {
+                    // 命中缓存时不解析查询、不占用查询并发数
+                    PageResult<MavenJar> cached = searchCache.get(cacheKey, readerVersion);
+                    if (cached != null) {
+                        return cached;
+                    }
+                }
+                PageResult<MavenJar> result;
+                try {
+                    result = searchUncached(searchers, request);
+                } catch (ParseException e) {
+                    throw new UncheckedParseException(e);
+                }
+                if (cacheKey != null) {
+                    searchCache.put(cacheKey, readerVersion, result);
+                }
+                return result;
+            });
+        } catch (UncheckedParseException e) {
+            throw e.getCause();
+        }
+    }
+
+    private PageResult<MavenJar> searchUncached(IndexSearcher[] searchers, MavenSearchRequest request)
+            throws ParseException, IOException {
+        MavenContentType searchType = request.getType();
+        MavenMetrics.SearchTimers timers = mavenMetrics.searchTimers(searchType,
+                MavenQueryUtil.isQuerySyntax(request.getKeyword()) ? MavenMetrics.QUERY_PARSER : MavenMetrics.QUERY_TERMS);
+        long start = System.nanoTime();
+        String field = MavenContentType.Artifact == searchType ? "artifactId" : "className";
+        Query keywordQuery = MavenQueryUtil.keywordQuery(field, request.getKeyword(),
+                AnalyzerUtil.getAnalyzer(AnalyzerRegistry.MAVEN_QUERY));
+        Query versionQuery = isBlank(request.getVersionRange())
+                ? null : MavenVersionUtil.rangeQuery(request.getVersionRange());
+        Sort sort = MavenSortType.Version == request.getSort() ? VERSION_SORT : RELEVANCE_SORT;
+        Query artifactQuery = MavenContentType.Artifact == searchType ? artifactQuery(keywordQuery, versionQuery) : null;
+        SearchQuery query = artifactQuery != null ? searcher -> artifactQuery
+                : searcher -> classQuery(searcher, keywordQuery, versionQuery);
+        MavenMetrics.record(timers.parse, start);
+
+        start = System.nanoTime();
+        acquirePermit();
+        MavenMetrics.record(timers.admission, start);
+        try {
+            return doSearch(searchers, request, keywordQuery, query, sort, timers);
+        } finally {
+            searchPermits.release();
+        }
+    }
+
+    /**
+     * 按long计算，避免page*size溢出
+     * @throws IllegalArgumentException 页码、条数不合法或超过 {@link #MAX_RESULT_WINDOW}
+     */
+    public static void checkResultWindow(int page, int size) {
+        if (page < 1 || size < 1 || (long) page * size > MAX_RESULT_WINDOW) {
+            throw new IllegalArgumentException("page、size从1开始，page*size不能超过" + MAX_RESULT_WINDOW);
+        }
+    }
+
+    public SearchCacheStats getCacheStats() {
+        return searchCache.stats();
+    }
+
+    /**
+     * 在各分片的searcher上创建查询
+     */
+    @FunctionalInterface
+    private interface SearchQuery {
+        Query create(IndexSearcher searcher) throws IOException;
+    }
+
+    private PageResult<MavenJar> doSearch(IndexSearcher[] searchers, MavenSearchRequest request,
+                                          Query keywordQuery, SearchQuery query, Sort sort,
+                                          MavenMetrics.SearchTimers timers) throws IOException {
+        int page = request.getPage();
+        int size = request.getSize();
+        int from = (page - 1) * size;
+        List<MavenJar> records = new ArrayList<>(size);
+        long start = System.nanoTime();
+        if (request.isCollapse()) {
+            // 分组在收集阶段完成，每组只保留最高版本，不需要多取再去重
+            List<ShardGroups> shardGroups = luceneSearcherRegistry.fanOut(searchers, indexSearcher -> {
+                Query shardQuery = query.create(indexSearcher);
+                return new ShardGroups(shardQuery,
+                        newGroupingSearch(sort).<BytesRef>search(indexSearcher, shardQuery, 0, from + size));
+            });
+            // 同一个ga只在一个分片中，各分片的组互不重叠，把组的排序值当作FieldDoc按同一排序归并
+            TopFieldDocs[] shardHits = new TopFieldDocs[searchers.length];
+            long totalGroupCount = 0;
+            for (int shard = 0; shard < searchers.length; shard++) {
+                TopGroups<BytesRef> topGroups = shardGroups.get(shard).topGroups;
+                int groupCount = topGroups.groups == null ? 0 : topGroups.groups.length;
+                FieldDoc[] groupDocs = new FieldDoc[groupCount];
+                for (int i = 0; i < groupCount; i++) {
+                    GroupDocs<BytesRef> group = topGroups.groups[i];
+                    groupDocs[i] = new FieldDoc(i, group.score, group.groupSortValues);
+                }
+                shardHits[shard] = new TopFieldDocs(new TotalHits(groupCount, TotalHits.Relation.EQUAL_TO),
+                        groupDocs, sort.getSort());
+                totalGroupCount += topGroups.totalGroupCount;
+            }
+            ScoreDoc[] hits = TopDocs.merge(sort, from, size, shardHits, true).scoreDocs;
+            MavenMetrics.record(timers.search, start);
+            start = System.nanoTime();
+            for (ScoreDoc hit : hits) {
+                ShardGroups groups = shardGroups.get(hit.shardIndex);
+                GroupDocs<BytesRef> group = groups.topGroups.groups[hit.doc];
+                MavenArtifact record = toRecord(searchers[hit.shardIndex], request, keywordQuery, group.scoreDocs[0].doc);
+                record.setVersionCount(group.groupValue == null
+                        ? group.totalHits.value : countVersions(searchers[hit.shardIndex], groups.query, group.groupValue));
+                records.add(record);
+            }
+            MavenMetrics.record(timers.hydrate, start);
+            return new PageResult<>(page, size, totalGroupCount, records);
+        }
+        List<TopFieldDocs> shardHits = luceneSearcherRegistry.fanOut(searchers,
+                indexSearcher -> indexSearcher.search(query.create(indexSearcher), from + size, sort));
+        TopDocs topDocs = TopDocs.merge(sort, from, size, shardHits.toArray(new TopFieldDocs[0]), true);
+        MavenMetrics.record(timers.search, start);
+        start = System.nanoTime();
+        for (ScoreDoc hit : topDocs.scoreDocs) {
+            records.add(toRecord(searchers[hit.shardIndex], request, keywordQuery, hit.doc));
+        }
+        MavenMetrics.record(timers.hydrate, start);
+        return new PageResult<>(page, size, topDocs.totalHits.value, records);
+    }
+
+    /**
+     * SearcherManager打开的都是DirectoryReader，版本随每次提交递增；多个分片时取各分片版本之和，任一分片提交后都会变大
+     */
+    private static long readerVersion(IndexSearcher[] searchers) {
+        long version = 0;
+        for (IndexSearcher searcher : searchers) {
+            version += ((DirectoryReader) searcher.getIndexReader()).getVersion();
+        }
+        return version;
+    }
+
+    private static Query artifactQuery(Query keywordQuery, Query versionQuery) {
+        BooleanQuery.Builder builder = new BooleanQuery.Builder()
+                .add(keywordQuery, BooleanClause.Occur.MUST)
+                .add(MavenBlockJoinUtil.typeQuery(MavenContentType.Artifact), BooleanClause.Occur.FILTER);
+        if (versionQuery != null) {
+            builder.add(versionQuery, BooleanClause.Occur.FILTER);
+        }
+        return builder.build();
+    }
+
+    /**
+     * class是class集合的子文档，命中的集合再关联到jar，按jar分页；版本过滤、排序作用在jar上
+     */
+    private static Query classQuery(IndexSearcher searcher, Query keywordQuery, Query versionQuery) throws IOException {
+        Query query = MavenBlockJoinUtil.toArtifactQuery(keywordQuery, searcher);
+        if (versionQuery != null) {
+            query = new BooleanQuery.Builder()
+                    .add(query, BooleanClause.Occur.MUST)
+                    .add(versionQuery, BooleanClause.Occur.FILTER)
+                    .build();
+        }
+        return query;
+    }
+
+    /**
+     * 分片上的查询及其分组结果，统计组内版本数时复用同一个查询
+     */
+    private static class ShardGroups {
+        private final Query query;
+        private final TopGroups<BytesRef> topGroups;
+
+        private ShardGroups(Query query, TopGroups<BytesRef> topGroups) {
+            this.query = query;
+            this.topGroups = topGroups;
+        }
+    }
+
+    /**
+     * 按ga的doc values分组，组间按请求的排序，组内按版本倒序只取一条，同一版本优先取不带classifier的主jar
+     */
+    private static GroupingSearch newGroupingSearch(Sort sort) {
+        GroupingSearch groupingSearch = new GroupingSearch("ga");
+        groupingSearch.setGroupSort(sort);
+        groupingSearch.setSortWithinGroup(new Sort(VERSION_DESC, CLASSIFIED_ASC));
+        groupingSearch.setGroupDocsLimit(1);
+        groupingSearch.setAllGroups(true);
+        return groupingSearch;
+    }
+
+    /**
+     * 组内命中的不同版本数；同一版本目录下的 -sources 等jar各是一个文档，组内命中数会多算，按versionKey去重
+     */
+    private static long countVersions(IndexSearcher searcher, Query query, BytesRef ga) throws IOException {
+        Query groupQuery = new BooleanQuery.Builder()
+                .add(query, BooleanClause.Occur.FILTER)
+                .add(new TermQuery(new Term("ga", ga)), BooleanClause.Occur.FILTER)
+                .build();
+        Set<BytesRef> versionKeys = new HashSet<>();
+        searcher.search(groupQuery, new SimpleCollector() {
+            private SortedDocValues docValues;
+
+            @Override
+            protected void doSetNextReader(LeafReaderContext context) throws IOException {
+                docValues = DocValues.getSorted(context.reader(), MavenVersionUtil.FIELD_VERSION_KEY);
+            }
+
+            @Override
+            public void collect(int doc) throws IOException {
+                if (docValues.advanceExact(doc)) {
+                    versionKeys.add(BytesRef.deepCopyOf(docValues.lookupOrd(docValues.ordValue())));
+                }
+            }
+
+            @Override
+            public ScoreMode scoreMode() {
+                return ScoreMode.COMPLETE_NO_SCORES;
+            }
+        });
+        return versionKeys.size();
+    }
+
+    /**
+     * 结果从doc values组装；class搜索时doc是jar，再取该jar引用的class集合下得分最高的class
+     */
+    private static MavenArtifact toRecord(IndexSearcher indexSearcher, MavenSearchRequest request, Query keywordQuery,
+                                          int doc) throws IOException {
+        IndexReader indexReader = indexSearcher.getIndexReader();
+        if (MavenContentType.Artifact == request.getType()) {
+            return MavenDocValuesUtil.loadArtifact(indexReader, doc, request.isWithFilePath());
+        }
+        MavenArtifact mavenArtifact = MavenDocValuesUtil.loadArtifact(indexReader, doc, request.isWithFilePath());
+        int classSetDoc = mavenArtifact.getClassSetId() == null
+                ? -1 : MavenBlockJoinUtil.classSetDoc(indexSearcher, mavenArtifact.getClassSetId());
+        if (classSetDoc < 0) {
+            return mavenArtifact;
+        }
+        TopDocs classDocs = indexSearcher.search(MavenBlockJoinUtil.matchedClassQuery(keywordQuery, classSetDoc), 1);
+        if (classDocs.scoreDocs.length == 0) {
+            return mavenArtifact;
+        }
+        return MavenDocValuesUtil.loadClass(indexReader, classDocs.scoreDocs[0].doc, mavenArtifact);
+    }
+
+    private static boolean isBlank(String text) {
+        return text == null || text.trim().isEmpty();
+    }
+
+    private void acquirePermit() {
+        try {
+            long timeout = luceneDemoConfig.getSearcher().getAdmissionTimeoutMillis();
+            if (!searchPermits.tryAcquire(timeout, TimeUnit.MILLISECONDS)) {
+                throw new SearchBusyException("搜索繁忙，请稍后重试");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SearchBusyException("搜索被中断");
+        }
+    }
+
+    /**
+     * 在searcher回调中带出查询语句的解析错误
+     */
+    private static class UncheckedParseException extends RuntimeException {
+        UncheckedParseException(ParseException cause) {
+            super(cause);
+        }
+
+        @Override
+        public synchronized ParseException getCause() {
+            return (ParseException) super.getCause();
+        }
+    }
+
+    /**
+     * 并发查询数已满且等待超时
+     */
+    public static class SearchBusyException extends RuntimeException {
+        public SearchBusyException(String message) {
+            super(message);
+        }
+    }
+}
@@ -0,0 +1,404 @@
+package com.tc.lucene.service;
+
+import com.tc.lucene.config.LuceneDemoConfig;
+import com.tc.lucene.dto.MavenSuggestion;
+import com.tc.lucene.enums.MavenContentType;
+import com.tc.lucene.event.IndexCommittedEvent;
+import com.tc.lucene.util.MavenDocValuesUtil;
+import com.tc.lucene.util.MavenVersionUtil;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.LowerCaseFilter;
+import org.apache.lucene.analysis.Tokenizer;
+import org.apache.lucene.analysis.core.KeywordTokenizer;
+import org.apache.lucene.index.DocValues;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.MultiBits;
+import org.apache.lucene.index.MultiReader;
+import org.apache.lucene.index.MultiTerms;
+import org.apache.lucene.index.PostingsEnum;
+import org.apache.lucene.index.ReaderUtil;
+import org.apache.lucene.index.SortedDocValues;
+import org.apache.lucene.index.Terms;
+import org.apache.lucene.index.TermsEnum;
+import org.apache.lucene.search.DocIdSetIterator;
+import org.apache.lucene.search.suggest.InputIterator;
+import org.apache.lucene.search.suggest.Lookup;
+import org.apache.lucene.search.suggest.analyzing.AnalyzingSuggester;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.apache.lucene.util.Bits;
+import org.apache.lucene.util.BytesRef;
+import org.apache.lucene.util.FixedBitSet;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 类名、artifactId输入提示
+ * <p>
+ * 基于FST的AnalyzingSuggester，按前缀(不区分大小写)补全类名(不含包名)和artifactId，
+ * 权重为包含该类的jar数量、该artifact的版本数量；class按集合去重后一个class文档可能被多个jar引用，
+ * 权重按所在集合被引用的jar数累加。
+ * 每次索引提交后从索引的词典重建(多个分片时合并各分片的词典)，保存在索引旁边的 {indexName}-suggest 目录，启动后首次使用时加载。
+ * 重建在单独的线程上依次执行，不阻塞提交索引的线程；重建期间到达的多次提交只再重建一次。
+ * 查询只在内存中的FST上进行，不访问索引。
+ *
+ * @author AnthubTC
+ * @version 1.0
+ * @className MavenSuggester
+ * @description
+ * @date 2026/10/18 15:10
+ **/
+@Slf4j
+@Component
+public class MavenSuggester implements DisposableBean {
+    private static final String SUGGEST_FILE = "suggest.fst";
+    private static final char PAYLOAD_SEPARATOR = '|';
+
+    private final LuceneDemoConfig luceneDemoConfig;
+    private final LuceneSearcherRegistry luceneSearcherRegistry;
+    private final ExecutorService rebuilder;
+    /**
+     * 已有等待执行的重建，后续的提交事件合并到它
+     */
+    private final AtomicBoolean rebuildPending = new AtomicBoolean();
+    /**
+     * 重建依次执行，与首次加载的锁分开，重建期间不阻塞加载
+     */
+    private final Object rebuildLock = new Object();
+    /**
+     * 重建完成后直接替换；首次加载只在还没有值时设置，不会覆盖加载期间重建出的新提示
+     */
+    private final AtomicReference<Lookup> lookup = new AtomicReference<>();
+    private volatile boolean loaded;
+
+    public MavenSuggester(LuceneDemoConfig luceneDemoConfig, LuceneSearcherRegistry luceneSearcherRegistry) {
+        this.luceneDemoConfig = luceneDemoConfig;
+        this.luceneSearcherRegistry = luceneSearcherRegistry;
+        this.rebuilder = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "maven-suggest-rebuilder");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * 前缀补全
+     * @param prefix 已输入的内容
+     * @param size   返回条数
+     */
+    public List<MavenSuggestion> suggest(String prefix, int size) throws IOException {
+        Lookup current = getLookup();
+        if (current == null || prefix == null || prefix.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<Lookup.LookupResult> results = current.lookup(prefix, (Set<BytesRef>) null, false, size);
+        List<MavenSuggestion> suggestions = new ArrayList<>(results.size());
+        for (Lookup.LookupResult result : results) {
+            String payload = result.payload.utf8ToString();
+            int separator = payload.indexOf(PAYLOAD_SEPARATOR);
+            suggestions.add(new MavenSuggestion(Integer.valueOf(payload.substring(0, separator)),
+                    result.key.toString(), payload.substring(separator + 1), result.value));
+        }
+        return suggestions;
+    }
+
+    @EventListener
+    public void onIndexCommitted(IndexCommittedEvent event) {
+        if (!luceneDemoConfig.getMavenIndex().getIndexName().equals(event.getIndexName())) {
+            return;
+        }
+        if (!rebuildPending.compareAndSet(false, true)) {
+            return;
+        }
+        rebuilder.execute(() -> {
+            // 开始重建前清除标记，重建期间的提交会再排一次
+            rebuildPending.set(false);
+            try {
+                rebuild();
+            } catch (IOException | RuntimeException e) {
+                // 提示不可用不影响索引
+                log.warn("重建输入提示失败", e);
+            }
+        });
+    }
+
+    /**
+     * 从当前索引重建并保存，多个调用依次执行
+     */
+    public void rebuild() throws IOException {
+        synchronized (rebuildLock) {
+            doRebuild();
+        }
+    }
+
+    private void doRebuild() throws IOException {
+        long start = System.currentTimeMillis();
+        List<String> shardIndexNames = luceneDemoConfig.getMavenIndex().shardIndexNames();
+        Path suggestDir = getSuggestDir();
+        Files.createDirectories(suggestDir);
+        AnalyzingSuggester suggester;
+        // 构建时排序用的临时文件放在提示目录下
+        try (Directory tempDir = FSDirectory.open(suggestDir)) {
+            suggester = newSuggester(tempDir);
+            for (String shardIndexName : shardIndexNames) {
+                luceneSearcherRegistry.refresh(shardIndexName);
+            }
+            luceneSearcherRegistry.search(shardIndexNames, searchers -> {
+                // 多个分片的词典合并遍历，权重为各分片文档数之和
+                IndexReader[] readers = new IndexReader[searchers.length];
+                for (int i = 0; i < searchers.length; i++) {
+                    readers[i] = searchers[i].getIndexReader();
+                }
+                try (MultiReader reader = new MultiReader(readers, false)) {
+                    suggester.build(new SuggestInputIterator(reader, readers));
+                }
+                return null;
+            });
+        }
+
+        // 先写临时文件再替换，避免加载到写了一半的文件
+        Path tmp = Files.createTempFile(suggestDir, SUGGEST_FILE, ".tmp");
+        try {
+            try (OutputStream out = Files.newOutputStream(tmp)) {
+                suggester.store(out);
+            }
+            Files.move(tmp, suggestDir.resolve(SUGGEST_FILE), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+        lookup.set(suggester);
+        loaded = true;
+        log.info("输入提示重建完成, 共{}条, 耗时{}ms", suggester.getCount(), System.currentTimeMillis() - start);
+    }
+
+    @Override
+    public void destroy() {
+        rebuilder.shutdownNow();
+    }
+
+    private Lookup getLookup() throws IOException {
+        if (!loaded) {
+            synchronized (this) {
+                if (!loaded) {
+                    Path file = getSuggestDir().resolve(SUGGEST_FILE);
+                    if (Files.exists(file)) {
+                        try (Directory tempDir = FSDirectory.open(getSuggestDir());
+                             InputStream in = Files.newInputStream(file)) {
+                            AnalyzingSuggester suggester = newSuggester(tempDir);
+                            suggester.load(in);
+                            if (lookup.compareAndSet(null, suggester)) {
+                                log.info("加载输入提示: {}", file);
+                            }
+                        }
+                    }
+                    loaded = true;
+                }
+            }
+        }
+        return lookup.get();
+    }
+
+    private Path getSuggestDir() {
+        return new File(luceneDemoConfig.getDemoIndexDbPath(
+                luceneDemoConfig.getMavenIndex().getIndexName() + "-suggest")).toPath();
+    }
+
+    private static AnalyzingSuggester newSuggester(Directory tempDir) {
+        return new AnalyzingSuggester(tempDir, "suggest", new LowerCaseKeywordAnalyzer());
+    }
+
+    /**
+     * 整个输入作为一个词并转小写，前缀匹配不区分大小写
+     */
+    private static class LowerCaseKeywordAnalyzer extends Analyzer {
+        @Override
+        protected TokenStreamComponents createComponents(String fieldName) {
+            Tokenizer tokenizer = new KeywordTokenizer();
+            return new TokenStreamComponents(tokenizer, new LowerCaseFilter(tokenizer));
+        }
+    }
+
+    /**
+     * 依次遍历 className.keyword 和 ga 两个字段的词典；ga的权重为未删除的jar的不同版本数(同一版本的 -sources 等jar不重复计数)，
+     * className的权重为包含它的各class集合被引用的jar数之和
+     */
+    private static class SuggestInputIterator implements InputIterator {
+        private final IndexReader reader;
+        private final Bits liveDocs;
+        /**
+         * class集合文档的位置，class文档之后的第一个集合文档就是它所在的集合
+         */
+        private final FixedBitSet classSetDocs;
+        /**
+         * class集合文档 -> 引用它的jar数
+         */
+        private final Map<Integer, Integer> classSetRefs = new HashMap<>();
+        private final String[] fields = {"className.keyword", "ga"};
+        private final MavenContentType[] types = {MavenContentType.Clazz, MavenContentType.Artifact};
+        private int fieldIndex = -1;
+        private TermsEnum termsEnum;
+        private PostingsEnum postings;
+        private long weight;
+        private BytesRef payload;
+
+        /**
+         * @param reader       合并了各分片的reader
+         * @param shardReaders 各分片的reader，顺序与reader中相同；classSetId只在分片内唯一，按分片统计引用数
+         */
+        SuggestInputIterator(IndexReader reader, IndexReader[] shardReaders) throws IOException {
+            this.reader = reader;
+            this.liveDocs = MultiBits.getLiveDocs(reader);
+            this.classSetDocs = new FixedBitSet(reader.maxDoc());
+            int docBase = 0;
+            for (IndexReader shardReader : shardReaders) {
+                Map<String, Integer> refs = new HashMap<>();
+                MavenDocValuesUtil.forEachClassSetId(shardReader, MavenContentType.Artifact,
+                        (doc, classSetId) -> refs.merge(classSetId, 1, Integer::sum));
+                int base = docBase;
+                MavenDocValuesUtil.forEachClassSetId(shardReader, MavenContentType.ClassSet, (doc, classSetId) -> {
+                    classSetDocs.set(base + doc);
+                    classSetRefs.put(base + doc, refs.getOrDefault(classSetId, 0));
+                });
+                docBase += shardReader.maxDoc();
+            }
+        }
+
+        @Override
+        public BytesRef next() throws IOException {
+            while (true) {
+                BytesRef term = termsEnum == null ? null : termsEnum.next();
+                if (term == null) {
+                    if (!nextField()) {
+                        return null;
+                    }
+                    continue;
+                }
+                String value = term.utf8ToString();
+                String key = key(value);
+                if (key == null) {
+                    continue;
+                }
+                weight = MavenContentType.Clazz == types[fieldIndex] ? countReferencingJars() : countVersions();
+                if (weight == 0) {
+                    continue;
+                }
+                payload = new BytesRef(String.valueOf(types[fieldIndex].getType()) + PAYLOAD_SEPARATOR + value);
+                return new BytesRef(key);
+            }
+        }
+
+        private boolean nextField() throws IOException {
+            termsEnum = null;
+            while (termsEnum == null) {
+                if (++fieldIndex >= fields.length) {
+                    return false;
+                }
+                Terms terms = MultiTerms.getTerms(reader, fields[fieldIndex]);
+                if (terms != null) {
+                    termsEnum = terms.iterator();
+                }
+            }
+            return true;
+        }
+
+        /**
+         * class取不含包名的类名，匿名内部类不提示；artifact取artifactId
+         */
+        private String key(String value) {
+            if (MavenContentType.Clazz == types[fieldIndex]) {
+                String simpleName = value.substring(value.lastIndexOf('.') + 1);
+                int dollar = simpleName.lastIndexOf('$');
+                if (dollar >= 0 && dollar + 1 < simpleName.length() && Character.isDigit(simpleName.charAt(dollar + 1))) {
+                    return null;
+                }
+                return simpleName;
+            }
+            return value.substring(value.indexOf(':') + 1);
+        }
+
+        /**
+         * ga下未删除的jar按versionKey去重；docId递增，每个段取一次doc values
+         */
+        private long countVersions() throws IOException {
+            postings = termsEnum.postings(postings, PostingsEnum.NONE);
+            List<LeafReaderContext> leaves = reader.leaves();
+            Set<BytesRef> versionKeys = new HashSet<>();
+            LeafReaderContext leaf = null;
+            SortedDocValues docValues = null;
+            for (int doc = postings.nextDoc(); doc != DocIdSetIterator.NO_MORE_DOCS; doc = postings.nextDoc()) {
+                if (liveDocs != null && !liveDocs.get(doc)) {
+                    continue;
+                }
+                if (leaf == null || doc >= leaf.docBase + leaf.reader().maxDoc()) {
+                    leaf = leaves.get(ReaderUtil.subIndex(doc, leaves));
+                    docValues = DocValues.getSorted(leaf.reader(), MavenVersionUtil.FIELD_VERSION_KEY);
+                }
+                if (docValues.advanceExact(doc - leaf.docBase)) {
+                    versionKeys.add(BytesRef.deepCopyOf(docValues.lookupOrd(docValues.ordValue())));
+                }
+            }
+            return versionKeys.size();
+        }
+
+        private long countReferencingJars() throws IOException {
+            postings = termsEnum.postings(postings, PostingsEnum.NONE);
+            long count = 0;
+            for (int doc = postings.nextDoc(); doc != DocIdSetIterator.NO_MORE_DOCS; doc = postings.nextDoc()) {
+                if ((liveDocs == null || liveDocs.get(doc)) && doc + 1 < classSetDocs.length()) {
+                    int classSetDoc = classSetDocs.nextSetBit(doc + 1);
+                    if (classSetDoc != DocIdSetIterator.NO_MORE_DOCS) {
+                        count += classSetRefs.getOrDefault(classSetDoc, 0);
+                    }
+                }
+            }
+            return count;
+        }
+
+        @Override
+        public long weight() {
+            return weight;
+        }
+
+        @Override
+        public BytesRef payload() {
+            return payload;
+        }
+
+        @Override
+        public boolean hasPayloads() {
+            return true;
+        }
+
+        @Override
+        public Set<BytesRef> contexts() {
+            return null;
+        }
+
+        @Override
+        public boolean hasContexts() {
+            return false;
+        }
+    }
+}
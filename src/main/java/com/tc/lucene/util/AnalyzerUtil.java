@@ -1,5 +1,7 @@
 package com.tc.lucene.util;
 
+import com.tc.lucene.analysis.AnalyzerRegistry;
+import com.tc.lucene.config.LuceneDemoConfig;
 import org.apache.lucene.analysis.Analyzer;
 import org.apache.lucene.analysis.TokenStream;
 import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
@@ -17,6 +19,36 @@ import java.io.StringReader;
  * @date 2024/1/19 13:37
  **/
 public class AnalyzerUtil {
+    /**
+     * Spring容器中的分词器注册表，容器外使用时按默认配置创建一个
+     */
+    private static volatile AnalyzerRegistry registry;
+
+    /**
+     * 取共享的分词器，名称见 {@link AnalyzerRegistry} 中的常量，调用方不要关闭
+     */
+    public static Analyzer getAnalyzer(String name) {
+        AnalyzerRegistry current = registry;
+        if (current == null) {
+            synchronized (AnalyzerUtil.class) {
+                if (registry == null) {
+                    registry = new AnalyzerRegistry(new LuceneDemoConfig());
+                }
+                current = registry;
+            }
+        }
+        return current.get(name);
+    }
+
+    public static synchronized void setRegistry(AnalyzerRegistry analyzerRegistry) {
+        registry = analyzerRegistry;
+    }
+
+    public static synchronized void clearRegistry(AnalyzerRegistry analyzerRegistry) {
+        if (registry == analyzerRegistry) {
+            registry = null;
+        }
+    }
 
     /**
      * 显示分词信息
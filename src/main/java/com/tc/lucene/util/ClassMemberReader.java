@@ -0,0 +1,313 @@
+package com.tc.lucene.util;
+
+import java.io.IOException;
+import java.util.Collection;
+
+/**
+ * 从class文件字节中读取public方法和字段，不加载类
+ * <p>
+ * 只解析常量池、访问标志和字段、方法表，属性直接按长度跳过；常量池只记录各项的偏移，用到的名称和描述符才解码。
+ * 方法签名由描述符转换，参数类型取简单类名(内部类带外部类名)，例如 readValue(String,Class)、ObjectMapper(JsonFactory)、
+ * write(byte[],int,int)、configure(JsonParser.Feature,boolean)。
+ * 编译器生成的方法(synthetic、bridge)和静态初始化块不输出，非public的类不输出任何成员。
+ *
+ * @author AnthubTC
+ * @version 1.0
+ * @className ClassMemberReader
+ * @description
+ * @date 2026/10/18 21:10
+ **/
+public class ClassMemberReader {
+    private static final int MAGIC = 0xCAFEBABE;
+    private static final int ACC_PUBLIC = 0x0001;
+    private static final int ACC_BRIDGE = 0x0040;
+    private static final int ACC_SYNTHETIC = 0x1000;
+    private static final int ACC_MODULE = 0x8000;
+    private static final int CONSTANT_UTF8 = 1;
+    private static final int CONSTANT_LONG = 5;
+    private static final int CONSTANT_DOUBLE = 6;
+    private static final int CONSTANT_CLASS = 7;
+    private static final ThreadLocal<int[]> CONSTANT_OFFSETS = ThreadLocal.withInitial(() -> new int[1024]);
+
+    /**
+     * 读取public类的public成员
+     * @param bytes            class文件内容
+     * @param length           内容长度
+     * @param members          成员名称，方法和字段，构造方法为简单类名
+     * @param methodSignatures 方法签名
+     * @return 不是public类时返回false，不输出成员
+     * @throws IOException class文件无效
+     */
+    public static boolean read(byte[] bytes, int length, Collection<String> members,
+                               Collection<String> methodSignatures) throws IOException {
+        Reader reader = new Reader(bytes, length);
+        if (reader.u4() != MAGIC) {
+            throw new IOException("不是class文件");
+        }
+        // 版本号
+        reader.skip(4);
+        int constantCount = reader.u2();
+        int[] offsets = constantOffsets(constantCount);
+        reader.constantCount = constantCount;
+        for (int i = 1; i < constantCount; i++) {
+            offsets[i] = reader.position;
+            int tag = reader.u1();
+            reader.skip(constantLength(tag, reader));
+            if ((tag == CONSTANT_LONG || tag == CONSTANT_DOUBLE) && i + 1 < constantCount) {
+                // 占两个常量池位置，第二个位置不可用
+                offsets[++i] = 0;
+            }
+        }
+        int access = reader.u2();
+        int thisClass = reader.u2();
+        if ((access & ACC_PUBLIC) == 0 || (access & ACC_MODULE) != 0) {
+            return false;
+        }
+        String internalName = reader.utf8(offsets, reader.classNameIndex(offsets, thisClass));
+        // 构造方法用不带外部类的类名
+        String constructorName = internalName.substring(Math.max(internalName.lastIndexOf('/'), internalName.lastIndexOf('$')) + 1);
+        // 父类和接口
+        reader.skip(2);
+        reader.skip(reader.u2() * 2);
+
+        int fieldCount = reader.u2();
+        for (int i = 0; i < fieldCount; i++) {
+            int fieldAccess = reader.u2();
+            int name = reader.u2();
+            reader.skip(2);
+            reader.skipAttributes();
+            if ((fieldAccess & ACC_PUBLIC) != 0 && (fieldAccess & ACC_SYNTHETIC) == 0) {
+                members.add(reader.utf8(offsets, name));
+            }
+        }
+        int methodCount = reader.u2();
+        for (int i = 0; i < methodCount; i++) {
+            int methodAccess = reader.u2();
+            int name = reader.u2();
+            int descriptor = reader.u2();
+            reader.skipAttributes();
+            if ((methodAccess & ACC_PUBLIC) == 0 || (methodAccess & (ACC_SYNTHETIC | ACC_BRIDGE)) != 0) {
+                continue;
+            }
+            String methodName = reader.utf8(offsets, name);
+            if ("<clinit>".equals(methodName)) {
+                continue;
+            }
+            if ("<init>".equals(methodName)) {
+                methodName = constructorName;
+            }
+            members.add(methodName);
+            methodSignatures.add(signature(methodName, reader.utf8(offsets, descriptor)));
+        }
+        return true;
+    }
+
+    /**
+     * (Ljava/lang/String;[BI)V -> name(String,byte[],int)
+     */
+    static String signature(String name, String descriptor) throws IOException {
+        StringBuilder signature = new StringBuilder(name.length() + descriptor.length()).append(name).append('(');
+        int i = 1;
+        boolean first = true;
+        while (i < descriptor.length() && descriptor.charAt(i) != ')') {
+            int dimensions = 0;
+            while (descriptor.charAt(i) == '[') {
+                dimensions++;
+                i++;
+            }
+            if (!first) {
+                signature.append(',');
+            }
+            first = false;
+            char type = descriptor.charAt(i);
+            if (type == 'L') {
+                int end = descriptor.indexOf(';', i);
+                if (end < 0) {
+                    throw new IOException("方法描述符无效: " + descriptor);
+                }
+                signature.append(simpleName(descriptor.substring(i + 1, end)));
+                i = end + 1;
+            } else {
+                signature.append(primitive(type, descriptor));
+                i++;
+            }
+            for (int d = 0; d < dimensions; d++) {
+                signature.append("[]");
+            }
+        }
+        return signature.append(')').toString();
+    }
+
+    /**
+     * com/fasterxml/jackson/core/JsonParser$Feature -> JsonParser.Feature
+     */
+    private static String simpleName(String internalName) {
+        return internalName.substring(internalName.lastIndexOf('/') + 1).replace('$', '.');
+    }
+
+    private static String primitive(char type, String descriptor) throws IOException {
+        switch (type) {
+            case 'B':
+                return "byte";
+            case 'C':
+                return "char";
+            case 'D':
+                return "double";
+            case 'F':
+                return "float";
+            case 'I':
+                return "int";
+            case 'J':
+                return "long";
+            case 'S':
+                return "short";
+            case 'Z':
+                return "boolean";
+            default:
+                throw new IOException("方法描述符无效: " + descriptor);
+        }
+    }
+
+    private static int constantLength(int tag, Reader reader) throws IOException {
+        switch (tag) {
+            case CONSTANT_UTF8:
+                return 2 + reader.peekU2();
+            case CONSTANT_CLASS:
+            case 8:
+            case 16:
+            case 19:
+            case 20:
+                return 2;
+            case 15:
+                return 3;
+            case 3:
+            case 4:
+            case 9:
+            case 10:
+            case 11:
+            case 12:
+            case 17:
+            case 18:
+                return 4;
+            case CONSTANT_LONG:
+            case CONSTANT_DOUBLE:
+                return 8;
+            default:
+                throw new IOException("常量池类型无效: " + tag);
+        }
+    }
+
+    private static int[] constantOffsets(int constantCount) {
+        int[] offsets = CONSTANT_OFFSETS.get();
+        if (offsets.length < constantCount) {
+            offsets = new int[Math.max(constantCount, offsets.length * 2)];
+            CONSTANT_OFFSETS.set(offsets);
+        }
+        return offsets;
+    }
+
+    /**
+     * 大端序读取，越界时抛出IOException
+     */
+    private static class Reader {
+        private final byte[] bytes;
+        private final int length;
+        private int position;
+        private int constantCount;
+
+        Reader(byte[] bytes, int length) {
+            this.bytes = bytes;
+            this.length = length;
+        }
+
+        int u1() throws IOException {
+            check(position + 1);
+            return bytes[position++] & 0xFF;
+        }
+
+        int u2() throws IOException {
+            int value = peekU2();
+            position += 2;
+            return value;
+        }
+
+        int peekU2() throws IOException {
+            check(position + 2);
+            return (bytes[position] & 0xFF) << 8 | bytes[position + 1] & 0xFF;
+        }
+
+        int u4() throws IOException {
+            return u2() << 16 | u2();
+        }
+
+        void skip(int count) throws IOException {
+            check(position + count);
+            position += count;
+        }
+
+        void skipAttributes() throws IOException {
+            int count = u2();
+            for (int i = 0; i < count; i++) {
+                skip(2);
+                long attributeLength = u4() & 0xFFFFFFFFL;
+                if (attributeLength > length - position) {
+                    throw new IOException("class文件不完整");
+                }
+                skip((int) attributeLength);
+            }
+        }
+
+        int classNameIndex(int[] offsets, int index) throws IOException {
+            int offset = constant(offsets, index);
+            if ((bytes[offset] & 0xFF) != CONSTANT_CLASS) {
+                throw new IOException("常量池第" + index + "项不是类");
+            }
+            check(offset + 3);
+            return (bytes[offset + 1] & 0xFF) << 8 | bytes[offset + 2] & 0xFF;
+        }
+
+        /**
+         * 解码常量池中的modified UTF-8字符串，ASCII直接按字节转换
+         */
+        String utf8(int[] offsets, int index) throws IOException {
+            int offset = constant(offsets, index);
+            if ((bytes[offset] & 0xFF) != CONSTANT_UTF8) {
+                throw new IOException("常量池第" + index + "项不是字符串");
+            }
+            int start = offset + 3;
+            int end = start + ((bytes[offset + 1] & 0xFF) << 8 | bytes[offset + 2] & 0xFF);
+            char[] chars = new char[end - start];
+            int count = 0;
+            int i = start;
+            while (i < end) {
+                int b = bytes[i] & 0xFF;
+                if (b < 0x80) {
+                    chars[count++] = (char) b;
+                    i++;
+                } else if ((b & 0xE0) == 0xC0 && i + 1 < end) {
+                    chars[count++] = (char) ((b & 0x1F) << 6 | bytes[i + 1] & 0x3F);
+                    i += 2;
+                } else if ((b & 0xF0) == 0xE0 && i + 2 < end) {
+                    chars[count++] = (char) ((b & 0x0F) << 12 | (bytes[i + 1] & 0x3F) << 6 | bytes[i + 2] & 0x3F);
+                    i += 3;
+                } else {
+                    throw new IOException("常量池第" + index + "项编码无效");
+                }
+            }
+            return new String(chars, 0, count);
+        }
+
+        private int constant(int[] offsets, int index) throws IOException {
+            if (index <= 0 || index >= constantCount || offsets[index] <= 0 || offsets[index] >= length) {
+                throw new IOException("常量池索引无效: " + index);
+            }
+            return offsets[index];
+        }
+
+        private void check(int end) throws IOException {
+            if (end > length || end < 0) {
+                throw new IOException("class文件不完整");
+            }
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.tc.lucene.util;
+
+import com.tc.lucene.config.LuceneDemoConfig;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.apache.lucene.store.FileSwitchDirectory;
+import org.apache.lucene.store.FilterDirectory;
+import org.apache.lucene.store.MMapDirectory;
+import org.apache.lucene.store.NIOFSDirectory;
+import org.apache.lucene.store.NRTCachingDirectory;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 按 {@link LuceneDemoConfig.Storage} 打开索引目录
+ * <p>
+ * MMAP按扩展名预加载时，同一个路径上打开两个MMapDirectory，预加载的扩展名交给开启预加载的那个，其余的不预加载；
+ * MEMORY的目录不落盘，同一路径在进程内共享一个实例，调用方关闭时不释放内容，索引端写入后搜索端能读到；
+ * NRT_CACHING同样按路径共享一个实例，索引端和搜索端用的是同一份小段缓存，否则每次打开都是空缓存。
+ *
+ * @author AnthubTC
+ * @version 1.0
+ * @className DirectoryUtil
+ * @description
+ * @date 2026/10/18 19:55
+ **/
+public class DirectoryUtil {
+    private static final Map<Path, ByteBuffersDirectory> MEMORY_DIRECTORIES = new ConcurrentHashMap<>();
+    private static final Map<Path, NRTCachingDirectory> NRT_CACHING_DIRECTORIES = new ConcurrentHashMap<>();
+
+    /**
+     * 打开索引目录 getDemoIndexDbPath(indexName)，调用方负责关闭
+     */
+    public static Directory open(LuceneDemoConfig luceneDemoConfig, String indexName) throws IOException {
+        return open(luceneDemoConfig.getStorage(), new File(luceneDemoConfig.getDemoIndexDbPath(indexName)).toPath());
+    }
+
+    public static Directory open(LuceneDemoConfig.Storage storage, Path path) throws IOException {
+        switch (storage.getType()) {
+            case MMAP:
+                return mmap(storage, path);
+            case NIO:
+                return new NIOFSDirectory(path);
+            case MEMORY:
+                ByteBuffersDirectory directory = MEMORY_DIRECTORIES.computeIfAbsent(path.toAbsolutePath().normalize(),
+                        key -> new ByteBuffersDirectory());
+                return new UnclosableDirectory(directory);
+            case NRT_CACHING:
+                return new UnclosableDirectory(nrtCaching(storage, path.toAbsolutePath().normalize()));
+            case FS:
+            default:
+                return FSDirectory.open(path);
+        }
+    }
+
+    private static NRTCachingDirectory nrtCaching(LuceneDemoConfig.Storage storage, Path path) throws IOException {
+        NRTCachingDirectory directory = NRT_CACHING_DIRECTORIES.get(path);
+        if (directory != null) {
+            return directory;
+        }
+        NRTCachingDirectory created = new NRTCachingDirectory(mmap(storage, path), storage.getNrtMaxMergeSizeMb(), storage.getNrtMaxCachedMb());
+        directory = NRT_CACHING_DIRECTORIES.putIfAbsent(path, created);
+        if (directory == null) {
+            return created;
+        }
+        created.close();
+        return directory;
+    }
+
+    private static Directory mmap(LuceneDemoConfig.Storage storage, Path path) throws IOException {
+        if (storage.getPreloadExtensions().isEmpty()) {
+            return new MMapDirectory(path);
+        }
+        MMapDirectory preloaded = new MMapDirectory(path);
+        preloaded.setPreload(true);
+        return new FileSwitchDirectory(storage.getPreloadExtensions(), preloaded, new MMapDirectory(path), true) {
+            /**
+             * 两个目录是同一个路径，只列一次
+             */
+            @Override
+            public String[] listAll() throws IOException {
+                String[] files = getPrimaryDir().listAll();
+                Arrays.sort(files);
+                return files;
+            }
+        };
+    }
+
+    /**
+     * 进程内共享的目录，关闭时只关闭这个包装
+     */
+    private static class UnclosableDirectory extends FilterDirectory {
+        UnclosableDirectory(Directory in) {
+            super(in);
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,251 @@
+package com.tc.lucene.util;
+
+import com.tc.lucene.dto.IndexSizeReport;
+import org.apache.lucene.codecs.lucene87.Lucene87StoredFieldsFormat;
+import org.apache.lucene.codecs.perfield.PerFieldPostingsFormat;
+import org.apache.lucene.index.BinaryDocValues;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.DocValuesType;
+import org.apache.lucene.index.FieldInfo;
+import org.apache.lucene.index.IndexFileNames;
+import org.apache.lucene.index.IndexOptions;
+import org.apache.lucene.index.LeafReader;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.NumericDocValues;
+import org.apache.lucene.index.SegmentCommitInfo;
+import org.apache.lucene.index.SegmentInfos;
+import org.apache.lucene.index.SortedDocValues;
+import org.apache.lucene.index.SortedNumericDocValues;
+import org.apache.lucene.index.SortedSetDocValues;
+import org.apache.lucene.index.StoredFieldVisitor;
+import org.apache.lucene.index.Terms;
+import org.apache.lucene.index.TermsEnum;
+import org.apache.lucene.search.DocIdSetIterator;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.IOContext;
+import org.apache.lucene.util.BytesRef;
+
+import java.io.IOException;
+import java.nio.file.NoSuchFileException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * 统计索引的大小，见 {@link IndexSizeReport}
+ * <p>
+ * 字段部分需要遍历所有的词和文档，耗时与索引大小成正比，只在需要时调用；多个分片的结果合并成一份报告。
+ *
+ * @author AnthubTC
+ * @version 1.0
+ * @className IndexSizeUtil
+ * @description
+ * @date 2026/10/18 23:00
+ **/
+public class IndexSizeUtil {
+    private static final String SEGMENTS = "segments";
+    private static final Set<String> COMPOUND_EXTENSIONS = new HashSet<>(Arrays.asList("cfs", "cfe"));
+
+    /**
+     * @param readers 各分片的reader，文件列表取reader所在的提交点，统计期间有新的提交也不会混入别的提交的文件
+     * @throws NoSuchFileException 统计期间该提交点已被新的提交删除
+     */
+    public static IndexSizeReport report(List<DirectoryReader> readers) throws IOException {
+        IndexSizeReport report = new IndexSizeReport();
+        Map<String, Long> fileTypes = new HashMap<>();
+        Map<String, IndexSizeReport.FieldSize> fields = new TreeMap<>();
+        for (DirectoryReader reader : readers) {
+            Directory directory = reader.directory();
+            SegmentInfos segmentInfos = segmentInfos(reader);
+            fileTypes.merge(SEGMENTS, directory.fileLength(segmentInfos.getSegmentsFileName()), Long::sum);
+            for (SegmentCommitInfo segment : segmentInfos) {
+                addFiles(directory, segment, fileTypes);
+                String mode = segment.info.getAttribute(Lucene87StoredFieldsFormat.MODE_KEY);
+                if (mode != null) {
+                    report.getStoredFieldsModes().add(mode);
+                }
+            }
+            report.setSegments(report.getSegments() + segmentInfos.size());
+            report.setMaxDoc(report.getMaxDoc() + reader.maxDoc());
+            report.setNumDocs(report.getNumDocs() + reader.numDocs());
+            for (LeafReaderContext leaf : reader.leaves()) {
+                addFields(leaf.reader(), fields);
+            }
+        }
+        fileTypes.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                .forEach(entry -> report.getFileTypes().put(entry.getKey(), entry.getValue()));
+        List<IndexSizeReport.FieldSize> sorted = new ArrayList<>(fields.values());
+        sorted.sort(Comparator.comparingLong(IndexSizeReport.FieldSize::getRawBytes).reversed());
+        report.setFields(sorted);
+        return report;
+    }
+
+    /**
+     * reader所在提交点的段信息
+     */
+    public static SegmentInfos segmentInfos(DirectoryReader reader) throws IOException {
+        return SegmentInfos.readCommit(reader.directory(), reader.getIndexCommit().getSegmentsFileName());
+    }
+
+    /**
+     * 复合文件打开后按内部文件统计，.si、.liv 等在复合文件之外的文件直接统计
+     */
+    private static void addFiles(Directory directory, SegmentCommitInfo segment, Map<String, Long> fileTypes) throws IOException {
+        for (String file : segment.files()) {
+            String extension = IndexFileNames.getExtension(file);
+            if (COMPOUND_EXTENSIONS.contains(extension)) {
+                continue;
+            }
+            fileTypes.merge(extension, directory.fileLength(file), Long::sum);
+        }
+        if (segment.info.getUseCompoundFile()) {
+            try (Directory compound = segment.info.getCodec().compoundFormat()
+                    .getCompoundReader(directory, segment.info, IOContext.READONCE)) {
+                for (String file : compound.listAll()) {
+                    fileTypes.merge(IndexFileNames.getExtension(file), compound.fileLength(file), Long::sum);
+                }
+            }
+        }
+    }
+
+    private static void addFields(LeafReader reader, Map<String, IndexSizeReport.FieldSize> fields) throws IOException {
+        for (FieldInfo fieldInfo : reader.getFieldInfos()) {
+            IndexSizeReport.FieldSize field = fields.computeIfAbsent(fieldInfo.name, IndexSizeReport.FieldSize::new);
+            field.setIndexOptions(fieldInfo.getIndexOptions().name());
+            field.setDocValuesType(fieldInfo.getDocValuesType().name());
+            field.setNorms(field.isNorms() || fieldInfo.hasNorms());
+            String postingsFormat = fieldInfo.getAttribute(PerFieldPostingsFormat.PER_FIELD_FORMAT_KEY);
+            if (postingsFormat != null) {
+                field.setPostingsFormat(postingsFormat);
+            }
+            if (fieldInfo.getIndexOptions() != IndexOptions.NONE) {
+                addTerms(reader.terms(fieldInfo.name), fieldInfo.getIndexOptions(), field);
+            }
+            if (fieldInfo.getDocValuesType() != DocValuesType.NONE) {
+                field.setDocValuesBytes(field.getDocValuesBytes() + docValuesBytes(reader, fieldInfo));
+            }
+        }
+        StoredBytesVisitor visitor = new StoredBytesVisitor();
+        // 已删除的文档也占空间，一起统计
+        for (int doc = 0; doc < reader.maxDoc(); doc++) {
+            reader.document(doc, visitor);
+        }
+        for (Map.Entry<String, Long> entry : visitor.bytes.entrySet()) {
+            IndexSizeReport.FieldSize field = fields.get(entry.getKey());
+            field.setStoredBytes(field.getStoredBytes() + entry.getValue());
+        }
+    }
+
+    private static void addTerms(Terms terms, IndexOptions indexOptions, IndexSizeReport.FieldSize field) throws IOException {
+        if (terms == null) {
+            return;
+        }
+        long count = 0;
+        long bytes = 0;
+        TermsEnum termsEnum = terms.iterator();
+        for (BytesRef term = termsEnum.next(); term != null; term = termsEnum.next()) {
+            count++;
+            bytes += term.length;
+        }
+        field.setTerms(field.getTerms() + count);
+        field.setTermBytes(field.getTermBytes() + bytes);
+        field.setPostings(field.getPostings() + terms.getSumDocFreq());
+        if (indexOptions.compareTo(IndexOptions.DOCS_AND_FREQS_AND_POSITIONS) >= 0) {
+            field.setPositions(field.getPositions() + terms.getSumTotalTermFreq());
+        }
+    }
+
+    private static long docValuesBytes(LeafReader reader, FieldInfo fieldInfo) throws IOException {
+        String name = fieldInfo.name;
+        long bytes = 0;
+        switch (fieldInfo.getDocValuesType()) {
+            case NUMERIC:
+                NumericDocValues numeric = reader.getNumericDocValues(name);
+                return count(numeric) * Long.BYTES;
+            case SORTED_NUMERIC:
+                SortedNumericDocValues sortedNumeric = reader.getSortedNumericDocValues(name);
+                while (sortedNumeric.nextDoc() != DocIdSetIterator.NO_MORE_DOCS) {
+                    bytes += (long) sortedNumeric.docValueCount() * Long.BYTES;
+                }
+                return bytes;
+            case BINARY:
+                BinaryDocValues binary = reader.getBinaryDocValues(name);
+                while (binary.nextDoc() != DocIdSetIterator.NO_MORE_DOCS) {
+                    bytes += binary.binaryValue().length;
+                }
+                return bytes;
+            case SORTED:
+                SortedDocValues sorted = reader.getSortedDocValues(name);
+                for (int ord = 0; ord < sorted.getValueCount(); ord++) {
+                    bytes += sorted.lookupOrd(ord).length;
+                }
+                return bytes;
+            case SORTED_SET:
+                SortedSetDocValues sortedSet = reader.getSortedSetDocValues(name);
+                for (long ord = 0; ord < sortedSet.getValueCount(); ord++) {
+                    bytes += sortedSet.lookupOrd(ord).length;
+                }
+                return bytes;
+            default:
+                return 0;
+        }
+    }
+
+    private static long count(DocIdSetIterator iterator) throws IOException {
+        long count = 0;
+        while (iterator.nextDoc() != DocIdSetIterator.NO_MORE_DOCS) {
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * 按字段累加存储字段的字节数，字符串按UTF-8计算
+     */
+    private static class StoredBytesVisitor extends StoredFieldVisitor {
+        private final Map<String, Long> bytes = new LinkedHashMap<>();
+
+        @Override
+        public Status needsField(FieldInfo fieldInfo) {
+            return Status.YES;
+        }
+
+        @Override
+        public void binaryField(FieldInfo fieldInfo, byte[] value) {
+            bytes.merge(fieldInfo.name, (long) value.length, Long::sum);
+        }
+
+        @Override
+        public void stringField(FieldInfo fieldInfo, byte[] value) {
+            bytes.merge(fieldInfo.name, (long) value.length, Long::sum);
+        }
+
+        @Override
+        public void intField(FieldInfo fieldInfo, int value) {
+            bytes.merge(fieldInfo.name, (long) Integer.BYTES, Long::sum);
+        }
+
+        @Override
+        public void longField(FieldInfo fieldInfo, long value) {
+            bytes.merge(fieldInfo.name, (long) Long.BYTES, Long::sum);
+        }
+
+        @Override
+        public void floatField(FieldInfo fieldInfo, float value) {
+            bytes.merge(fieldInfo.name, (long) Float.BYTES, Long::sum);
+        }
+
+        @Override
+        public void doubleField(FieldInfo fieldInfo, double value) {
+            bytes.merge(fieldInfo.name, (long) Double.BYTES, Long::sum);
+        }
+    }
+}
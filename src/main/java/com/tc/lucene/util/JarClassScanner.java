@@ -0,0 +1,523 @@
+package com.tc.lucene.util;
+
+import com.tc.lucene.config.LuceneDemoConfig;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import java.util.zip.ZipException;
+
+/**
+ * 只读zip中央目录的jar扫描器
+ * <p>
+ * JarFile为每个entry创建JarEntry对象，再对名称做正则替换，千万级class时这些临时对象是建索引的主要开销。
+ * 这里用FileChannel按位置读取文件末尾的目录结束记录(EOCD，必要时ZIP64记录)，再把整个中央目录一次读入线程复用的缓冲区，
+ * 直接在字节上过滤 .class，按字节把 '/' 换成 '.'，每个class只创建最终的类名字符串。
+ * 文件头前有其它内容(可执行jar前面拼接了启动脚本)时按中央目录的实际位置修正。
+ * <p>
+ * {@link #scanContent} 额外按中央目录中的偏移逐个读取class的内容，用线程复用的Inflater解压到线程复用的缓冲区，
+ * 同一时刻每个线程只持有一个class，超过 maxClassFileBytes 的class只输出类名。
+ * <p>
+ * 无效的zip抛出 {@link ZipException}，由调用方按jar记录失败。
+ *
+ * @author AnthubTC
+ * @version 1.0
+ * @className JarClassScanner
+ * @description
+ * @date 2026/10/18 20:20
+ **/
+public class JarClassScanner {
+    private static final int EOCD_SIG = 0x06054b50;
+    private static final int EOCD_SIZE = 22;
+    private static final int ZIP64_LOCATOR_SIG = 0x07064b50;
+    private static final int ZIP64_LOCATOR_SIZE = 20;
+    private static final int ZIP64_EOCD_SIG = 0x06064b50;
+    private static final int ZIP64_EOCD_SIZE = 56;
+    private static final int CEN_SIG = 0x02014b50;
+    private static final int CEN_SIZE = 46;
+    private static final int LOC_SIG = 0x04034b50;
+    private static final int LOC_SIZE = 30;
+    private static final int ZIP64_EXTRA_ID = 0x0001;
+    private static final int STORED = 0;
+    private static final int DEFLATED = 8;
+    private static final long ZIP64_MAGIC = 0xFFFFFFFFL;
+    /**
+     * 默认只读取1MB以内的class
+     */
+    public static final int DEFAULT_MAX_CLASS_FILE_BYTES = 1024 * 1024;
+    private static final int MAX_COMMENT = 0xFFFF;
+    private static final int SHORT_COMMENT = 1024;
+    /**
+     * 线程复用的缓冲区超过这个大小后不再保留
+     */
+    private static final int MAX_CACHED_BUFFER = 4 * 1024 * 1024;
+    private static final byte[] CLASS_SUFFIX = ".class".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] VERSIONS_PREFIX = "META-INF/versions/".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] MODULE_INFO = "module-info.class".getBytes(StandardCharsets.US_ASCII);
+    private static final ThreadLocal<Buffers> BUFFERS = ThreadLocal.withInitial(Buffers::new);
+
+    private final boolean skipInnerClasses;
+    private final boolean skipModuleInfo;
+    private final boolean skipVersionedClasses;
+    private final int maxClassFileBytes;
+
+    /**
+     * class内容回调，classFile是线程复用的缓冲区，只在回调内有效
+     */
+    public interface ClassEntryConsumer {
+        /**
+         * @param className 类名
+         * @param classFile class内容，超过 maxClassFileBytes 时为null
+         * @param length    内容长度
+         */
+        void accept(String className, byte[] classFile, int length) throws IOException;
+    }
+
+    public JarClassScanner(boolean skipInnerClasses, boolean skipModuleInfo, boolean skipVersionedClasses) {
+        this(skipInnerClasses, skipModuleInfo, skipVersionedClasses, DEFAULT_MAX_CLASS_FILE_BYTES);
+    }
+
+    /**
+     * @param skipInnerClasses     跳过内部类、匿名类和编译器生成的类(类名含 '$')
+     * @param skipModuleInfo       跳过 module-info
+     * @param skipVersionedClasses 跳过多版本jar中 META-INF/versions/ 下与根目录重复的class(多个版本目录中的同名class只保留一个)，只在版本目录中的class按去掉版本目录的类名索引
+     * @param maxClassFileBytes    {@link #scanContent} 读取的class大小上限
+     */
+    public JarClassScanner(boolean skipInnerClasses, boolean skipModuleInfo, boolean skipVersionedClasses,
+                           int maxClassFileBytes) {
+        this.skipInnerClasses = skipInnerClasses;
+        this.skipModuleInfo = skipModuleInfo;
+        this.skipVersionedClasses = skipVersionedClasses;
+        this.maxClassFileBytes = maxClassFileBytes;
+    }
+
+    public static JarClassScanner of(LuceneDemoConfig.MavenIndex mavenIndex) {
+        return new JarClassScanner(mavenIndex.isSkipInnerClasses(), mavenIndex.isSkipModuleInfo(),
+                mavenIndex.isSkipVersionedClasses(), mavenIndex.getMaxClassFileBytes());
+    }
+
+    /**
+     * 扫描jar中的class
+     * @param jar           jar文件
+     * @param classConsumer 类名回调，例如 org.demo.Foo
+     * @return class数
+     */
+    public int scan(Path jar, Consumer<String> classConsumer) throws IOException {
+        return scan(jar, (className, classFile, length) -> classConsumer.accept(className), false);
+    }
+
+    /**
+     * 扫描jar中的class并读取内容
+     * @param jar           jar文件
+     * @param classConsumer 类名和class内容回调
+     * @return class数
+     */
+    public int scanContent(Path jar, ClassEntryConsumer classConsumer) throws IOException {
+        return scan(jar, classConsumer, true);
+    }
+
+    private int scan(Path jar, ClassEntryConsumer classConsumer, boolean readContent) throws IOException {
+        Buffers buffers = BUFFERS.get();
+        try (FileChannel channel = FileChannel.open(jar, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < EOCD_SIZE) {
+                throw new ZipException("不是有效的zip文件: " + jar);
+            }
+            // 目录结束记录在文件末尾，后面最多跟65535字节的注释；jar一般没有注释，先只读末尾一小段
+            int tailLength = (int) Math.min(size, EOCD_SIZE + SHORT_COMMENT);
+            long tailStart = size - tailLength;
+            ByteBuffer tail = read(channel, tailStart, tailLength, buffers.tail(tailLength));
+            int eocd = findEocd(tail);
+            if (eocd < 0 && tailLength < size) {
+                tailLength = (int) Math.min(size, EOCD_SIZE + MAX_COMMENT);
+                tailStart = size - tailLength;
+                tail = read(channel, tailStart, tailLength, buffers.tail(tailLength));
+                eocd = findEocd(tail);
+            }
+            if (eocd < 0) {
+                throw new ZipException("没有找到zip目录结束记录: " + jar);
+            }
+            long eocdPosition = tailStart + eocd;
+            long entries = tail.getShort(eocd + 10) & 0xFFFF;
+            long cenSize = tail.getInt(eocd + 12) & 0xFFFFFFFFL;
+            long cenOffset = tail.getInt(eocd + 16) & 0xFFFFFFFFL;
+            long cenEnd = eocdPosition;
+            if (entries == 0xFFFF || cenSize == 0xFFFFFFFFL || cenOffset == 0xFFFFFFFFL) {
+                // ZIP64：定位记录紧挨在目录结束记录前面，指向ZIP64目录结束记录
+                if (eocdPosition < ZIP64_LOCATOR_SIZE) {
+                    throw new ZipException("没有找到ZIP64定位记录: " + jar);
+                }
+                ByteBuffer locator = read(channel, eocdPosition - ZIP64_LOCATOR_SIZE, ZIP64_LOCATOR_SIZE, buffers.small());
+                if (locator.getInt(0) != ZIP64_LOCATOR_SIG) {
+                    throw new ZipException("没有找到ZIP64定位记录: " + jar);
+                }
+                long recordedPosition = locator.getLong(8);
+                // 文件前面有其它内容时记录的偏移不准，先按位置找紧挨在定位记录前面的ZIP64目录结束记录
+                long zip64Position = eocdPosition - ZIP64_LOCATOR_SIZE - ZIP64_EOCD_SIZE;
+                ByteBuffer zip64 = zip64Position < 0 ? null : read(channel, zip64Position, ZIP64_EOCD_SIZE, buffers.small());
+                if (zip64 == null || zip64.getInt(0) != ZIP64_EOCD_SIG) {
+                    zip64Position = recordedPosition;
+                    if (zip64Position < 0 || zip64Position > size - ZIP64_EOCD_SIZE) {
+                        throw new ZipException("ZIP64目录结束记录无效: " + jar);
+                    }
+                    zip64 = read(channel, zip64Position, ZIP64_EOCD_SIZE, buffers.small());
+                    if (zip64.getInt(0) != ZIP64_EOCD_SIG) {
+                        throw new ZipException("ZIP64目录结束记录无效: " + jar);
+                    }
+                }
+                entries = zip64.getLong(32);
+                cenSize = zip64.getLong(40);
+                cenOffset = zip64.getLong(48);
+                cenEnd = zip64Position;
+            }
+            // 中央目录紧挨在目录结束记录前面，以实际位置为准
+            long cenPosition = cenEnd - cenSize;
+            if (cenPosition < 0 || cenSize > Integer.MAX_VALUE || cenOffset > cenPosition) {
+                throw new ZipException("zip中央目录无效: " + jar);
+            }
+            ByteBuffer cen = read(channel, cenPosition, (int) cenSize, buffers.cen((int) cenSize));
+            // 文件前面拼接的内容长度，各entry记录的本地文件头偏移都要加上它
+            long prefix = cenPosition - cenOffset;
+            return scanCentralDirectory(jar, cen, entries, buffers, classConsumer, readContent ? channel : null, prefix);
+        }
+    }
+
+    private int scanCentralDirectory(Path jar, ByteBuffer cen, long entries, Buffers buffers,
+                                     ClassEntryConsumer classConsumer, FileChannel channel, long prefix) throws IOException {
+        // 多版本jar先收集根目录下的class，版本目录下只保留根目录没有的class，多个版本目录都有时只取中央目录中的第一个
+        Set<String> rootClasses = skipVersionedClasses ? rootClassesIfVersioned(jar, cen, entries, buffers) : null;
+        Set<String> versionedClasses = rootClasses == null ? null : new HashSet<>();
+        int classes = 0;
+        int position = 0;
+        for (long entry = 0; entry < entries; entry++) {
+            int header = position;
+            int name = header + CEN_SIZE;
+            position = nextEntry(jar, cen, header, entry);
+            int nameLength = cen.getShort(header + 28) & 0xFFFF;
+            if (accept(cen, name, nameLength)) {
+                String className;
+                int versioned = skipVersionedClasses ? versionedNameStart(cen, name, nameLength) : -1;
+                if (versioned >= 0) {
+                    if (rootClasses == null) {
+                        continue;
+                    }
+                    className = toClassName(cen, versioned, name + nameLength - CLASS_SUFFIX.length - versioned, buffers);
+                    if (rootClasses.contains(className) || !versionedClasses.add(className)) {
+                        continue;
+                    }
+                } else {
+                    className = toClassName(cen, name, nameLength - CLASS_SUFFIX.length, buffers);
+                }
+                if (channel == null) {
+                    classConsumer.accept(className, null, 0);
+                } else {
+                    readContent(jar, channel, prefix, cen, header, buffers, className, classConsumer);
+                }
+                classes++;
+            }
+        }
+        return classes;
+    }
+
+    /**
+     * 校验中央目录中的一条记录，返回下一条记录的位置
+     */
+    private static int nextEntry(Path jar, ByteBuffer cen, int header, long entry) throws ZipException {
+        if (header + CEN_SIZE > cen.limit() || cen.getInt(header) != CEN_SIG) {
+            throw new ZipException("zip中央目录无效: " + jar + ", 第" + entry + "个entry");
+        }
+        int position = header + CEN_SIZE + (cen.getShort(header + 28) & 0xFFFF)
+                + (cen.getShort(header + 30) & 0xFFFF) + (cen.getShort(header + 32) & 0xFFFF);
+        if (position > cen.limit()) {
+            throw new ZipException("zip中央目录无效: " + jar + ", 第" + entry + "个entry");
+        }
+        return position;
+    }
+
+    /**
+     * 根目录下的类名；jar中没有 META-INF/versions/ 下的class时返回null，普通jar不需要收集
+     */
+    private Set<String> rootClassesIfVersioned(Path jar, ByteBuffer cen, long entries, Buffers buffers) throws ZipException {
+        Set<String> rootClasses = new HashSet<>();
+        boolean versioned = false;
+        int position = 0;
+        for (long entry = 0; entry < entries; entry++) {
+            int header = position;
+            int name = header + CEN_SIZE;
+            position = nextEntry(jar, cen, header, entry);
+            int nameLength = cen.getShort(header + 28) & 0xFFFF;
+            if (!accept(cen, name, nameLength)) {
+                continue;
+            }
+            if (versionedNameStart(cen, name, nameLength) >= 0) {
+                versioned = true;
+            } else {
+                rootClasses.add(toClassName(cen, name, nameLength - CLASS_SUFFIX.length, buffers));
+            }
+        }
+        return versioned ? rootClasses : null;
+    }
+
+    /**
+     * META-INF/versions/{n}/ 之后的类路径起始位置，不在版本目录下时返回-1
+     */
+    private static int versionedNameStart(ByteBuffer cen, int name, int nameLength) {
+        if (nameLength <= VERSIONS_PREFIX.length || !regionMatches(cen, name, VERSIONS_PREFIX)) {
+            return -1;
+        }
+        int end = name + nameLength - CLASS_SUFFIX.length;
+        for (int i = name + VERSIONS_PREFIX.length; i < end; i++) {
+            byte b = cen.get(i);
+            if (b == '/') {
+                return i > name + VERSIONS_PREFIX.length ? i + 1 : -1;
+            }
+            if (b < '0' || b > '9') {
+                return -1;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 按中央目录记录的偏移读取本地文件头，再读取并解压内容
+     */
+    private void readContent(Path jar, FileChannel channel, long prefix, ByteBuffer cen, int header, Buffers buffers,
+                             String className, ClassEntryConsumer classConsumer) throws IOException {
+        int method = cen.getShort(header + 10) & 0xFFFF;
+        long compressedSize = cen.getInt(header + 20) & 0xFFFFFFFFL;
+        long size = cen.getInt(header + 24) & 0xFFFFFFFFL;
+        long localOffset = cen.getInt(header + 42) & 0xFFFFFFFFL;
+        if (compressedSize == ZIP64_MAGIC || size == ZIP64_MAGIC || localOffset == ZIP64_MAGIC) {
+            // ZIP64扩展字段按 原始大小、压缩后大小、偏移 的顺序只记录被置为0xFFFFFFFF的值
+            int nameLength = cen.getShort(header + 28) & 0xFFFF;
+            int extra = header + CEN_SIZE + nameLength;
+            int extraEnd = extra + (cen.getShort(header + 30) & 0xFFFF);
+            while (extra + 4 <= extraEnd) {
+                int id = cen.getShort(extra) & 0xFFFF;
+                int dataSize = cen.getShort(extra + 2) & 0xFFFF;
+                if (id == ZIP64_EXTRA_ID) {
+                    int field = extra + 4;
+                    int fieldEnd = Math.min(field + dataSize, extraEnd);
+                    if (size == ZIP64_MAGIC && field + 8 <= fieldEnd) {
+                        size = cen.getLong(field);
+                        field += 8;
+                    }
+                    if (compressedSize == ZIP64_MAGIC && field + 8 <= fieldEnd) {
+                        compressedSize = cen.getLong(field);
+                        field += 8;
+                    }
+                    if (localOffset == ZIP64_MAGIC && field + 8 <= fieldEnd) {
+                        localOffset = cen.getLong(field);
+                    }
+                    break;
+                }
+                extra += 4 + dataSize;
+            }
+        }
+        if (Math.max(size, compressedSize) > maxClassFileBytes) {
+            classConsumer.accept(className, null, 0);
+            return;
+        }
+        if (compressedSize > Integer.MAX_VALUE - 1 || localOffset < 0) {
+            throw new ZipException("zip entry无效: " + jar + ", " + className);
+        }
+        ByteBuffer local = read(channel, prefix + localOffset, LOC_SIZE, buffers.small());
+        if (local.getInt(0) != LOC_SIG) {
+            throw new ZipException("zip本地文件头无效: " + jar + ", " + className);
+        }
+        long dataPosition = prefix + localOffset + LOC_SIZE + (local.getShort(26) & 0xFFFF) + (local.getShort(28) & 0xFFFF);
+        int length = (int) size;
+        byte[] classFile;
+        if (method == STORED) {
+            if (compressedSize != size) {
+                throw new ZipException("zip entry大小不一致: " + jar + ", " + className);
+            }
+            classFile = read(channel, dataPosition, length, buffers.content(length)).array();
+        } else if (method == DEFLATED) {
+            // nowrap模式的Inflater需要在输入末尾多一个字节
+            int compressedLength = (int) compressedSize;
+            ByteBuffer compressed = read(channel, dataPosition, compressedLength, buffers.compressed(compressedLength + 1));
+            compressed.array()[compressedLength] = 0;
+            classFile = buffers.content(length).array();
+            Inflater inflater = buffers.inflater();
+            inflater.reset();
+            inflater.setInput(compressed.array(), 0, compressedLength + 1);
+            try {
+                int inflated = 0;
+                while (inflated < length && !inflater.finished()) {
+                    int count = inflater.inflate(classFile, inflated, length - inflated);
+                    if (count == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                        break;
+                    }
+                    inflated += count;
+                }
+                if (inflated != length) {
+                    throw new ZipException("zip entry解压后大小不一致: " + jar + ", " + className);
+                }
+            } catch (DataFormatException e) {
+                throw new ZipException("zip entry解压失败: " + jar + ", " + className + ", " + e.getMessage());
+            }
+        } else {
+            throw new ZipException("不支持的压缩方式" + method + ": " + jar + ", " + className);
+        }
+        classConsumer.accept(className, classFile, length);
+    }
+
+    private boolean accept(ByteBuffer cen, int name, int nameLength) {
+        if (nameLength <= CLASS_SUFFIX.length || !regionMatches(cen, name + nameLength - CLASS_SUFFIX.length, CLASS_SUFFIX)) {
+            return false;
+        }
+        if (skipModuleInfo && nameLength >= MODULE_INFO.length
+                && regionMatches(cen, name + nameLength - MODULE_INFO.length, MODULE_INFO)
+                && (nameLength == MODULE_INFO.length || cen.get(name + nameLength - MODULE_INFO.length - 1) == '/')) {
+            return false;
+        }
+        if (skipInnerClasses) {
+            for (int i = name; i < name + nameLength; i++) {
+                if (cen.get(i) == '$') {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * ASCII名称直接按字节转换，其它按UTF-8解码
+     */
+    private static String toClassName(ByteBuffer cen, int name, int length, Buffers buffers) {
+        char[] chars = buffers.chars(length);
+        for (int i = 0; i < length; i++) {
+            byte b = cen.get(name + i);
+            if (b < 0) {
+                byte[] bytes = new byte[length];
+                for (int j = 0; j < length; j++) {
+                    bytes[j] = cen.get(name + j);
+                }
+                return new String(bytes, StandardCharsets.UTF_8).replace('/', '.');
+            }
+            chars[i] = b == '/' ? '.' : (char) b;
+        }
+        return new String(chars, 0, length);
+    }
+
+    private static boolean regionMatches(ByteBuffer buffer, int offset, byte[] expected) {
+        for (int i = 0; i < expected.length; i++) {
+            if (buffer.get(offset + i) != expected[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 从后往前找目录结束记录，注释长度要与记录到文件末尾的距离一致
+     */
+    private static int findEocd(ByteBuffer tail) {
+        for (int i = tail.limit() - EOCD_SIZE; i >= 0; i--) {
+            if (tail.getInt(i) == EOCD_SIG && i + EOCD_SIZE + (tail.getShort(i + 20) & 0xFFFF) == tail.limit()) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static ByteBuffer read(FileChannel channel, long position, int length, ByteBuffer buffer) throws IOException {
+        // 转成Buffer调用，避免在java 8上运行时找不到java 9起ByteBuffer覆盖的方法
+        ((Buffer) buffer).clear();
+        ((Buffer) buffer).limit(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new EOFException("zip文件不完整");
+            }
+        }
+        ((Buffer) buffer).flip();
+        return buffer;
+    }
+
+    /**
+     * 每个扫描线程复用的缓冲区
+     */
+    private static class Buffers {
+        private final ByteBuffer small = allocate(ZIP64_EOCD_SIZE);
+        private ByteBuffer tail = allocate(8 * 1024);
+        private ByteBuffer cen = allocate(64 * 1024);
+        private ByteBuffer content;
+        private ByteBuffer compressed;
+        private Inflater inflater;
+        private char[] chars = new char[256];
+
+        ByteBuffer small() {
+            return small;
+        }
+
+        ByteBuffer tail(int length) {
+            if (length <= tail.capacity()) {
+                return tail;
+            }
+            ByteBuffer buffer = allocate(length);
+            tail = buffer;
+            return buffer;
+        }
+
+        ByteBuffer cen(int length) {
+            if (length <= cen.capacity()) {
+                return cen;
+            }
+            ByteBuffer buffer = allocate(length);
+            if (length <= MAX_CACHED_BUFFER) {
+                cen = buffer;
+            }
+            return buffer;
+        }
+
+        ByteBuffer content(int length) {
+            content = reuse(content, length);
+            return content;
+        }
+
+        ByteBuffer compressed(int length) {
+            compressed = reuse(compressed, length);
+            return compressed;
+        }
+
+        /**
+         * 线程结束前一直复用，不调用end
+         */
+        Inflater inflater() {
+            if (inflater == null) {
+                inflater = new Inflater(true);
+            }
+            return inflater;
+        }
+
+        private static ByteBuffer reuse(ByteBuffer buffer, int length) {
+            if (buffer != null && length <= buffer.capacity()) {
+                return buffer;
+            }
+            return allocate(Math.max(length, 16 * 1024));
+        }
+
+        char[] chars(int length) {
+            if (length > chars.length) {
+                chars = new char[Math.max(length, chars.length * 2)];
+            }
+            return chars;
+        }
+
+        private static ByteBuffer allocate(int capacity) {
+            return ByteBuffer.allocate(capacity).order(ByteOrder.LITTLE_ENDIAN);
+        }
+    }
+}
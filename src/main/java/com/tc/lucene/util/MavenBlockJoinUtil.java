@@ -0,0 +1,90 @@
+package com.tc.lucene.util;
+
+import com.tc.lucene.dto.MavenClassSet;
+import com.tc.lucene.enums.MavenContentType;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.search.join.BitSetProducer;
+import org.apache.lucene.search.join.JoinUtil;
+import org.apache.lucene.search.join.ParentChildrenBlockJoinQuery;
+import org.apache.lucene.search.join.QueryBitSetProducer;
+import org.apache.lucene.search.join.ScoreMode;
+import org.apache.lucene.search.join.ToParentBlockJoinQuery;
+
+import java.io.IOException;
+
+/**
+ * @author AnthubTC
+ * @version 1.0
+ * @className MavenBlockJoinUtil
+ * @description class集合(父文档)和class(子文档)的block join查询，以及class集合到jar的关联查询
+ * @date 2026/10/18 11:40
+ **/
+public class MavenBlockJoinUtil {
+    /**
+     * 父文档(class集合)过滤器，QueryBitSetProducer按段缓存bitset，全局共享一个实例
+     */
+    public static final BitSetProducer CLASS_SET_FILTER = new QueryBitSetProducer(typeQuery(MavenContentType.ClassSet));
+
+    public static Query typeQuery(MavenContentType contentType) {
+        return new TermQuery(new Term("type", String.valueOf(contentType.getType())));
+    }
+
+    /**
+     * 子文档查询限定在class文档上
+     */
+    public static Query classQuery(Query classQuery) {
+        return new BooleanQuery.Builder()
+                .add(classQuery, BooleanClause.Occur.MUST)
+                .add(typeQuery(MavenContentType.Clazz), BooleanClause.Occur.FILTER)
+                .build();
+    }
+
+    /**
+     * class查询转换为命中的class集合，集合的得分取命中class的最高分
+     */
+    public static Query toClassSetQuery(Query classQuery) {
+        return new ToParentBlockJoinQuery(classQuery(classQuery), CLASS_SET_FILTER, ScoreMode.Max);
+    }
+
+    /**
+     * class查询转换为引用了命中集合的jar，jar的得分取集合的得分
+     * <p>
+     * JoinUtil在创建查询时就在searcher上执行集合查询、收集命中的classSetId，
+     * 返回的查询只能用在同一个searcher上，每个分片各自创建
+     */
+    public static Query toArtifactQuery(Query classQuery, IndexSearcher searcher) throws IOException {
+        Query join = JoinUtil.createJoinQuery(MavenClassSet.FIELD_ID, false, MavenClassSet.FIELD_ID,
+                toClassSetQuery(classQuery), searcher, ScoreMode.Max);
+        // class文档也带有classSetId，只保留jar
+        return new BooleanQuery.Builder()
+                .add(join, BooleanClause.Occur.MUST)
+                .add(typeQuery(MavenContentType.Artifact), BooleanClause.Occur.FILTER)
+                .build();
+    }
+
+    /**
+     * 某个class集合下命中的class
+     * @param classSetDoc class集合文档的docId(全局)
+     */
+    public static Query matchedClassQuery(Query classQuery, int classSetDoc) {
+        return new ParentChildrenBlockJoinQuery(CLASS_SET_FILTER, classQuery(classQuery), classSetDoc);
+    }
+
+    /**
+     * class集合文档的docId(全局)，不存在时返回-1
+     */
+    public static int classSetDoc(IndexSearcher searcher, String classSetId) throws IOException {
+        Query query = new BooleanQuery.Builder()
+                .add(new TermQuery(new Term(MavenClassSet.FIELD_ID, classSetId)), BooleanClause.Occur.FILTER)
+                .add(typeQuery(MavenContentType.ClassSet), BooleanClause.Occur.FILTER)
+                .build();
+        TopDocs topDocs = searcher.search(query, 1);
+        return topDocs.scoreDocs.length == 0 ? -1 : topDocs.scoreDocs[0].doc;
+    }
+}
@@ -0,0 +1,135 @@
+package com.tc.lucene.util;
+
+import com.tc.lucene.dto.MavenArtifact;
+import com.tc.lucene.dto.MavenClassSet;
+import com.tc.lucene.dto.MavenJarClass;
+import com.tc.lucene.dto.MavenJarFingerprint;
+import com.tc.lucene.enums.MavenContentType;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.index.DocValues;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.PostingsEnum;
+import org.apache.lucene.index.ReaderUtil;
+import org.apache.lucene.index.SortedDocValues;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.DocIdSetIterator;
+import org.apache.lucene.util.Bits;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * 从doc values组装搜索结果
+ * <p>
+ * 坐标字段(type、groupId、artifactId、version、className、classSetId)同时写了doc values，列表展示只读doc values，
+ * 不解压整个存储字段块；filePath、指纹等存储字段只在需要时按字段读取。
+ * 没有doc values的旧索引退回读取存储字段。
+ *
+ * @author AnthubTC
+ * @version 1.0
+ * @className MavenDocValuesUtil
+ * @description
+ * @date 2026/10/18 15:50
+ **/
+public class MavenDocValuesUtil {
+    private static final Set<String> ARTIFACT_STORED_FIELDS = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+            "filePath", MavenJarFingerprint.FIELD_SIZE, MavenJarFingerprint.FIELD_LAST_MODIFIED, MavenJarFingerprint.FIELD_HASH)));
+    private static final Set<String> CLASS_STORED_FIELDS = Collections.singleton("className");
+
+    /**
+     * @param reader     索引
+     * @param doc        jar文档
+     * @param loadStored 是否读取filePath、指纹等存储字段
+     */
+    public static MavenArtifact loadArtifact(IndexReader reader, int doc, boolean loadStored) throws IOException {
+        LeafReaderContext leaf = leaf(reader, doc);
+        String groupId = value(leaf, "groupId", doc);
+        if (groupId == null) {
+            return MavenArtifact.fromDocument(reader.document(doc));
+        }
+        MavenArtifact mavenArtifact = new MavenArtifact(groupId, value(leaf, "artifactId", doc), value(leaf, "version", doc));
+        mavenArtifact.setType(Integer.valueOf(value(leaf, "type", doc)));
+        mavenArtifact.setClassSetId(value(leaf, MavenClassSet.FIELD_ID, doc));
+        if (loadStored) {
+            Document document = reader.document(doc, ARTIFACT_STORED_FIELDS);
+            mavenArtifact.setFilePath(document.get("filePath"));
+            mavenArtifact.setFingerprint(MavenJarFingerprint.fromDocument(document));
+        }
+        return mavenArtifact;
+    }
+
+    /**
+     * @param reader     索引
+     * @param classDoc   class文档
+     * @param parentDoc  引用该class所在集合的jar文档
+     * @param loadStored 是否读取filePath、指纹等存储字段
+     */
+    public static MavenJarClass loadClass(IndexReader reader, int classDoc, int parentDoc, boolean loadStored)
+            throws IOException {
+        return loadClass(reader, classDoc, loadArtifact(reader, parentDoc, loadStored));
+    }
+
+    /**
+     * @param reader        索引
+     * @param classDoc      class文档
+     * @param mavenArtifact 已经读取的jar
+     */
+    public static MavenJarClass loadClass(IndexReader reader, int classDoc, MavenArtifact mavenArtifact) throws IOException {
+        MavenJarClass mavenJarClass = MavenJarClass.create(mavenArtifact);
+        String className = value(leaf(reader, classDoc), "className", classDoc);
+        if (className == null) {
+            className = reader.document(classDoc, CLASS_STORED_FIELDS).get("className");
+        }
+        mavenJarClass.setClassName(className);
+        return mavenJarClass;
+    }
+
+    @FunctionalInterface
+    public interface ClassSetIdConsumer {
+        /**
+         * @param doc        reader内的docId(全局)
+         * @param classSetId 文档的classSetId
+         */
+        void accept(int doc, String classSetId);
+    }
+
+    /**
+     * 遍历某种类型(jar或class集合)未删除的文档及其classSetId
+     */
+    public static void forEachClassSetId(IndexReader reader, MavenContentType type, ClassSetIdConsumer consumer)
+            throws IOException {
+        Term typeTerm = new Term("type", String.valueOf(type.getType()));
+        for (LeafReaderContext leaf : reader.leaves()) {
+            PostingsEnum postings = leaf.reader().postings(typeTerm, PostingsEnum.NONE);
+            if (postings == null) {
+                continue;
+            }
+            SortedDocValues classSetIds = DocValues.getSorted(leaf.reader(), MavenClassSet.FIELD_ID);
+            Bits liveDocs = leaf.reader().getLiveDocs();
+            for (int doc = postings.nextDoc(); doc != DocIdSetIterator.NO_MORE_DOCS; doc = postings.nextDoc()) {
+                if ((liveDocs == null || liveDocs.get(doc)) && classSetIds.advanceExact(doc)) {
+                    consumer.accept(leaf.docBase + doc, classSetIds.lookupOrd(classSetIds.ordValue()).utf8ToString());
+                }
+            }
+        }
+    }
+
+    private static LeafReaderContext leaf(IndexReader reader, int doc) {
+        return reader.leaves().get(ReaderUtil.subIndex(doc, reader.leaves()));
+    }
+
+    /**
+     * 读取单个文档的SortedDocValues，没有值时返回null
+     */
+    private static String value(LeafReaderContext leaf, String field, int doc) throws IOException {
+        SortedDocValues docValues = DocValues.getSorted(leaf.reader(), field);
+        if (!docValues.advanceExact(doc - leaf.docBase)) {
+            return null;
+        }
+        return docValues.lookupOrd(docValues.ordValue()).utf8ToString();
+    }
+}
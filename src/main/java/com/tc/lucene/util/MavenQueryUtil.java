@@ -0,0 +1,102 @@
+package com.tc.lucene.util;
+
+import com.tc.lucene.analysis.ClassNameAnalyzer;
+import com.tc.lucene.analysis.MavenFieldAnalyzers;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.queryparser.classic.ParseException;
+import org.apache.lucene.queryparser.classic.QueryParser;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.MatchNoDocsQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.TermQuery;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * 类名、artifactId查询
+ * <p>
+ * 普通输入不经过QueryParser，直接拆词后生成词项查询：
+ * 每个词在 .ngram 子字段上做前缀匹配(BootApp -> boot、app)，整词匹配主字段时加权，整体输入再尝试匹配首字母(SBA)；
+ * 输入中带有QueryParser语法(字段、通配符、引号、布尔运算符等)时才交给QueryParser解析
+ *
+ * @author AnthubTC
+ * @version 1.0
+ * @className MavenQueryUtil
+ * @description
+ * @date 2026/10/18 14:50
+ **/
+public class MavenQueryUtil {
+    private static final Pattern QUERY_SYNTAX = Pattern.compile("[:*?~\"()\\[\\]{}^+!\\\\/]|(^|\\s)-|\\b(AND|OR|NOT)\\b");
+    private static final float EXACT_BOOST = 2f;
+
+    /**
+     * @param field    className或artifactId
+     * @param keyword  用户输入
+     * @param analyzer 查询分词器，{@link MavenFieldAnalyzers#queryAnalyzer()}
+     */
+    public static Query keywordQuery(String field, String keyword, Analyzer analyzer) throws ParseException {
+        if (isQuerySyntax(keyword)) {
+            return new QueryParser(field, analyzer).parse(keyword);
+        }
+        List<String> words = analyze(field, keyword, analyzer);
+        if (words.isEmpty()) {
+            return new MatchNoDocsQuery("没有可查询的词");
+        }
+        BooleanQuery.Builder prefix = new BooleanQuery.Builder();
+        BooleanQuery.Builder exact = new BooleanQuery.Builder();
+        for (String word : words) {
+            String gram = word.length() > ClassNameAnalyzer.MAX_GRAM ? word.substring(0, ClassNameAnalyzer.MAX_GRAM) : word;
+            prefix.add(new TermQuery(new Term(field + MavenFieldAnalyzers.NGRAM_SUFFIX, gram)), BooleanClause.Occur.MUST);
+            exact.add(new TermQuery(new Term(field, word)), BooleanClause.Occur.MUST);
+        }
+        BooleanQuery.Builder builder = new BooleanQuery.Builder()
+                .add(prefix.build(), BooleanClause.Occur.SHOULD)
+                .add(new BoostQuery(exact.build(), EXACT_BOOST), BooleanClause.Occur.SHOULD);
+        String initials = keyword.trim().toLowerCase(Locale.ROOT);
+        if (initials.length() >= 2 && initials.length() <= ClassNameAnalyzer.MAX_GRAM && isLetters(initials)) {
+            builder.add(new TermQuery(new Term(field + MavenFieldAnalyzers.INITIALS_SUFFIX, initials)), BooleanClause.Occur.SHOULD);
+        }
+        return builder.setMinimumNumberShouldMatch(1).build();
+    }
+
+    /**
+     * 输入中是否带有QueryParser语法
+     */
+    public static boolean isQuerySyntax(String keyword) {
+        return QUERY_SYNTAX.matcher(keyword).find();
+    }
+
+    private static List<String> analyze(String field, String text, Analyzer analyzer) {
+        List<String> words = new ArrayList<>();
+        try (TokenStream stream = analyzer.tokenStream(field, text)) {
+            CharTermAttribute termAttribute = stream.addAttribute(CharTermAttribute.class);
+            stream.reset();
+            while (stream.incrementToken()) {
+                words.add(termAttribute.toString());
+            }
+            stream.end();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return words;
+    }
+
+    private static boolean isLetters(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            if (!Character.isLetter(text.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,190 @@
+package com.tc.lucene.util;
+
+import cn.hutool.core.collection.CollUtil;
+import com.tc.lucene.dto.MavenArtifact;
+import com.tc.lucene.dto.MavenJarClass;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * @author AnthubTC
+ * @version 1.0
+ * @className MavenRepoUtil
+ * @description maven本地仓库解析工具
+ * @date 2026/10/18 10:12
+ **/
+@Slf4j
+public class MavenRepoUtil {
+
+    /**
+     * 遍历到jar文件时的回调，阻塞时可以被中断
+     */
+    @FunctionalInterface
+    public interface JarFileConsumer {
+        void accept(File file) throws InterruptedException;
+    }
+
+    /**
+     * 惰性遍历maven仓库中需要索引的jar文件，边遍历边回调，不会先把所有文件收集到内存
+     * @param repositoryDir maven仓库目录
+     * @param jarConsumer   jar文件回调
+     * @return 无法访问的文件或目录(绝对路径)，其中的jar没有回调
+     * @throws InterruptedException 回调被中断，遍历随之结束
+     */
+    public static List<Path> walkJarFiles(File repositoryDir, JarFileConsumer jarConsumer)
+            throws IOException, InterruptedException {
+        Path repositoryPath = repositoryDir.toPath();
+        // 只跳过仓库根目录下的缓存目录
+        Path cachesDir = repositoryPath.resolve("caches");
+        List<Path> failedPaths = new ArrayList<>();
+        AtomicReference<InterruptedException> interrupted = new AtomicReference<>();
+        Files.walkFileTree(repositoryPath, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+                if (dir.equals(cachesDir)) {
+                    // 跳过缓存目录
+                    return FileVisitResult.SKIP_SUBTREE;
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path path, BasicFileAttributes attrs) {
+                File file = path.toFile();
+                if (isIndexableJar(file)) {
+                    try {
+                        jarConsumer.accept(file);
+                    } catch (InterruptedException e) {
+                        interrupted.set(e);
+                        return FileVisitResult.TERMINATE;
+                    }
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFileFailed(Path path, IOException e) {
+                log.warn("无法访问: {}", path, e);
+                failedPaths.add(path.toAbsolutePath());
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult postVisitDirectory(Path dir, IOException e) {
+                if (e != null) {
+                    // 列目录中途失败(DirectoryIteratorException)，目录中剩下的内容没有遍历到
+                    log.warn("无法完整遍历目录: {}", dir, e);
+                    failedPaths.add(dir.toAbsolutePath());
+                }
+                return FileVisitResult.CONTINUE;
+            }
+        });
+        if (interrupted.get() != null) {
+            throw interrupted.get();
+        }
+        return failedPaths;
+    }
+
+    /**
+     * 文件是否在其中某个路径下(或就是该路径)
+     */
+    public static boolean isUnder(String filePath, List<Path> paths) {
+        Path path = new File(filePath).toPath().toAbsolutePath();
+        for (Path parent : paths) {
+            if (path.startsWith(parent)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public static boolean isIndexableJar(File file) {
+        // 文件名中包含版本号
+        return file.getName().endsWith(".jar") && file.getName().contains(file.getParentFile().getName());
+    }
+
+    public static MavenArtifact buildMavenArtifact(File repositoryDir, File file) {
+        String absolutePath = file.getAbsolutePath();
+        String version = file.getParentFile().getName();
+        String artifactId = file.getName().substring(0, file.getName().indexOf(version) - 1);
+        String groupId = getGroupId(file, repositoryDir);
+
+        MavenArtifact mavenArtifact = new MavenArtifact();
+        mavenArtifact.setGroupId(groupId);
+        mavenArtifact.setArtifactId(artifactId);
+        mavenArtifact.setVersion(version);
+        mavenArtifact.setFilePath(absolutePath);
+        return mavenArtifact;
+    }
+
+    /**
+     * 读取jar中的class，只解析zip中央目录
+     * @param mavenArtifact jar
+     * @param scanner       扫描选项
+     * @throws IOException jar无法读取或不是有效的zip
+     */
+    public static List<MavenJarClass> buildMavenJarClass(MavenArtifact mavenArtifact, JarClassScanner scanner) throws IOException {
+        List<MavenJarClass> mavenJarClasses = new ArrayList<>();
+        scanner.scan(new File(mavenArtifact.getFilePath()).toPath(), className -> {
+            MavenJarClass mavenJarClass = MavenJarClass.create(mavenArtifact);
+            mavenJarClass.setClassName(className);
+            mavenJarClasses.add(mavenJarClass);
+        });
+        return mavenJarClasses;
+    }
+
+    /**
+     * 读取jar中的class并解析public成员，jar中的class逐个解压、解析，不整体读入内存
+     * @param mavenArtifact jar
+     * @param scanner       扫描选项
+     * @throws IOException jar无法读取或不是有效的zip；单个class解析失败时只索引类名
+     */
+    public static List<MavenJarClass> buildMavenJarClassWithMembers(MavenArtifact mavenArtifact, JarClassScanner scanner)
+            throws IOException {
+        List<MavenJarClass> mavenJarClasses = new ArrayList<>();
+        scanner.scanContent(new File(mavenArtifact.getFilePath()).toPath(), (className, classFile, length) -> {
+            MavenJarClass mavenJarClass = MavenJarClass.create(mavenArtifact);
+            mavenJarClass.setClassName(className);
+            mavenJarClasses.add(mavenJarClass);
+            if (classFile == null) {
+                return;
+            }
+            Set<String> members = new LinkedHashSet<>();
+            List<String> methodSignatures = new ArrayList<>();
+            try {
+                if (ClassMemberReader.read(classFile, length, members, methodSignatures)) {
+                    mavenJarClass.setMembers(new ArrayList<>(members));
+                    mavenJarClass.setMethodSignatures(methodSignatures);
+                }
+            } catch (IOException | RuntimeException e) {
+                log.debug("class解析失败: {}!{}", mavenArtifact.getFilePath(), className, e);
+            }
+        });
+        return mavenJarClasses;
+    }
+
+    public static String getGroupId(File file, File repositoryDir) {
+        List<String> dirList = new ArrayList<>();
+        // jar -> version目录 -> artifactId目录 -> groupId最后一级目录
+        file = file.getParentFile().getParentFile().getParentFile();
+        while (!file.equals(repositoryDir)) {
+            dirList.add(file.getName());
+            file = file.getParentFile();
+        }
+        Collections.reverse(dirList);
+        return CollUtil.join(dirList, ".");
+    }
+}
@@ -0,0 +1,249 @@
+package com.tc.lucene.util;
+
+import org.apache.lucene.document.SortedDocValuesField;
+import org.apache.lucene.search.IndexOrDocValuesQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.TermRangeQuery;
+import org.apache.lucene.util.BytesRef;
+import org.apache.lucene.util.BytesRefBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * maven版本号编码
+ * <p>
+ * 把版本号编码成按字节比较即可排序的key，排序规则近似maven的ComparableVersion：
+ * 数字按数值比较(1.10 > 1.9)，alpha &lt; beta &lt; milestone &lt; rc &lt; snapshot &lt; 正式版 &lt; sp &lt; 其它限定符，
+ * 末尾的0和ga/final/release忽略(5.3.0.RELEASE == 5.3)。
+ * key同时以索引词和doc values写入，排序、范围过滤都在lucene中完成。
+ *
+ * @author AnthubTC
+ * @version 1.0
+ * @className MavenVersionUtil
+ * @description
+ * @date 2026/10/18 14:00
+ **/
+public class MavenVersionUtil {
+    public static final String FIELD_VERSION_KEY = "versionKey";
+
+    /**
+     * 版本结束，等同于正式版
+     */
+    private static final byte END = 0x20;
+    private static final byte SP = 0x30;
+    private static final byte OTHER_QUALIFIER = 0x34;
+    /**
+     * '-'或数字字母切换后以数字开头的子列表，大于任何限定符，小于数字
+     */
+    private static final byte LIST = 0x3C;
+    private static final byte NUMBER = 0x40;
+    private static final String[] PRE_RELEASE = {"alpha", "beta", "milestone", "rc", "snapshot"};
+
+    public static BytesRef sortKey(String version) {
+        List<Item> items = normalize(parse(version.toLowerCase(Locale.ROOT)));
+        BytesRefBuilder builder = new BytesRefBuilder();
+        for (Item item : items) {
+            if (item.number) {
+                if (item.listStart) {
+                    builder.append(LIST);
+                }
+                String digits = stripLeadingZeros(item.text);
+                builder.append(NUMBER);
+                builder.append((byte) Math.min(digits.length(), 0xFF));
+                builder.append(new BytesRef(digits));
+                continue;
+            }
+            int preRelease = preReleaseRank(item.text);
+            if (preRelease >= 0) {
+                builder.append((byte) (0x10 + preRelease));
+            } else if (item.text.isEmpty()) {
+                builder.append(END);
+            } else if ("sp".equals(item.text)) {
+                builder.append(SP);
+            } else {
+                builder.append(OTHER_QUALIFIER);
+                builder.append(new BytesRef(item.text.getBytes(StandardCharsets.UTF_8)));
+                builder.append((byte) 0);
+            }
+        }
+        builder.append(END);
+        return builder.toBytesRef();
+    }
+
+    /**
+     * 版本范围查询，支持maven的区间写法 [5.3,6) (,1.0] [1.5] 和比较写法 >=5.3,<6
+     * @param range 版本范围
+     */
+    public static Query rangeQuery(String range) {
+        BytesRef lower = null;
+        BytesRef upper = null;
+        boolean includeLower = true;
+        boolean includeUpper = true;
+        String text = range.trim();
+        if (text.startsWith("[") || text.startsWith("(")) {
+            if (!text.endsWith("]") && !text.endsWith(")")) {
+                throw new IllegalArgumentException("版本范围格式错误: " + range);
+            }
+            includeLower = text.startsWith("[");
+            includeUpper = text.endsWith("]");
+            String body = text.substring(1, text.length() - 1);
+            int comma = body.indexOf(',');
+            if (comma < 0) {
+                // [1.5] 精确版本
+                lower = upper = sortKey(body.trim());
+            } else {
+                lower = emptyToNull(body.substring(0, comma));
+                upper = emptyToNull(body.substring(comma + 1));
+            }
+        } else {
+            for (String part : text.split(",")) {
+                String condition = part.trim();
+                if (condition.startsWith(">=")) {
+                    lower = sortKey(condition.substring(2).trim());
+                    includeLower = true;
+                } else if (condition.startsWith(">")) {
+                    lower = sortKey(condition.substring(1).trim());
+                    includeLower = false;
+                } else if (condition.startsWith("<=")) {
+                    upper = sortKey(condition.substring(2).trim());
+                    includeUpper = true;
+                } else if (condition.startsWith("<")) {
+                    upper = sortKey(condition.substring(1).trim());
+                    includeUpper = false;
+                } else if (!condition.isEmpty()) {
+                    String exact = condition.startsWith("=") ? condition.substring(1).trim() : condition;
+                    lower = upper = sortKey(exact);
+                    includeLower = includeUpper = true;
+                }
+            }
+        }
+        // 范围较小时走词典，范围较大、其它条件更稀疏时走doc values逐个校验
+        return new IndexOrDocValuesQuery(
+                new TermRangeQuery(FIELD_VERSION_KEY, lower, upper, includeLower, includeUpper),
+                SortedDocValuesField.newSlowRangeQuery(FIELD_VERSION_KEY, lower, upper, includeLower, includeUpper));
+    }
+
+    private static BytesRef emptyToNull(String version) {
+        return version.trim().isEmpty() ? null : sortKey(version.trim());
+    }
+
+    private static List<Item> parse(String version) {
+        List<Item> items = new ArrayList<>();
+        int start = 0;
+        boolean listStart = false;
+        for (int i = 0; i <= version.length(); i++) {
+            char c = i < version.length() ? version.charAt(i) : '.';
+            boolean separator = !Character.isLetterOrDigit(c);
+            boolean transition = i > start && !separator
+                    && Character.isDigit(c) != Character.isDigit(version.charAt(i - 1));
+            if (separator || transition) {
+                if (i > start) {
+                    String text = version.substring(start, i);
+                    boolean number = Character.isDigit(text.charAt(0));
+                    if (!number) {
+                        text = qualifier(text, transition);
+                    }
+                    items.add(new Item(text, number, listStart));
+                }
+                // '-'和数字字母切换都开始一个新的子列表
+                listStart = c == '-' || transition;
+                start = separator ? i + 1 : i;
+            }
+        }
+        return items;
+    }
+
+    private static String qualifier(String text, boolean followedByDigit) {
+        if (followedByDigit && text.length() == 1) {
+            switch (text) {
+                case "a":
+                    return "alpha";
+                case "b":
+                    return "beta";
+                case "m":
+                    return "milestone";
+                default:
+                    return text;
+            }
+        }
+        switch (text) {
+            case "ga":
+            case "final":
+            case "release":
+                return "";
+            case "cr":
+                return "rc";
+            default:
+                return text;
+        }
+    }
+
+    /**
+     * 去掉每个子列表末尾的0和正式版限定符，以及限定符前面的0，末尾的空子列表也去掉，
+     * 例如 2.0.0.M1 与 2.M1 等价，5.3.0.RELEASE、5.3-GA 与 5.3 等价
+     */
+    private static List<Item> normalize(List<Item> items) {
+        List<List<Item>> lists = new ArrayList<>();
+        for (Item item : items) {
+            if (item.listStart || lists.isEmpty()) {
+                lists.add(new ArrayList<>());
+            }
+            lists.get(lists.size() - 1).add(item);
+        }
+        List<Item> result = new ArrayList<>(items.size());
+        for (List<Item> list : lists) {
+            List<Item> normalized = new ArrayList<>(list.size());
+            List<Item> nulls = new ArrayList<>();
+            for (Item item : list) {
+                if (item.isNull()) {
+                    nulls.add(item);
+                    continue;
+                }
+                // 0后面跟的是数字才保留，跟限定符时丢弃
+                if (item.number) {
+                    normalized.addAll(nulls);
+                }
+                nulls.clear();
+                normalized.add(item);
+            }
+            result.addAll(normalized);
+        }
+        return result;
+    }
+
+    private static int preReleaseRank(String qualifier) {
+        for (int i = 0; i < PRE_RELEASE.length; i++) {
+            if (PRE_RELEASE[i].equals(qualifier)) {
+                return i + 1;
+            }
+        }
+        return -1;
+    }
+
+    private static String stripLeadingZeros(String digits) {
+        int i = 0;
+        while (i < digits.length() - 1 && digits.charAt(i) == '0') {
+            i++;
+        }
+        return digits.substring(i);
+    }
+
+    private static class Item {
+        private final String text;
+        private final boolean number;
+        private final boolean listStart;
+
+        Item(String text, boolean number, boolean listStart) {
+            this.text = text;
+            this.number = number;
+            this.listStart = listStart;
+        }
+
+        boolean isNull() {
+            return number ? "0".equals(stripLeadingZeros(text)) : text.isEmpty();
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.tc.lucene.basic;
+
+import com.tc.lucene.LuceneLearnApplicationTests;
+import com.tc.lucene.analysis.AnalyzerRegistry;
+import com.tc.lucene.config.LuceneDemoConfig;
+import com.tc.lucene.util.AnalyzerUtil;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.core.WhitespaceAnalyzer;
+import org.apache.lucene.analysis.miscellaneous.PerFieldAnalyzerWrapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.annotation.Resource;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author AnthubTC
+ * @version 1.0
+ * @className AnalyzerRegistryTest
+ * @description
+ * @date 2026/10/18 18:50
+ **/
+@DisplayName("分词器注册表")
+public class AnalyzerRegistryTest extends LuceneLearnApplicationTests {
+    @Resource
+    private AnalyzerRegistry analyzerRegistry;
+
+    @DisplayName("共享实例，组件按线程复用")
+    @Test
+    public void sharedAndReused() throws IOException {
+        Analyzer analyzer = analyzerRegistry.get(AnalyzerRegistry.SMART_CN);
+        assertSame(analyzer, analyzerRegistry.get(AnalyzerRegistry.SMART_CN));
+        assertSame(analyzer, AnalyzerUtil.getAnalyzer(AnalyzerRegistry.SMART_CN));
+        assertTrue(analyzerRegistry.getNames().contains(AnalyzerRegistry.JCSEG_COMPLEX));
+        assertThrows(IllegalArgumentException.class, () -> analyzerRegistry.get("unknown"));
+
+        // 同一线程、不同字段复用同一套组件
+        assertSame(tokenStream(analyzer, "title"), tokenStream(analyzer, "content"));
+    }
+
+    @DisplayName("按注册的复用策略缓存组件，关闭后不可用")
+    @Test
+    public void reuseStrategyAndLifecycle() throws IOException {
+        AnalyzerRegistry registry = new AnalyzerRegistry(new LuceneDemoConfig());
+        try {
+            AtomicInteger created = new AtomicInteger();
+            registry.register("per-field", Analyzer.PER_FIELD_REUSE_STRATEGY, () -> {
+                created.incrementAndGet();
+                return new WhitespaceAnalyzer();
+            });
+            Analyzer analyzer = registry.get("per-field");
+            assertSame(analyzer, registry.get("per-field"));
+            assertEquals(1, created.get());
+            assertSame(Analyzer.PER_FIELD_REUSE_STRATEGY, analyzer.getReuseStrategy());
+            assertNotSame(tokenStream(analyzer, "title"), tokenStream(analyzer, "content"));
+            assertSame(tokenStream(analyzer, "title"), tokenStream(analyzer, "title"));
+        } finally {
+            registry.destroy();
+        }
+        assertThrows(IllegalStateException.class, () -> registry.get(AnalyzerRegistry.STANDARD));
+        // 手工创建的注册表不影响静态入口
+        assertSame(analyzerRegistry.get(AnalyzerRegistry.STANDARD), AnalyzerUtil.getAnalyzer(AnalyzerRegistry.STANDARD));
+    }
+
+    @DisplayName("创建分词器时可以取其它分词器")
+    @Test
+    public void nestedGet() {
+        AnalyzerRegistry registry = new AnalyzerRegistry(new LuceneDemoConfig());
+        try {
+            AtomicInteger created = new AtomicInteger();
+            registry.register("inner", null, () -> {
+                created.incrementAndGet();
+                return new WhitespaceAnalyzer();
+            });
+            registry.register("outer", null, () -> new PerFieldAnalyzerWrapper(registry.get("inner")));
+            Analyzer analyzer = registry.get("outer");
+            assertSame(analyzer, registry.get("outer"));
+            // 嵌套创建的分词器同样共享
+            registry.get("inner");
+            assertEquals(1, created.get());
+        } finally {
+            registry.destroy();
+        }
+    }
+
+    private static TokenStream tokenStream(Analyzer analyzer, String field) throws IOException {
+        try (TokenStream stream = analyzer.tokenStream(field, "谷歌地图之父加盟facebook")) {
+            stream.reset();
+            while (stream.incrementToken()) {
+                // 消费完再关闭，下次才能复用
+            }
+            stream.end();
+            return stream;
+        }
+    }
+}
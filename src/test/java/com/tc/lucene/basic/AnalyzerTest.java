@@ -1,6 +1,7 @@
 package com.tc.lucene.basic;
 
 import com.tc.lucene.LuceneLearnApplicationTests;
+import com.tc.lucene.analysis.JcsegLexiconSnapshot;
 import com.tc.lucene.util.AnalyzerUtil;
 import org.apache.lucene.analysis.Analyzer;
 import org.apache.lucene.analysis.CharArraySet;
@@ -16,10 +17,11 @@ import org.junit.jupiter.params.provider.MethodSource;
 import org.lionsoul.jcseg.ISegment;
 import org.lionsoul.jcseg.analyzer.JcsegAnalyzer;
 import org.lionsoul.jcseg.dic.ADictionary;
-import org.lionsoul.jcseg.dic.DictionaryFactory;
 import org.lionsoul.jcseg.segmenter.SegmenterConfig;
 import org.wltea.analyzer.lucene.IKAnalyzer;
 
+import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
@@ -35,6 +37,7 @@ import java.util.stream.Stream;
  **/
 @DisplayName("分词器")
 public class AnalyzerTest extends LuceneLearnApplicationTests {
+    private static ADictionary dictionary;
 
     public static Stream<Arguments> textSource() {
         List<String> textCases = new ArrayList<>();
@@ -81,7 +84,7 @@ public class AnalyzerTest extends LuceneLearnApplicationTests {
     @DisplayName("中文分词器")
     @ParameterizedTest
     @MethodSource("textSource")
-    public void chineseAnalyser(String text) {
+    public void chineseAnalyser(String text) throws IOException {
         Analyzer aly;
         System.out.println("原文：" + text);
 
@@ -111,7 +114,7 @@ public class AnalyzerTest extends LuceneLearnApplicationTests {
              */
             System.out.println("分词器-Jcseg:" + segType.name);
             SegmenterConfig segConfig = getSegmenterConfig();
-            ADictionary dic = DictionaryFactory.createSingletonDictionary(segConfig);
+            ADictionary dic = getDictionary(segConfig);
             aly = new JcsegAnalyzer(segType, segConfig, dic);
             //非必须(用于修改默认配置): 获取分词任务配置实例
             // JcsegAnalyzer jcseg = (JcsegAnalyzer) aly;
@@ -125,6 +128,16 @@ public class AnalyzerTest extends LuceneLearnApplicationTests {
         // ansj_seg
     }
 
+    /**
+     * 词典从二进制快照加载，词库文件没有变化时不再解析文本，见 {@link JcsegLexiconSnapshot}
+     */
+    private static synchronized ADictionary getDictionary(SegmenterConfig segConfig) throws IOException {
+        if (dictionary == null) {
+            dictionary = JcsegLexiconSnapshot.load(segConfig, new File("target/jcseg-lexicon"));
+        }
+        return dictionary;
+    }
+
     private static SegmenterConfig getSegmenterConfig() {
         // https://www.cnblogs.com/kangniuniu/p/11138789.html
         // SegmenterConfig segConfig = new SegmenterConfig("absolute or relative jcseg.properties path");
@@ -132,7 +145,7 @@ public class AnalyzerTest extends LuceneLearnApplicationTests {
         // segConfig.load("absolute or relative jcseg.properties path");
         SegmenterConfig segConfig = new SegmenterConfig(true);
         // 配置词典
-        String[] lexicon = {"D:\\githubRepository\\lucene-learn\\lexicon"};
+        String[] lexicon = {"lexicon"};
         segConfig.setLexiconPath(lexicon);
         // 追加同义词, 需要在 jcseg.properties中配置jcseg.loadsyn=1
         segConfig.setAppendCJKSyn(true);
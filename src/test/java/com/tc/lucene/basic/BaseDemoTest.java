@@ -1,10 +1,11 @@
 package com.tc.lucene.basic;
 
 import com.tc.lucene.LuceneLearnApplicationTests;
+import com.tc.lucene.analysis.AnalyzerRegistry;
 import com.tc.lucene.config.LuceneDemoConfig;
 import com.tc.lucene.util.AnalyzerUtil;
+import com.tc.lucene.util.DirectoryUtil;
 import org.apache.lucene.analysis.Analyzer;
-import org.apache.lucene.analysis.cn.smart.SmartChineseAnalyzer;
 import org.apache.lucene.document.Document;
 import org.apache.lucene.document.Field;
 import org.apache.lucene.document.StringField;
@@ -12,12 +13,10 @@ import org.apache.lucene.document.TextField;
 import org.apache.lucene.index.IndexWriter;
 import org.apache.lucene.index.IndexWriterConfig;
 import org.apache.lucene.store.Directory;
-import org.apache.lucene.store.FSDirectory;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
 import javax.annotation.Resource;
-import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -35,6 +34,8 @@ public class BaseDemoTest extends LuceneLearnApplicationTests {
 
     @Resource
     private LuceneDemoConfig luceneDemoConfig;
+    @Resource
+    private AnalyzerRegistry analyzerRegistry;
 
     /**
      * === 索引创建 =====
@@ -55,12 +56,13 @@ public class BaseDemoTest extends LuceneLearnApplicationTests {
             // 收集文档数据
             collectDocument(documents);
 
-            // 2 索引目录类,指定索引在硬盘中的位置
-            Directory directory = FSDirectory.open(new File(luceneDemoConfig.getDemoIndexDbPath("testCreate")).toPath());
-            // 3 创建分词器对象
-            Analyzer analyzer = new SmartChineseAnalyzer();
-            // 4 索引写出工具的配置对象
-            IndexWriterConfig conf = new IndexWriterConfig(analyzer);
+            // 2 索引目录类,指定索引在硬盘中的位置，目录实现按配置选择
+            Directory directory = DirectoryUtil.open(luceneDemoConfig, "testCreate");
+            // 3 取共享的分词器对象
+            Analyzer analyzer = analyzerRegistry.get(AnalyzerRegistry.SMART_CN);
+            // 4 索引写出工具的配置对象，一次性写入使用bulk-rebuild配置
+            IndexWriterConfig conf = luceneDemoConfig.getWriterProfile(LuceneDemoConfig.PROFILE_BULK_REBUILD)
+                    .newIndexWriterConfig(analyzer);
             // 5 创建索引的写出工具类。参数：索引的目录和配置信息
             IndexWriter indexWriter = new IndexWriter(directory, conf);
             // 6 把文档交给IndexWriter
@@ -80,9 +82,9 @@ public class BaseDemoTest extends LuceneLearnApplicationTests {
      */
     @Test
     public void tokenViewer() {
+        // Analyzer analyzer = analyzerRegistry.get(AnalyzerRegistry.STANDARD);
+        Analyzer analyzer = analyzerRegistry.get(AnalyzerRegistry.SMART_CN);
         for (String sourceTxt : getSourceTxtData()) {
-            // Analyzer analyzer = new StandardAnalyzer();
-            Analyzer analyzer = new SmartChineseAnalyzer();
             AnalyzerUtil.displayToken(sourceTxt, analyzer);
         }
     }
@@ -0,0 +1,129 @@
+package com.tc.lucene.basic;
+
+import com.tc.lucene.LuceneLearnApplicationTests;
+import com.tc.lucene.config.LuceneDemoConfig;
+import com.tc.lucene.enums.DirectoryType;
+import com.tc.lucene.util.DirectoryUtil;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FileSwitchDirectory;
+import org.apache.lucene.store.FilterDirectory;
+import org.apache.lucene.store.MMapDirectory;
+import org.apache.lucene.store.NRTCachingDirectory;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author AnthubTC
+ * @version 1.0
+ * @className DirectoryUtilTest
+ * @description
+ * @date 2026/10/18 20:05
+ **/
+@DisplayName("索引目录")
+public class DirectoryUtilTest extends LuceneLearnApplicationTests {
+    @TempDir
+    File tempDir;
+
+    @DisplayName("各种目录写入后重新打开能读到")
+    @Test
+    public void writeAndReopen() throws IOException {
+        for (DirectoryType type : DirectoryType.values()) {
+            LuceneDemoConfig config = config(type);
+            try (Directory directory = DirectoryUtil.open(config, type.name())) {
+                write(directory, 3, true);
+            }
+            try (Directory directory = DirectoryUtil.open(config, type.name());
+                 DirectoryReader reader = DirectoryReader.open(directory)) {
+                assertEquals(3, reader.numDocs(), type.name());
+            }
+            // 只有MEMORY不落盘
+            assertEquals(type != DirectoryType.MEMORY, new File(config.getDemoIndexDbPath(type.name())).isDirectory(), type.name());
+        }
+    }
+
+    @DisplayName("按扩展名预加载，文件只列一次")
+    @Test
+    public void preloadExtensions() throws IOException {
+        LuceneDemoConfig config = config(DirectoryType.MMAP);
+        config.getStorage().getPreloadExtensions().addAll(Arrays.asList("tim", "tip"));
+        try (Directory directory = DirectoryUtil.open(config, "preload")) {
+            // 不用复合文件，才能看到各扩展名的文件
+            write(directory, 3, false);
+            FileSwitchDirectory switchDirectory = assertInstanceOf(FileSwitchDirectory.class, directory);
+            assertTrue(((MMapDirectory) switchDirectory.getPrimaryDir()).getPreload());
+            assertFalse(((MMapDirectory) switchDirectory.getSecondaryDir()).getPreload());
+            String[] files = directory.listAll();
+            assertEquals(files.length, new HashSet<>(Arrays.asList(files)).size());
+            assertTrue(Arrays.stream(files).anyMatch(file -> file.endsWith(".tim")));
+            try (DirectoryReader reader = DirectoryReader.open(directory)) {
+                assertEquals(3, reader.numDocs());
+            }
+        }
+    }
+
+    @DisplayName("小段缓存在内存并按索引共享，提交时写入磁盘")
+    @Test
+    public void nrtCaching() throws IOException {
+        LuceneDemoConfig config = config(DirectoryType.NRT_CACHING);
+        try (Directory directory = DirectoryUtil.open(config, "nrt");
+             IndexWriter writer = new IndexWriter(directory, new IndexWriterConfig(new StandardAnalyzer()))) {
+            writer.addDocument(document(0));
+            try (DirectoryReader reader = DirectoryReader.open(writer)) {
+                assertEquals(1, reader.numDocs());
+            }
+            NRTCachingDirectory nrtDirectory = assertInstanceOf(NRTCachingDirectory.class, ((FilterDirectory) directory).getDelegate());
+            assertTrue(nrtDirectory.listCachedFiles().length > 0);
+            // 同一个索引再打开一次，拿到的是同一份缓存
+            try (Directory reopened = DirectoryUtil.open(config, "nrt")) {
+                assertSame(nrtDirectory, ((FilterDirectory) reopened).getDelegate());
+            }
+            assertTrue(nrtDirectory.listCachedFiles().length > 0);
+            writer.commit();
+            assertEquals(0, nrtDirectory.listCachedFiles().length);
+        }
+        Set<String> files = new HashSet<>(Arrays.asList(new File(config.getDemoIndexDbPath("nrt")).list()));
+        assertTrue(files.contains("segments_1"), files.toString());
+    }
+
+    private LuceneDemoConfig config(DirectoryType type) {
+        LuceneDemoConfig config = new LuceneDemoConfig();
+        config.setIndexDbPath(tempDir.getAbsolutePath());
+        config.getStorage().setType(type);
+        return config;
+    }
+
+    private static void write(Directory directory, int docs, boolean useCompoundFile) throws IOException {
+        IndexWriterConfig conf = new IndexWriterConfig(new StandardAnalyzer()).setUseCompoundFile(useCompoundFile);
+        try (IndexWriter writer = new IndexWriter(directory, conf)) {
+            for (int i = 0; i < docs; i++) {
+                writer.addDocument(document(i));
+            }
+        }
+    }
+
+    private static Document document(int id) {
+        Document document = new Document();
+        document.add(new StringField("id", String.valueOf(id), Field.Store.YES));
+        return document;
+    }
+}
@@ -1,13 +1,12 @@
 package com.tc.lucene.basic;
 
 import com.tc.lucene.LuceneLearnApplicationTests;
-import com.tc.lucene.config.LuceneDemoConfig;
+import com.tc.lucene.analysis.AnalyzerRegistry;
+import com.tc.lucene.service.LuceneSearcherRegistry;
 import com.tc.lucene.util.AnalyzerUtil;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.lucene.analysis.Analyzer;
-import org.apache.lucene.analysis.cn.smart.SmartChineseAnalyzer;
 import org.apache.lucene.document.Document;
-import org.apache.lucene.index.DirectoryReader;
 import org.apache.lucene.index.IndexReader;
 import org.apache.lucene.queryparser.classic.ParseException;
 import org.apache.lucene.queryparser.classic.QueryParser;
@@ -17,14 +16,11 @@ import org.apache.lucene.search.ScoreDoc;
 import org.apache.lucene.search.TopDocs;
 import org.apache.lucene.search.uhighlight.DefaultPassageFormatter;
 import org.apache.lucene.search.uhighlight.UnifiedHighlighter;
-import org.apache.lucene.store.Directory;
-import org.apache.lucene.store.FSDirectory;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
 
 import javax.annotation.Resource;
-import java.io.File;
 import java.io.IOException;
 
 /**
@@ -40,7 +36,9 @@ import java.io.IOException;
 @DisplayName("高亮查询显示")
 public class HighlighterTest extends LuceneLearnApplicationTests {
     @Resource
-    private LuceneDemoConfig luceneDemoConfig;
+    private LuceneSearcherRegistry luceneSearcherRegistry;
+    @Resource
+    private AnalyzerRegistry analyzerRegistry;
 
     @DisplayName("QueryParser")
     @ParameterizedTest
@@ -53,23 +51,21 @@ public class HighlighterTest extends LuceneLearnApplicationTests {
     public void queryParserTest(String val) throws ParseException, IOException {
         // QueryParser会使用分词器分词后匹配查询
         // 这里特别注意：查询的分词器要和索引的时候的分词器保持一致，否则搜索结果匹配会不理想
-        Analyzer analyzer = new SmartChineseAnalyzer();
+        Analyzer analyzer = analyzerRegistry.get(AnalyzerRegistry.SMART_CN);
         QueryParser parser = new QueryParser("title", analyzer);
         Query query = parser.parse(val);
 
         System.out.print("查询条件：【" + val + "】,");
         AnalyzerUtil.displayToken(val, analyzer);
 
-        // 设置索引存储路径
-        Directory indexDir = FSDirectory.open(new File(luceneDemoConfig.getDemoIndexDbPath("testCreate")).toPath());
-        // 创建索引读取器
-        try (IndexReader indexReader = DirectoryReader.open(indexDir)) {
-            IndexSearcher indexSearcher = new IndexSearcher(indexReader);
+        // 借用共享的searcher
+        luceneSearcherRegistry.search("testCreate", indexSearcher -> {
+            IndexReader indexReader = indexSearcher.getIndexReader();
 
             TopDocs topDocs = indexSearcher.search(query, 10);
             System.out.println("文档搜索结果，命中目标:" + topDocs.totalHits);
 
-            UnifiedHighlighter highlighter = new UnifiedHighlighter(indexSearcher, new SmartChineseAnalyzer());
+            UnifiedHighlighter highlighter = new UnifiedHighlighter(indexSearcher, analyzer);
             // 默认html标签
             // highlighter.setFormatter(new DefaultPassageFormatter());
             // 自定义前后标识
@@ -86,6 +82,7 @@ public class HighlighterTest extends LuceneLearnApplicationTests {
                 // 高亮显示
                 System.out.println("高亮显示:" + contentHightFragments[i] + "\n");
             }
-        }
+            return null;
+        });
     }
 }
@@ -0,0 +1,178 @@
+package com.tc.lucene.basic;
+
+import com.tc.lucene.LuceneLearnApplicationTests;
+import com.tc.lucene.analysis.JcsegLexiconSnapshot;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.lionsoul.jcseg.ISegment;
+import org.lionsoul.jcseg.IWord;
+import org.lionsoul.jcseg.analyzer.JcsegAnalyzer;
+import org.lionsoul.jcseg.dic.ADictionary;
+import org.lionsoul.jcseg.dic.HashMapDictionary;
+import org.lionsoul.jcseg.dic.ILexicon;
+import org.lionsoul.jcseg.segmenter.SegmenterConfig;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author AnthubTC
+ * @version 1.0
+ * @className JcsegLexiconSnapshotTest
+ * @description
+ * @date 2026/10/18 18:10
+ **/
+@DisplayName("Jcseg词库快照")
+public class JcsegLexiconSnapshotTest extends LuceneLearnApplicationTests {
+    private static final String TEXT = "据说他的名字叫刘霸天！陕西省农业农村厅网站发布文章，全省撂荒耕地面积下降96.6%。";
+
+    @TempDir
+    File tempDir;
+
+    @DisplayName("快照加载的词典与文本解析一致")
+    @Test
+    public void sameAsText() throws IOException {
+        SegmenterConfig config = config(new File("lexicon"));
+        File snapshotDir = new File(tempDir, "snapshot");
+        assertFalse(JcsegLexiconSnapshot.isFresh(config, snapshotDir));
+
+        long start = System.currentTimeMillis();
+        ADictionary text = JcsegLexiconSnapshot.load(config, snapshotDir);
+        long textMillis = System.currentTimeMillis() - start;
+        assertTrue(JcsegLexiconSnapshot.isFresh(config, snapshotDir));
+        start = System.currentTimeMillis();
+        ADictionary snapshot = JcsegLexiconSnapshot.load(config, snapshotDir);
+        System.out.printf("文本解析%dms, 快照加载%dms, 快照%dKB%n", textMillis, System.currentTimeMillis() - start,
+                new File(snapshotDir, JcsegLexiconSnapshot.FILE_NAME).length() / 1024);
+
+        assertEquals(text.mixPrefixLength, snapshot.mixPrefixLength);
+        assertEquals(text.mixSuffixLength, snapshot.mixSuffixLength);
+        for (int index = 0; index < ILexicon.T_LEN; index++) {
+            Map<String, IWord> expected = ((HashMapDictionary) text).dictMap[index];
+            Map<String, IWord> actual = ((HashMapDictionary) snapshot).dictMap[index];
+            assertEquals(expected.size(), actual.size());
+            for (IWord word : expected.values()) {
+                assertWordEquals(word, actual.get(word.getValue()));
+            }
+        }
+        assertEquals(tokens(config, text), tokens(config, snapshot));
+    }
+
+    @DisplayName("词库文件变化后重新解析")
+    @Test
+    public void rebuildWhenLexiconChanged() throws IOException {
+        File lexiconDir = new File(tempDir, "lexicon");
+        lexiconDir.mkdirs();
+        for (String name : new String[]{"lex-chars.lex", "lex-custom.lex", "lex-lname.lex"}) {
+            Files.copy(new File("lexicon", name).toPath(), new File(lexiconDir, name).toPath());
+        }
+        SegmenterConfig config = config(lexiconDir);
+        File snapshotDir = new File(tempDir, "snapshot");
+        ADictionary dictionary = JcsegLexiconSnapshot.load(config, snapshotDir);
+        assertNull(dictionary.get(ILexicon.CJK_WORD, "撂荒耕地"));
+
+        Files.write(new File(lexiconDir, "lex-custom.lex").toPath(), "\n撂荒耕地/n/liao huang geng di/null\n"
+                .getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+        assertFalse(JcsegLexiconSnapshot.isFresh(config, snapshotDir));
+        dictionary = JcsegLexiconSnapshot.load(config, snapshotDir);
+        assertNotNull(dictionary.get(ILexicon.CJK_WORD, "撂荒耕地"));
+        assertTrue(JcsegLexiconSnapshot.isFresh(config, snapshotDir));
+        assertNotNull(JcsegLexiconSnapshot.load(config, snapshotDir).get(ILexicon.CJK_WORD, "撂荒耕地"));
+
+        // 影响加载结果的配置变化同样使快照失效
+        config.setLoadCJKPinyin(false);
+        assertFalse(JcsegLexiconSnapshot.isFresh(config, snapshotDir));
+    }
+
+    @DisplayName("快照截断、损坏时重新解析")
+    @Test
+    public void rebuildWhenCorrupted() throws IOException {
+        SegmenterConfig config = config(new File("lexicon"));
+        File snapshotDir = new File(tempDir, "snapshot");
+        ADictionary text = JcsegLexiconSnapshot.load(config, snapshotDir);
+        File snapshot = new File(snapshotDir, JcsegLexiconSnapshot.FILE_NAME);
+        byte[] bytes = Files.readAllBytes(snapshot.toPath());
+
+        // 截断到词条中间
+        Files.write(snapshot.toPath(), Arrays.copyOf(bytes, bytes.length / 2));
+        assertFalse(JcsegLexiconSnapshot.isFresh(config, snapshotDir));
+        assertEquals(tokens(config, text), tokens(config, JcsegLexiconSnapshot.load(config, snapshotDir)));
+        // 重新写入了完整的快照
+        assertTrue(JcsegLexiconSnapshot.isFresh(config, snapshotDir));
+
+        // 中间的字节被改写，长度不变
+        byte[] flipped = bytes.clone();
+        flipped[flipped.length / 2] ^= 0x7f;
+        Files.write(snapshot.toPath(), flipped);
+        assertFalse(JcsegLexiconSnapshot.isFresh(config, snapshotDir));
+        assertEquals(tokens(config, text), tokens(config, JcsegLexiconSnapshot.load(config, snapshotDir)));
+        assertTrue(JcsegLexiconSnapshot.isFresh(config, snapshotDir));
+    }
+
+    private static SegmenterConfig config(File lexiconDir) {
+        SegmenterConfig config = new SegmenterConfig(true);
+        config.setLexiconPath(new String[]{lexiconDir.getPath()});
+        config.setAutoload(false);
+        config.setLoadCJKPos(true);
+        config.setLoadCJKPinyin(true);
+        config.setLoadCJKSyn(true);
+        config.setLoadEntity(true);
+        return config;
+    }
+
+    private static void assertWordEquals(IWord expected, IWord actual) {
+        assertNotNull(actual, expected.getValue());
+        assertEquals(expected.getFrequency(), actual.getFrequency(), expected.getValue());
+        assertEquals(expected.getType(), actual.getType(), expected.getValue());
+        assertEquals(expected.getPinyin(), actual.getPinyin(), expected.getValue());
+        assertEquals(expected.getParameter(), actual.getParameter(), expected.getValue());
+        assertArrayEquals(expected.getPartSpeech(), actual.getPartSpeech(), expected.getValue());
+        assertArrayEquals(expected.getEntity(), actual.getEntity(), expected.getValue());
+        if (expected.getSyn() == null) {
+            assertNull(actual.getSyn(), expected.getValue());
+            return;
+        }
+        assertEquals(expected.getSyn().getRootWord().getValue(), actual.getSyn().getRootWord().getValue());
+        assertEquals(values(expected.getSyn().getList()), values(actual.getSyn().getList()));
+    }
+
+    private static List<String> values(List<IWord> words) {
+        List<String> values = new ArrayList<>(words.size());
+        for (IWord word : words) {
+            values.add(word.getValue());
+        }
+        return values;
+    }
+
+    private static List<String> tokens(SegmenterConfig config, ADictionary dictionary) throws IOException {
+        List<String> tokens = new ArrayList<>();
+        try (Analyzer analyzer = new JcsegAnalyzer(ISegment.Type.COMPLEX, config, dictionary);
+             TokenStream stream = analyzer.tokenStream("content", TEXT)) {
+            CharTermAttribute term = stream.addAttribute(CharTermAttribute.class);
+            stream.reset();
+            while (stream.incrementToken()) {
+                tokens.add(term.toString());
+            }
+            stream.end();
+        }
+        return tokens;
+    }
+}
@@ -1,13 +1,12 @@
 package com.tc.lucene.basic;
 
 import com.tc.lucene.LuceneLearnApplicationTests;
+import com.tc.lucene.analysis.AnalyzerRegistry;
 import com.tc.lucene.config.LuceneDemoConfig;
+import com.tc.lucene.service.LuceneSearcherRegistry;
 import com.tc.lucene.util.AnalyzerUtil;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.lucene.analysis.Analyzer;
-import org.apache.lucene.analysis.cn.smart.SmartChineseAnalyzer;
-import org.apache.lucene.analysis.core.KeywordAnalyzer;
-import org.apache.lucene.analysis.standard.StandardAnalyzer;
 import org.apache.lucene.document.Document;
 import org.apache.lucene.document.Field;
 import org.apache.lucene.document.TextField;
@@ -18,21 +17,20 @@ import org.apache.lucene.search.*;
 import org.apache.lucene.search.spans.SpanNearQuery;
 import org.apache.lucene.search.spans.SpanQuery;
 import org.apache.lucene.search.spans.SpanTermQuery;
+import org.apache.lucene.store.ByteBuffersDirectory;
 import org.apache.lucene.store.Directory;
-import org.apache.lucene.store.FSDirectory;
-import org.apache.lucene.store.RAMDirectory;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
-import org.wltea.analyzer.lucene.IKAnalyzer;
 
 import javax.annotation.Resource;
-import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
@@ -45,8 +43,14 @@ import java.util.stream.Collectors;
 @Slf4j
 @DisplayName("查询讲解")
 public class QueryTest extends LuceneLearnApplicationTests {
+    private static final Set<String> PRINT_FIELDS = new HashSet<>(Arrays.asList("id", "title"));
+
     @Resource
     private LuceneDemoConfig luceneDemoConfig;
+    @Resource
+    private LuceneSearcherRegistry luceneSearcherRegistry;
+    @Resource
+    private AnalyzerRegistry analyzerRegistry;
 
     @DisplayName("QueryParser")
     @ParameterizedTest
@@ -59,7 +63,7 @@ public class QueryTest extends LuceneLearnApplicationTests {
     public void queryParserTest(String val) throws ParseException, IOException {
         // QueryParser会使用分词器分词后匹配查询
         // 这里特别注意：查询的分词器要和索引的时候的分词器保持一致，否则搜索结果匹配会不理想
-        Analyzer analyzer = new SmartChineseAnalyzer();
+        Analyzer analyzer = analyzerRegistry.get(AnalyzerRegistry.SMART_CN);
         QueryParser parser = new QueryParser("title", analyzer);
         Query query = parser.parse(val);
 
@@ -109,7 +113,7 @@ public class QueryTest extends LuceneLearnApplicationTests {
             document.add(new TextField("title", srcTxt, Field.Store.YES));
             return document;
         }).collect(Collectors.toList());
-        Directory indexDir = writeIndexDir(new StandardAnalyzer(), documents);
+        Directory indexDir = writeIndexDir(analyzerRegistry.get(AnalyzerRegistry.STANDARD), documents);
 
         Term term = new Term("title", val);
         Query query = new PrefixQuery(term);
@@ -173,7 +177,7 @@ public class QueryTest extends LuceneLearnApplicationTests {
     })
     public void testWildcardQuery(String val) throws IOException {
         // KeywordAnalyzer，它可以用于不对输入进行分词处理，而是将整个输入作为一个单独的标记
-        Directory indexDirectory = writeIndexDir(new KeywordAnalyzer());
+        Directory indexDirectory = writeIndexDir(analyzerRegistry.get(AnalyzerRegistry.KEYWORD));
 
         // WildcardQuery 用于使用任何字符序列的'*'等通配符搜索文档，？ 匹配单个字符。
         Term term = new Term("title", val);
@@ -198,7 +202,7 @@ public class QueryTest extends LuceneLearnApplicationTests {
             document.add(new TextField("title", srcTxt, Field.Store.YES));
             return document;
         }).collect(Collectors.toList());
-        Directory indexDir = writeIndexDir(new StandardAnalyzer(), documents);
+        Directory indexDir = writeIndexDir(analyzerRegistry.get(AnalyzerRegistry.STANDARD), documents);
 
         Term term = new Term("title", val);
         Query query = new FuzzyQuery(term);
@@ -235,7 +239,7 @@ public class QueryTest extends LuceneLearnApplicationTests {
     public void multiReader() throws IOException, ParseException {
         // 分布式存储、扩展性和灵活性、性能优化
 
-        Analyzer analyzer = new IKAnalyzer();
+        Analyzer analyzer = analyzerRegistry.get(AnalyzerRegistry.IK);
 
         // 文档对象列表
         List<Document> documents = new ArrayList<>();
@@ -253,7 +257,7 @@ public class QueryTest extends LuceneLearnApplicationTests {
 
         // 使用MultiReader将两个索引reader合并
         MultiReader multiReader = new MultiReader(reader1, reader2);
-        IndexSearcher searcher = new IndexSearcher(multiReader);
+        IndexSearcher searcher = luceneSearcherRegistry.newSearcher(multiReader);
 
         // 创建查询
         QueryParser parser = new QueryParser("title", analyzer);
@@ -276,11 +280,11 @@ public class QueryTest extends LuceneLearnApplicationTests {
         indexDir2.close();
     }
 
-    private static Directory writeIndexDir() throws IOException {
-        return writeIndexDir(new StandardAnalyzer());
+    private Directory writeIndexDir() throws IOException {
+        return writeIndexDir(analyzerRegistry.get(AnalyzerRegistry.STANDARD));
     }
 
-    private static Directory writeIndexDir(Analyzer analyzer) throws IOException {
+    private Directory writeIndexDir(Analyzer analyzer) throws IOException {
         // 文档对象列表
         List<Document> documents = new ArrayList<>();
         // 收集文档数据
@@ -289,10 +293,11 @@ public class QueryTest extends LuceneLearnApplicationTests {
         return writeIndexDir(analyzer, documents);
     }
 
-    private static Directory writeIndexDir(Analyzer analyzer, List<Document> documents) throws IOException {
-        // RAMDirectory写到内存的索引，已经过期，有其它类可以代替
-        Directory indexDirectory = new RAMDirectory();
-        IndexWriterConfig config = new IndexWriterConfig(analyzer);
+    private Directory writeIndexDir(Analyzer analyzer, List<Document> documents) throws IOException {
+        // 写到内存的索引；RAMDirectory已经过期，ByteBuffersDirectory按块分配内存，读取不加锁
+        Directory indexDirectory = new ByteBuffersDirectory();
+        IndexWriterConfig config = luceneDemoConfig.getWriterProfile(LuceneDemoConfig.PROFILE_BULK_REBUILD)
+                .newIndexWriterConfig(analyzer);
         IndexWriter writer = new IndexWriter(indexDirectory, config);
         writer.addDocuments(documents);
         writer.close();
@@ -300,28 +305,31 @@ public class QueryTest extends LuceneLearnApplicationTests {
     }
 
     private void queryData(Query query) throws IOException {
-        // 设置索引存储路径
-        Directory indexDir = FSDirectory.open(new File(luceneDemoConfig.getDemoIndexDbPath("testCreate")).toPath());
-
-        queryData(query, indexDir);
+        // 借用共享的searcher，reader在多次查询间复用
+        luceneSearcherRegistry.search("testCreate", indexSearcher -> {
+            printResult(indexSearcher, query);
+            return null;
+        });
     }
 
-    private static void queryData(Query query, Directory indexDir) throws IOException {
-        // 创建索引读取器
+    private void queryData(Query query, Directory indexDir) throws IOException {
+        // 创建索引读取器，searcher按配置决定是否查询内并发
         try (IndexReader indexReader = DirectoryReader.open(indexDir)) {
-            IndexSearcher indexSearcher = new IndexSearcher(indexReader);
-
-            TopDocs topDocs = indexSearcher.search(query, 10);
-            System.out.println("文档搜索结果，命中目标:" + topDocs.totalHits);
-            for (int i = 0; i < topDocs.scoreDocs.length; i++) {
-                ScoreDoc scoreDoc = topDocs.scoreDocs[i];
-                // 获取文档
-                Document doc = indexReader.document(scoreDoc.doc);
-
-                System.out.println("id:" + doc.get("id") + ",score:" + scoreDoc.score + ", \r\n\t\tcontent:" + doc.get("title"));
-            }
+            printResult(luceneSearcherRegistry.newSearcher(indexReader), query);
         }
         // 关闭索引读取器
         // indexReader.close();
     }
+
+    private static void printResult(IndexSearcher indexSearcher, Query query) throws IOException {
+        TopDocs topDocs = indexSearcher.search(query, 10);
+        System.out.println("文档搜索结果，命中目标:" + topDocs.totalHits);
+        for (int i = 0; i < topDocs.scoreDocs.length; i++) {
+            ScoreDoc scoreDoc = topDocs.scoreDocs[i];
+            // 获取文档，只读取要打印的字段
+            Document doc = indexSearcher.doc(scoreDoc.doc, PRINT_FIELDS);
+
+            System.out.println("id:" + doc.get("id") + ",score:" + scoreDoc.score + ", \r\n\t\tcontent:" + doc.get("title"));
+        }
+    }
 }
@@ -0,0 +1,207 @@
+package com.tc.lucene.casedemo;
+
+import com.tc.lucene.LuceneLearnApplicationTests;
+import com.tc.lucene.config.LuceneDemoConfig;
+import com.tc.lucene.dto.MavenJar;
+import com.tc.lucene.dto.MavenJarClass;
+import com.tc.lucene.dto.MavenSearchRequest;
+import com.tc.lucene.dto.PageResult;
+import com.tc.lucene.enums.MavenContentType;
+import com.tc.lucene.service.LuceneSearcherRegistry;
+import com.tc.lucene.service.MavenSearchService;
+import com.tc.lucene.util.ClassMemberReader;
+import org.apache.lucene.queryparser.classic.ParseException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author AnthubTC
+ * @version 1.0
+ * @className ClassMemberReaderTest
+ * @description
+ * @date 2026/10/18 21:30
+ **/
+@DisplayName("class成员解析")
+public class ClassMemberReaderTest extends LuceneLearnApplicationTests {
+    @TempDir
+    File tempDir;
+
+    @DisplayName("只输出public成员，签名使用简单类名")
+    @Test
+    public void publicMembers() throws IOException {
+        byte[] bytes = classBytes(SampleApi.class);
+        Set<String> members = new LinkedHashSet<>();
+        List<String> signatures = new ArrayList<>();
+        assertTrue(ClassMemberReader.read(bytes, bytes.length, members, signatures));
+        assertEquals(new LinkedHashSet<>(Arrays.asList("NAME", "INSTANCES", "count", "SampleApi", "readValue", "write", "entries",
+                "compareTo")), members);
+        assertEquals(Arrays.asList("SampleApi()", "SampleApi(String,int[])", "readValue(String,Class)",
+                "write(byte[],int,int)", "entries(Map.Entry[][],long)",
+                "compareTo(ClassMemberReaderTest.SampleApi)"), signatures);
+
+        byte[] hidden = classBytes(HiddenApi.class);
+        assertFalse(ClassMemberReader.read(hidden, hidden.length, members, signatures));
+        assertThrows(IOException.class, () -> ClassMemberReader.read(bytes, bytes.length / 2, members, signatures));
+    }
+
+    @DisplayName("开启后可以按成员名称和方法签名搜索")
+    @Test
+    public void searchMembers() throws IOException, ParseException {
+        File repositoryDir = new File(tempDir, "repository");
+        writeJar(new File(repositoryDir, "org/demo/demo-api/1.0/demo-api-1.0.jar"));
+        LuceneDemoConfig config = MavenRepoFixture.config(new File(tempDir, "index-db"), 2);
+        config.getMavenIndex().setIndexMembers(true);
+        MavenRepoFixture.indexer(config).rebuild(repositoryDir);
+        LuceneSearcherRegistry registry = new LuceneSearcherRegistry(config);
+        try {
+            MavenSearchService searchService = new MavenSearchService(config, registry);
+            assertEquals(SampleApi.class.getName(), searchClass(searchService, "members:readValue"));
+            assertEquals(SampleApi.class.getName(), searchClass(searchService, "members:value"));
+            assertEquals(SampleApi.class.getName(),
+                    searchClass(searchService, "methodSignatures:\"readValue(String, Class)\""));
+            assertEquals(SampleApi.class.getName(),
+                    searchClass(searchService, "methodSignatures:\"write(byte[],int,int)\""));
+            assertEquals(0, searchService.search(MavenSearchRequest.of(MavenContentType.Clazz,
+                    "methodSignatures:\"readValue(String)\"", 1, 10)).getTotal());
+            // 非public类和无法解析的class只有类名
+            assertEquals(0, searchService.search(MavenSearchRequest.of(MavenContentType.Clazz,
+                    "members:secretOperation", 1, 10)).getTotal());
+            assertEquals(1, searchService.search(MavenSearchRequest.of(MavenContentType.Clazz,
+                    "Broken", 1, 10)).getTotal());
+        } finally {
+            registry.destroy();
+        }
+
+        // 关闭时不解析class
+        config.getMavenIndex().setIndexMembers(false);
+        MavenRepoFixture.indexer(config).rebuild(repositoryDir);
+        registry = new LuceneSearcherRegistry(config);
+        try {
+            MavenSearchService searchService = new MavenSearchService(config, registry);
+            assertEquals(0, searchService.search(MavenSearchRequest.of(MavenContentType.Clazz,
+                    "members:readValue", 1, 10)).getTotal());
+        } finally {
+            registry.destroy();
+        }
+    }
+
+    private static String searchClass(MavenSearchService searchService, String keyword) throws IOException, ParseException {
+        PageResult<MavenJar> result = searchService.search(MavenSearchRequest.of(MavenContentType.Clazz, keyword, 1, 10));
+        assertEquals(1, result.getTotal(), keyword);
+        return ((MavenJarClass) result.getRecords().get(0)).getClassName();
+    }
+
+    /**
+     * SampleApi不压缩存储，其它class压缩
+     */
+    private static void writeJar(File jar) throws IOException {
+        jar.getParentFile().mkdirs();
+        try (JarOutputStream out = new JarOutputStream(new FileOutputStream(jar))) {
+            byte[] sample = classBytes(SampleApi.class);
+            JarEntry stored = new JarEntry(classEntry(SampleApi.class));
+            stored.setMethod(ZipEntry.STORED);
+            stored.setSize(sample.length);
+            CRC32 crc = new CRC32();
+            crc.update(sample);
+            stored.setCrc(crc.getValue());
+            out.putNextEntry(stored);
+            out.write(sample);
+            out.putNextEntry(new JarEntry(classEntry(HiddenApi.class)));
+            out.write(classBytes(HiddenApi.class));
+            out.putNextEntry(new JarEntry("org/demo/Broken.class"));
+            out.write(new byte[]{(byte) 0xCA, (byte) 0xFE, (byte) 0xBA, (byte) 0xBE, 0, 0});
+            out.closeEntry();
+        }
+    }
+
+    private static String classEntry(Class<?> clazz) {
+        return clazz.getName().replace('.', '/') + ".class";
+    }
+
+    private static byte[] classBytes(Class<?> clazz) throws IOException {
+        try (InputStream in = clazz.getClassLoader().getResourceAsStream(classEntry(clazz))) {
+            if (in == null) {
+                throw new IOException("找不到class: " + clazz.getName());
+            }
+            byte[] buffer = new byte[8192];
+            int length = 0;
+            int count;
+            while ((count = in.read(buffer, length, buffer.length - length)) > 0) {
+                length += count;
+                if (length == buffer.length) {
+                    buffer = Arrays.copyOf(buffer, buffer.length * 2);
+                }
+            }
+            return Arrays.copyOf(buffer, length);
+        }
+    }
+
+    /**
+     * 解析用的示例类，compareTo会生成bridge方法，lambda会生成synthetic方法
+     */
+    public static class SampleApi implements Comparable<SampleApi> {
+        public static final String NAME = "sample";
+        public static final List<String> INSTANCES = new ArrayList<>();
+        public int count;
+        private String hidden;
+
+        public SampleApi() {
+        }
+
+        public SampleApi(String hidden, int[] counts) {
+            this.hidden = hidden;
+            this.count = counts.length;
+        }
+
+        public <T> T readValue(String content, Class<T> type) {
+            Supplier<T> supplier = () -> type.cast(content + hidden);
+            return supplier.get();
+        }
+
+        public void write(byte[] bytes, int offset, int length) {
+            throw new UncheckedIOException(new IOException("不支持"));
+        }
+
+        public static void entries(Map.Entry<String, String>[][] entries, long limit) {
+        }
+
+        protected void protectedValue() {
+        }
+
+        private void privateValue() {
+        }
+
+        @Override
+        public int compareTo(SampleApi other) {
+            return Integer.compare(count, other.count);
+        }
+    }
+
+    static class HiddenApi {
+        public void secretOperation() {
+        }
+    }
+}
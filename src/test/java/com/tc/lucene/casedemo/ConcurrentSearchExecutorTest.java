@@ -0,0 +1,126 @@
+package com.tc.lucene.casedemo;
+
+import com.tc.lucene.LuceneLearnApplicationTests;
+import com.tc.lucene.config.LuceneDemoConfig;
+import com.tc.lucene.service.ConcurrentSearchExecutor;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.NoMergePolicy;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.search.WildcardQuery;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author AnthubTC
+ * @version 1.0
+ * @className ConcurrentSearchExecutorTest
+ * @description
+ * @date 2026/10/18 19:35
+ **/
+@DisplayName("查询内并发")
+public class ConcurrentSearchExecutorTest extends LuceneLearnApplicationTests {
+
+    @DisplayName("切片数受限，结果与单线程一致")
+    @Test
+    public void slicesAndResults() throws IOException {
+        LuceneDemoConfig.Searcher config = new LuceneDemoConfig.Searcher();
+        config.setConcurrentThreads(2);
+        config.setMaxDocsPerSlice(100);
+        config.setMaxSegmentsPerSlice(1);
+        config.setMaxSlicesPerQuery(3);
+        try (Directory directory = writeSegments(10, 100);
+             DirectoryReader reader = DirectoryReader.open(directory);
+             ConcurrentSearchExecutor executor = new ConcurrentSearchExecutor(config)) {
+            IndexSearcher searcher = executor.newSearcher(reader);
+            IndexSearcher.LeafSlice[] slices = searcher.getSlices();
+            assertEquals(3, slices.length);
+            int segments = 0;
+            for (IndexSearcher.LeafSlice slice : slices) {
+                // 10个段均衡分到3个切片
+                assertTrue(slice.leaves.length >= 3 && slice.leaves.length <= 4);
+                segments += slice.leaves.length;
+            }
+            assertEquals(10, segments);
+
+            Query query = new WildcardQuery(new Term("className", "*util*"));
+            TopDocs expected = new IndexSearcher(reader).search(query, 20);
+            TopDocs actual = searcher.search(query, 20);
+            assertEquals(expected.totalHits, actual.totalHits);
+            assertArrayEquals(docs(expected), docs(actual));
+        }
+    }
+
+    @DisplayName("线程都在忙时切片在调用线程上执行")
+    @Test
+    public void callerRunsWhenBusy() throws IOException, InterruptedException {
+        LuceneDemoConfig.Searcher config = new LuceneDemoConfig.Searcher();
+        config.setConcurrentThreads(1);
+        try (ConcurrentSearchExecutor executor = new ConcurrentSearchExecutor(config)) {
+            CountDownLatch release = new CountDownLatch(1);
+            CountDownLatch started = new CountDownLatch(1);
+            executor.execute(() -> {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            started.await();
+            Set<Thread> threads = ConcurrentHashMap.newKeySet();
+            executor.execute(() -> threads.add(Thread.currentThread()));
+            release.countDown();
+            assertEquals(1, threads.size());
+            assertTrue(threads.contains(Thread.currentThread()));
+        }
+    }
+
+    /**
+     * 不合并，每次提交产生一个段
+     */
+    private static Directory writeSegments(int segments, int docsPerSegment) throws IOException {
+        Directory directory = new ByteBuffersDirectory();
+        IndexWriterConfig conf = new IndexWriterConfig(new StandardAnalyzer()).setMergePolicy(NoMergePolicy.INSTANCE);
+        try (IndexWriter writer = new IndexWriter(directory, conf)) {
+            for (int segment = 0; segment < segments; segment++) {
+                for (int i = 0; i < docsPerSegment; i++) {
+                    Document document = new Document();
+                    document.add(new StringField("id", segment + "-" + i, Field.Store.YES));
+                    document.add(new TextField("className", i % 3 == 0 ? "StringUtils" : "ObjectMapper", Field.Store.NO));
+                    writer.addDocument(document);
+                }
+                writer.commit();
+            }
+        }
+        return directory;
+    }
+
+    private static int[] docs(TopDocs topDocs) {
+        int[] docs = new int[topDocs.scoreDocs.length];
+        for (int i = 0; i < docs.length; i++) {
+            docs[i] = topDocs.scoreDocs[i].doc;
+        }
+        return docs;
+    }
+}
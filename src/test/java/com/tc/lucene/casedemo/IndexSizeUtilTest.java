@@ -0,0 +1,102 @@
+package com.tc.lucene.casedemo;
+
+import com.tc.lucene.LuceneLearnApplicationTests;
+import com.tc.lucene.config.LuceneDemoConfig;
+import com.tc.lucene.dto.IndexSizeReport;
+import com.tc.lucene.service.MavenRepoIndexer;
+import org.apache.lucene.codecs.lucene87.Lucene87Codec;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author AnthubTC
+ * @version 1.0
+ * @className IndexSizeUtilTest
+ * @description
+ * @date 2026/10/18 23:10
+ **/
+@DisplayName("索引编解码和大小报告")
+public class IndexSizeUtilTest extends LuceneLearnApplicationTests {
+    @TempDir
+    File tempDir;
+
+    @DisplayName("按文件类型和字段统计")
+    @Test
+    public void report() throws IOException {
+        File repositoryDir = new File(tempDir, "repository");
+        MavenRepoFixture.writeSampleRepository(repositoryDir);
+        LuceneDemoConfig config = MavenRepoFixture.config(new File(tempDir, "index-db"), 2);
+        MavenRepoIndexer indexer = MavenRepoFixture.indexer(config);
+        indexer.rebuild(repositoryDir);
+
+        IndexSizeReport report = indexer.sizeReport();
+        System.out.println(report);
+        assertEquals(Collections.singleton(Lucene87Codec.Mode.BEST_COMPRESSION.name()), report.getStoredFieldsModes());
+        assertTrue(report.getTotalBytes() > 0);
+        assertTrue(report.getFileTypes().containsKey("fdt"));
+        // filePath、classSetId使用BloomFilter
+        assertTrue(report.getFileTypes().containsKey("blm"));
+        assertEquals("BloomFilter", field(report, "filePath").getPostingsFormat());
+        // 没有查询使用gav，不再建索引
+        assertTrue(report.getFields().stream().noneMatch(field -> field.getName().equals("gav")));
+        assertEquals("Lucene84", field(report, "groupId").getPostingsFormat());
+        assertEquals(3, field(report, "filePath").getTerms());
+
+        IndexSizeReport.FieldSize ngram = field(report, "className.ngram");
+        assertEquals("DOCS", ngram.getIndexOptions());
+        assertFalse(ngram.isNorms());
+        assertEquals(0, ngram.getPositions());
+        IndexSizeReport.FieldSize className = field(report, "className");
+        assertTrue(className.isNorms());
+        assertTrue(className.getPositions() > 0);
+        assertTrue(className.getStoredBytes() > 0);
+        assertEquals("SORTED", className.getDocValuesType());
+        assertTrue(field(report, "filePath").getStoredBytes() > 0);
+        // 没有新提交时不重新统计
+        assertSame(report, indexer.sizeReport());
+
+        // 增量更新写入复合文件，按内部文件统计
+        MavenRepoFixture.writeJar(repositoryDir, "org.demo", "demo-api", "1.0.0", "org/demo/api/Api.class");
+        indexer.incremental(repositoryDir);
+        IndexSizeReport previous = report;
+        report = indexer.sizeReport();
+        assertNotSame(previous, report);
+        assertFalse(report.getFileTypes().containsKey("cfs"));
+        assertEquals(4, field(report, "filePath").getTerms());
+    }
+
+    @DisplayName("存储字段压缩方式可配置")
+    @Test
+    public void storedFieldsMode() throws IOException {
+        File repositoryDir = new File(tempDir, "repository");
+        MavenRepoFixture.writeSampleRepository(repositoryDir);
+        LuceneDemoConfig config = MavenRepoFixture.config(new File(tempDir, "index-db"), 2);
+        config.getCodec().setStoredFieldsMode(Lucene87Codec.Mode.BEST_SPEED);
+        config.getCodec().setBloomFilterFields(Collections.emptySet());
+        MavenRepoIndexer indexer = MavenRepoFixture.indexer(config);
+        indexer.rebuild(repositoryDir);
+
+        IndexSizeReport report = indexer.sizeReport();
+        assertEquals(Collections.singleton(Lucene87Codec.Mode.BEST_SPEED.name()), report.getStoredFieldsModes());
+        assertFalse(report.getFileTypes().containsKey("blm"));
+        assertEquals("Lucene84", field(report, "filePath").getPostingsFormat());
+    }
+
+    private static IndexSizeReport.FieldSize field(IndexSizeReport report, String name) {
+        return report.getFields().stream()
+                .filter(field -> field.getName().equals(name))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("没有字段: " + name));
+    }
+}
@@ -0,0 +1,172 @@
+package com.tc.lucene.casedemo;
+
+import com.tc.lucene.LuceneLearnApplicationTests;
+import com.tc.lucene.util.JarClassScanner;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * @author AnthubTC
+ * @version 1.0
+ * @className JarClassScannerTest
+ * @description
+ * @date 2026/10/18 20:40
+ **/
+@DisplayName("jar中央目录扫描")
+public class JarClassScannerTest extends LuceneLearnApplicationTests {
+    private static final String[] ENTRIES = {
+            "META-INF/MANIFEST.MF", "org/", "org/demo/", "org/demo/Foo.class", "org/demo/Foo$Bar.class",
+            "org/demo/Foo$1.class", "org/demo/Ünïcode.class", "module-info.class", "org/demo/package-info.class",
+            "META-INF/versions/9/module-info.class", "META-INF/versions/11/org/demo/Foo.class", "org/demo/app.properties"};
+
+    @TempDir
+    File tempDir;
+
+    @DisplayName("不过滤时与JarFile逐个entry读取的结果一致")
+    @Test
+    public void sameAsJarFile() throws IOException {
+        File jar = writeZip(new File(tempDir, "demo.jar"), "jar注释", ENTRIES);
+        List<String> expected = jarFileClasses(jar);
+        assertEquals(8, expected.size());
+        assertEquals(expected, scan(new JarClassScanner(false, false, false), jar));
+    }
+
+    @DisplayName("跳过内部类、module-info和多版本目录")
+    @Test
+    public void skipOptions() throws IOException {
+        File jar = writeZip(new File(tempDir, "demo.jar"), null, ENTRIES);
+        assertEquals(Arrays.asList("org.demo.Foo", "org.demo.Ünïcode", "org.demo.package-info"),
+                scan(new JarClassScanner(true, true, true), jar));
+        assertEquals(Arrays.asList("org.demo.Foo", "org.demo.Ünïcode", "module-info", "org.demo.package-info"),
+                scan(new JarClassScanner(true, false, true), jar));
+        assertEquals(6, scan(new JarClassScanner(false, true, false), jar).size());
+    }
+
+    @DisplayName("多版本目录中只有与根目录重复的class被跳过")
+    @Test
+    public void versionedOnlyClasses() throws IOException {
+        File jar = writeZip(new File(tempDir, "mr.jar"), null, "org/demo/Foo.class",
+                "META-INF/versions/11/org/demo/Foo.class", "META-INF/versions/11/org/demo/Java11Only.class",
+                "META-INF/versions/17/org/demo/Java11Only.class", "META-INF/versions/17/org/demo/Java17Only.class");
+        assertEquals(Arrays.asList("org.demo.Foo", "org.demo.Java11Only", "org.demo.Java17Only"),
+                scan(new JarClassScanner(false, false, true), jar));
+        assertEquals(5, scan(new JarClassScanner(false, false, false), jar).size());
+    }
+
+    @DisplayName("ZIP64和前面拼接了脚本的jar")
+    @Test
+    public void zip64AndPrefixed() throws IOException {
+        // entry数超过65535时写ZIP64记录
+        String[] entries = new String[70_000];
+        for (int i = 0; i < entries.length; i++) {
+            entries[i] = "org/demo/gen/Class" + i + ".class";
+        }
+        File zip64 = writeZip(new File(tempDir, "zip64.jar"), null, entries);
+        List<String> classes = scan(new JarClassScanner(false, false, false), zip64);
+        assertEquals(70_000, classes.size());
+        assertEquals("org.demo.gen.Class69999", classes.get(69_999));
+
+        File jar = writeZip(new File(tempDir, "demo.jar"), null, ENTRIES);
+        File prefixed = new File(tempDir, "prefixed.jar");
+        try (OutputStream out = new FileOutputStream(prefixed)) {
+            out.write("#!/bin/sh\nexec java -jar \"$0\" \"$@\"\n".getBytes(StandardCharsets.UTF_8));
+            out.write(Files.readAllBytes(jar.toPath()));
+        }
+        assertEquals(jarFileClasses(jar), scan(new JarClassScanner(false, false, false), prefixed));
+    }
+
+    @DisplayName("读取class内容，超过大小上限时只有类名")
+    @Test
+    public void scanContent() throws IOException {
+        File jar = writeZip(new File(tempDir, "demo.jar"), null, ENTRIES);
+        File prefixed = new File(tempDir, "prefixed.jar");
+        try (OutputStream out = new FileOutputStream(prefixed)) {
+            out.write("#!/bin/sh\n".getBytes(StandardCharsets.UTF_8));
+            out.write(Files.readAllBytes(jar.toPath()));
+        }
+        List<String> contents = new ArrayList<>();
+        JarClassScanner.ClassEntryConsumer consumer = (className, classFile, length) ->
+                contents.add(className + "=" + (classFile == null ? null : Arrays.toString(Arrays.copyOf(classFile, length))));
+        assertEquals(8, new JarClassScanner(false, false, false).scanContent(prefixed.toPath(), consumer));
+        assertEquals(8, contents.size());
+        assertEquals("org.demo.Foo=[-54, -2]", contents.get(0));
+
+        contents.clear();
+        new JarClassScanner(true, true, true, 1).scanContent(jar.toPath(), consumer);
+        assertEquals(Arrays.asList("org.demo.Foo=null", "org.demo.Ünïcode=null", "org.demo.package-info=null"), contents);
+    }
+
+    @DisplayName("无效的jar抛出异常")
+    @Test
+    public void invalidJar() throws IOException {
+        JarClassScanner scanner = new JarClassScanner(false, false, false);
+        File garbage = new File(tempDir, "garbage.jar");
+        Files.write(garbage.toPath(), "not a zip file, just some text".getBytes(StandardCharsets.UTF_8));
+        assertThrows(ZipException.class, () -> scan(scanner, garbage));
+
+        // 截掉中央目录的前半部分
+        byte[] bytes = Files.readAllBytes(writeZip(new File(tempDir, "demo.jar"), null, ENTRIES).toPath());
+        File truncated = new File(tempDir, "truncated.jar");
+        Files.write(truncated.toPath(), Arrays.copyOfRange(bytes, bytes.length / 2, bytes.length));
+        assertThrows(ZipException.class, () -> scan(scanner, truncated));
+    }
+
+    private static List<String> scan(JarClassScanner scanner, File jar) throws IOException {
+        List<String> classes = new ArrayList<>();
+        assertEquals(scanner.scan(jar.toPath(), classes::add), classes.size());
+        return classes;
+    }
+
+    /**
+     * 原来的读取方式
+     */
+    private static List<String> jarFileClasses(File jar) throws IOException {
+        List<String> classes = new ArrayList<>();
+        try (JarFile jarFile = new JarFile(jar)) {
+            Enumeration<JarEntry> entries = jarFile.entries();
+            while (entries.hasMoreElements()) {
+                String name = entries.nextElement().getName();
+                if (name.endsWith(".class")) {
+                    classes.add(name.replaceAll("/", ".").replace(".class", ""));
+                }
+            }
+        }
+        return classes;
+    }
+
+    private static File writeZip(File file, String comment, String... entryNames) throws IOException {
+        try (ZipOutputStream out = new ZipOutputStream(new FileOutputStream(file))) {
+            if (comment != null) {
+                out.setComment(comment);
+            }
+            for (String entryName : entryNames) {
+                out.putNextEntry(new ZipEntry(entryName));
+                if (!entryName.endsWith("/")) {
+                    out.write(new byte[]{(byte) 0xCA, (byte) 0xFE});
+                }
+                out.closeEntry();
+            }
+        }
+        return file;
+    }
+}
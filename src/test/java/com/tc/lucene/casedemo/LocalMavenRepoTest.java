@@ -1,24 +1,19 @@
 package com.tc.lucene.casedemo;
 
-import cn.hutool.core.collection.CollUtil;
-import cn.hutool.core.io.FileUtil;
 import com.tc.lucene.LuceneLearnApplication;
 import com.tc.lucene.LuceneLearnApplicationTests;
 import com.tc.lucene.config.LuceneDemoConfig;
 import com.tc.lucene.dto.MavenArtifact;
+import com.tc.lucene.dto.MavenIndexStats;
 import com.tc.lucene.dto.MavenJar;
 import com.tc.lucene.dto.MavenJarClass;
+import com.tc.lucene.dto.MavenSearchRequest;
 import com.tc.lucene.enums.MavenContentType;
+import com.tc.lucene.enums.MavenSortType;
+import com.tc.lucene.service.MavenRepoIndexer;
+import com.tc.lucene.service.MavenSearchService;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.lucene.analysis.Analyzer;
-import org.apache.lucene.analysis.core.SimpleAnalyzer;
-import org.apache.lucene.document.Document;
-import org.apache.lucene.index.*;
 import org.apache.lucene.queryparser.classic.ParseException;
-import org.apache.lucene.queryparser.classic.QueryParser;
-import org.apache.lucene.search.*;
-import org.apache.lucene.store.Directory;
-import org.apache.lucene.store.FSDirectory;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.SpringApplication;
@@ -28,9 +23,6 @@ import javax.annotation.Resource;
 import java.io.File;
 import java.io.IOException;
 import java.util.*;
-import java.util.function.Consumer;
-import java.util.jar.JarEntry;
-import java.util.jar.JarFile;
 
 /**
  * @author AnthubTC
@@ -44,37 +36,29 @@ import java.util.jar.JarFile;
 public class LocalMavenRepoTest extends LuceneLearnApplicationTests {
     @Resource
     private LuceneDemoConfig luceneDemoConfig;
+    @Resource
+    private MavenRepoIndexer mavenRepoIndexer;
+    @Resource
+    private MavenSearchService mavenSearchService;
 
     @DisplayName("建立maven索引")
     @Test
     public void create() throws IOException {
         File repositoryDir = new File("D:\\soft\\0_mavenRepos\\repository");
-        // 2 索引目录类,指定索引在硬盘中的位置
-        Directory directory = FSDirectory.open(new File(getIdxSavePath()).toPath());
-        // 3 创建分词器对象
-        Analyzer analyzer = new SimpleAnalyzer();
-        // 4 索引写出工具的配置对象
-        IndexWriterConfig conf = new IndexWriterConfig(analyzer);
-        // 5 创建索引的写出工具类。参数：索引的目录和配置信息
-        IndexWriter indexWriter = new IndexWriter(directory, conf);
-        // 6 把文档交给IndexWriter
-        iterIndexMavenRepository(repositoryDir, file -> {
-            try {
-                MavenArtifact mavenArtifact = buildMavenArtifact(repositoryDir, file);
-                indexWriter.addDocument(mavenArtifact.toDocument());
+        // jar扫描、文档构建并行处理，交给线程安全的IndexWriter
+        MavenIndexStats stats = mavenRepoIndexer.rebuild(repositoryDir);
 
-                List<MavenJarClass> mavenJarClasses = buildMavenJarClass(mavenArtifact);
-                indexWriter.addDocuments(MavenJarClass.toDocuments(mavenJarClasses));
-            } catch (IOException e) {
-                throw new RuntimeException(e);
-            }
-        });
-        // 7 提交
-        indexWriter.commit();
-        // 8 关闭
-        indexWriter.close();
+        System.out.println("\r\n\r\n======== maven库索引建立完成！" + stats + " ========\r\n\r\n");
+    }
+
+    @DisplayName("增量更新maven索引")
+    @Test
+    public void incremental() throws IOException {
+        File repositoryDir = new File("D:\\soft\\0_mavenRepos\\repository");
+        // 未变化的jar跳过，变化的jar按文件路径替换，已删除的jar从索引中删除
+        MavenIndexStats stats = mavenRepoIndexer.incremental(repositoryDir);
 
-        System.out.println("\r\n\r\n======== maven库索引建立完成！========\r\n\r\n");
+        System.out.println("\r\n\r\n======== maven库索引增量更新完成！" + stats + " ========\r\n\r\n");
     }
 
     private static final String headStr = "================maven search=================\r\n";
@@ -91,6 +75,7 @@ public class LocalMavenRepoTest extends LuceneLearnApplicationTests {
 
         LocalMavenRepoTest localMavenRepoTest = new LocalMavenRepoTest();
         localMavenRepoTest.setLuceneDemoConfig(config);
+        localMavenRepoTest.setMavenSearchService(applicationContext.getBean(MavenSearchService.class));
 
         // 开始搜索
         localMavenRepoTest.search();
@@ -128,7 +113,6 @@ public class LocalMavenRepoTest extends LuceneLearnApplicationTests {
     }
 
     private void jarClassSearch() {
-        QueryParser parser = new QueryParser("className", new SimpleAnalyzer());
         while (true) {
             if (mavenSearch(MavenContentType.Clazz)) return;
         }
@@ -184,123 +168,12 @@ public class LocalMavenRepoTest extends LuceneLearnApplicationTests {
     }
 
     private void luceneSearch(MavenContentType searchType, String optIn, List<MavenJar> mavenJars) throws ParseException, IOException {
-        String filed = MavenContentType.Artifact == searchType ? "artifactId" : "className";
-        Query query1 = new QueryParser(filed, new SimpleAnalyzer()).parse(optIn);
-        Query query2 = new TermQuery(new Term("type", String.valueOf(searchType.getType())));
-
-        BooleanQuery.Builder booleanQueryBuilder = new BooleanQuery.Builder();
-        booleanQueryBuilder.add(query1, BooleanClause.Occur.MUST);
-        booleanQueryBuilder.add(query2, BooleanClause.Occur.MUST);
-
-        Query query = booleanQueryBuilder.build();
-
-
-        // 创建索引读取器
-        Directory directory = FSDirectory.open(new File(getIdxSavePath()).toPath());
-        try (IndexReader indexReader = DirectoryReader.open(directory)) {
-            IndexSearcher indexSearcher = new IndexSearcher(indexReader);
-            TopDocs topDocs = indexSearcher.search(query, 10);
-            for (int i = 0; i < topDocs.scoreDocs.length; i++) {
-                ScoreDoc scoreDoc = topDocs.scoreDocs[i];
-                // 获取文档
-
-                Document doc = indexReader.document(scoreDoc.doc);
-                MavenContentType contentType = MavenContentType.getEnum(doc.get("type"));
-                if (MavenContentType.Artifact == contentType) {
-                    MavenArtifact mavenArtifact = MavenArtifact.fromDocument(doc);
-                    mavenJars.add(mavenArtifact);
-                } else if (MavenContentType.Clazz == contentType) {
-                    MavenJarClass mavenJarClass = MavenJarClass.fromDocument(doc);
-                    mavenJars.add(mavenJarClass);
-                }
-            }
-        }
-
-        // 做下排序
-        mavenJars.sort((a, b) -> {
-            MavenArtifact a1 = (MavenArtifact) a;
-            MavenArtifact b1 = (MavenArtifact) b;
-            if (a1.getArtifactId().equals(b1.getArtifactId())) {
-                return b1.getVersion().compareTo(a1.getVersion());
-            }
-            return a1.getArtifactId().compareTo(b1.getArtifactId());
-        });
-    }
-
-
-    private String getIdxSavePath() {
-        return luceneDemoConfig.getDemoIndexDbPath("mvn");
-    }
-    private List<MavenJarClass> buildMavenJarClass(MavenArtifact mavenArtifact) {
-        List<MavenJarClass> mavenJarClasses = new ArrayList<>();
-        try (JarFile jarFile = new JarFile(mavenArtifact.getFilePath())) {
-            Enumeration<JarEntry> entries = jarFile.entries();
-
-            while (entries.hasMoreElements()) {
-                JarEntry entry = entries.nextElement();
-                if (entry.getName().endsWith(".class")) {
-                    String className = entry.getName().replaceAll("/", ".").replace(".class", "");
-                    // System.out.println(className);
-
-                    MavenJarClass mavenJarClass = MavenJarClass.create(mavenArtifact);
-                    mavenJarClass.setClassName(className);
-                    mavenJarClasses.add(mavenJarClass);
-                }
-            }
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
-        return mavenJarClasses;
-    }
-
-    private MavenArtifact buildMavenArtifact(File repositoryDir, File file) {
-        String absolutePath = file.getAbsolutePath();
-        String version = file.getParentFile().getName();
-        String artifactId = file.getName().substring(0, file.getName().indexOf(version) - 1);
-        String groupId = getGroupId(file, repositoryDir);
-
-        MavenArtifact mavenArtifact = new MavenArtifact();
-        mavenArtifact.setGroupId(groupId);
-        mavenArtifact.setArtifactId(artifactId);
-        mavenArtifact.setVersion(version);
-        mavenArtifact.setFilePath(absolutePath);
-        // System.out.println(mavenArtifact);
-        return mavenArtifact;
-    }
-
-    private void iterIndexMavenRepository(File repositoryDir, Consumer<File> mavenArtifactConsumer) {
-        List<File> files = FileUtil.loopFiles(repositoryDir, pathname -> {
-            String name = pathname.getAbsolutePath().substring(repositoryDir.getAbsolutePath().length() + 1);
-            if (name.startsWith("caches")) {
-                // 跳过缓存目录
-                return false;
-            }
-            if (pathname.getName().endsWith(".jar")) {
-                // 文件名中包含版本号
-                return pathname.getName().contains(pathname.getParentFile().getName());
-            }
-            return false;
-        });
-
-        final int TOTAL_FILE_SIZE = files.size();
-        System.out.println("待索引的文件总数:" + TOTAL_FILE_SIZE + "个");
-        for (int i = 0; i < TOTAL_FILE_SIZE; i++) {
-            File file = files.get(i);
-            System.out.println((int) (Math.ceil(i * 100.0 / TOTAL_FILE_SIZE)) + "%,  " + file.getAbsolutePath());
-
-            mavenArtifactConsumer.accept(file);
-        }
-    }
-
-    private String getGroupId(File file, File repositoryDir) {
-        List<String> dirList = new ArrayList<>();
-        file = file.getParentFile().getParentFile();
-        while (!file.equals(repositoryDir)) {
-            dirList.add(file.getName());
-            file = file.getParentFile();
-        }
-        Collections.reverse(dirList);
-        return CollUtil.join(dirList, ".");
+        // 查询逻辑在MavenSearchService中，reader在多次查询间共享；按artifactId、版本倒序的排序在索引中完成
+        MavenSearchRequest request = MavenSearchRequest.of(searchType, optIn, 1, 10);
+        request.setSort(MavenSortType.Version);
+        // 类搜索时同一artifact只显示最高版本
+        request.setCollapse(MavenContentType.Clazz == searchType);
+        mavenJars.addAll(mavenSearchService.search(request).getRecords());
     }
 
     public LuceneDemoConfig getLuceneDemoConfig() {
@@ -310,4 +183,8 @@ public class LocalMavenRepoTest extends LuceneLearnApplicationTests {
     public void setLuceneDemoConfig(LuceneDemoConfig luceneDemoConfig) {
         this.luceneDemoConfig = luceneDemoConfig;
     }
+
+    public void setMavenSearchService(MavenSearchService mavenSearchService) {
+        this.mavenSearchService = mavenSearchService;
+    }
 }
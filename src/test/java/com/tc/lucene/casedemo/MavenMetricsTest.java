@@ -0,0 +1,90 @@
+package com.tc.lucene.casedemo;
+
+import com.tc.lucene.LuceneLearnApplicationTests;
+import com.tc.lucene.config.LuceneDemoConfig;
+import com.tc.lucene.dto.MavenSearchRequest;
+import com.tc.lucene.enums.MavenContentType;
+import com.tc.lucene.service.LuceneSearcherRegistry;
+import com.tc.lucene.service.MavenMetrics;
+import com.tc.lucene.service.MavenRepoIndexer;
+import com.tc.lucene.service.MavenSearchService;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.lucene.queryparser.classic.ParseException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author AnthubTC
+ * @version 1.0
+ * @className MavenMetricsTest
+ * @description
+ * @date 2026/10/18 23:40
+ **/
+@DisplayName("索引、搜索耗时指标")
+public class MavenMetricsTest extends LuceneLearnApplicationTests {
+    @TempDir
+    File tempDir;
+
+    @DisplayName("按阶段记录")
+    @Test
+    public void phases() throws IOException, ParseException {
+        File repositoryDir = new File(tempDir, "repository");
+        MavenRepoFixture.writeSampleRepository(repositoryDir);
+        // 与demo-core 1.0.0的class相同，复用class集合
+        MavenRepoFixture.writeJar(repositoryDir, "org.demo", "demo-core", "0.9.0",
+                "org/demo/core/Foo.class", "org/demo/core/Bar.class");
+        LuceneDemoConfig config = MavenRepoFixture.config(new File(tempDir, "index-db"), 2);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        MavenMetrics mavenMetrics = new MavenMetrics(meterRegistry);
+        new MavenRepoIndexer(config, event -> {
+        }, mavenMetrics).rebuild(repositoryDir);
+
+        String profile = LuceneDemoConfig.PROFILE_BULK_REBUILD;
+        assertEquals(1, indexTimer(meterRegistry, MavenMetrics.PHASE_WALK, MavenMetrics.TYPE_ALL, profile).count());
+        assertEquals(4, indexTimer(meterRegistry, MavenMetrics.PHASE_SCAN, "Clazz", profile).count());
+        assertEquals(4, indexTimer(meterRegistry, MavenMetrics.PHASE_BUILD, "ClassSet", profile).count());
+        assertEquals(3, indexTimer(meterRegistry, MavenMetrics.PHASE_WRITE, "ClassSet", profile).count());
+        assertEquals(4, indexTimer(meterRegistry, MavenMetrics.PHASE_BUILD, "Artifact", profile).count());
+        assertEquals(4, indexTimer(meterRegistry, MavenMetrics.PHASE_WRITE, "Artifact", profile).count());
+        assertEquals(1, indexTimer(meterRegistry, MavenMetrics.PHASE_COMMIT, MavenMetrics.TYPE_ALL, profile).count());
+        assertTrue(indexTimer(meterRegistry, MavenMetrics.PHASE_SCAN, "Clazz", profile).totalTime(TimeUnit.NANOSECONDS) > 0);
+
+        LuceneSearcherRegistry registry = new LuceneSearcherRegistry(config);
+        try {
+            MavenSearchService searchService = new MavenSearchService(config, registry, mavenMetrics);
+            searchService.search(MavenContentType.Artifact, "demo", 1, 10);
+            searchService.search(MavenContentType.Clazz, "className:Foo", 1, 10);
+            MavenSearchRequest collapse = MavenSearchRequest.of(MavenContentType.Clazz, "className:Foo", 1, 10);
+            collapse.setCollapse(true);
+            searchService.search(collapse);
+            // 命中缓存的查询不记录
+            searchService.search(MavenContentType.Artifact, "demo", 1, 10);
+        } finally {
+            registry.destroy();
+        }
+        for (String phase : new String[]{MavenMetrics.PHASE_ADMISSION, MavenMetrics.PHASE_PARSE,
+                MavenMetrics.PHASE_SEARCH, MavenMetrics.PHASE_HYDRATE}) {
+            assertEquals(1, searchTimer(meterRegistry, phase, "Artifact", MavenMetrics.QUERY_TERMS).count(), phase);
+            assertEquals(2, searchTimer(meterRegistry, phase, "Clazz", MavenMetrics.QUERY_PARSER).count(), phase);
+        }
+        assertNull(meterRegistry.find(MavenMetrics.SEARCH_PHASE).tags("type", "Clazz", "query", MavenMetrics.QUERY_TERMS).timer());
+    }
+
+    private static Timer indexTimer(SimpleMeterRegistry meterRegistry, String phase, String type, String profile) {
+        return meterRegistry.get(MavenMetrics.INDEX_PHASE).tags("phase", phase, "type", type, "profile", profile).timer();
+    }
+
+    private static Timer searchTimer(SimpleMeterRegistry meterRegistry, String phase, String type, String query) {
+        return meterRegistry.get(MavenMetrics.SEARCH_PHASE).tags("phase", phase, "type", type, "query", query).timer();
+    }
+}
@@ -0,0 +1,78 @@
+package com.tc.lucene.casedemo;
+
+import com.tc.lucene.config.LuceneDemoConfig;
+import com.tc.lucene.service.MavenRepoIndexer;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+/**
+ * @author AnthubTC
+ * @version 1.0
+ * @className MavenRepoFixture
+ * @description 测试用的迷你maven仓库
+ * @date 2026/10/18 10:40
+ **/
+public class MavenRepoFixture {
+
+    /**
+     * 在仓库中写一个jar，entry为空内容
+     * @param repositoryDir 仓库目录
+     * @param groupId       groupId
+     * @param artifactId    artifactId
+     * @param version       version
+     * @param entryNames    jar中的entry，例如 org/demo/Foo.class
+     * @return jar文件
+     */
+    public static File writeJar(File repositoryDir, String groupId, String artifactId, String version,
+                                String... entryNames) throws IOException {
+        return writeClassifierJar(repositoryDir, groupId, artifactId, version, null, entryNames);
+    }
+
+    /**
+     * 写入带classifier的jar，例如 demo-core-1.0.0-sources.jar，与主jar在同一个版本目录下
+     * @param classifier 为null时写入主jar
+     */
+    public static File writeClassifierJar(File repositoryDir, String groupId, String artifactId, String version,
+                                          String classifier, String... entryNames) throws IOException {
+        File versionDir = new File(repositoryDir, groupId.replace('.', File.separatorChar)
+                + File.separator + artifactId + File.separator + version);
+        versionDir.mkdirs();
+        File jar = new File(versionDir, artifactId + "-" + version + (classifier == null ? "" : "-" + classifier) + ".jar");
+        try (JarOutputStream out = new JarOutputStream(new FileOutputStream(jar))) {
+            for (String entryName : entryNames) {
+                out.putNextEntry(new JarEntry(entryName));
+                out.write(new byte[]{(byte) 0xCA, (byte) 0xFE});
+                out.closeEntry();
+            }
+        }
+        return jar;
+    }
+
+    /**
+     * 示例仓库：demo-core两个版本，acme-util一个版本
+     */
+    public static void writeSampleRepository(File repositoryDir) throws IOException {
+        writeJar(repositoryDir, "org.demo", "demo-core", "1.0.0",
+                "org/demo/core/Foo.class", "org/demo/core/Bar.class", "META-INF/MANIFEST.MF");
+        writeJar(repositoryDir, "org.demo", "demo-core", "1.1.0",
+                "org/demo/core/Foo.class", "org/demo/core/Bar.class", "org/demo/core/Baz.class");
+        writeJar(repositoryDir, "com.acme", "acme-util", "2.0",
+                "com/acme/StringUtils.class");
+    }
+
+    public static MavenRepoIndexer indexer(LuceneDemoConfig config) {
+        return new MavenRepoIndexer(config, event -> {
+        });
+    }
+
+    public static LuceneDemoConfig config(File indexDbDir, int threads) {
+        LuceneDemoConfig config = new LuceneDemoConfig();
+        config.setIndexDbPath(indexDbDir.getAbsolutePath());
+        config.getMavenIndex().setThreads(threads);
+        return config;
+    }
+}
@@ -0,0 +1,680 @@
+package com.tc.lucene.casedemo;
+
+import com.tc.lucene.LuceneLearnApplicationTests;
+import com.tc.lucene.config.LuceneDemoConfig;
+import com.tc.lucene.dto.MavenArtifact;
+import com.tc.lucene.dto.MavenIndexStats;
+import com.tc.lucene.enums.MavenContentType;
+import com.tc.lucene.event.IndexCommittedEvent;
+import com.tc.lucene.service.LuceneSearcherRegistry;
+import com.tc.lucene.service.MavenRepoIndexer;
+import com.tc.lucene.util.DirectoryUtil;
+import com.tc.lucene.util.MavenBlockJoinUtil;
+import com.tc.lucene.util.MavenDocValuesUtil;
+import com.tc.lucene.util.MavenRepoUtil;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.IndexableField;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.MapConfigurationPropertySource;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author AnthubTC
+ * @version 1.0
+ * @className MavenRepoIndexerTest
+ * @description
+ * @date 2026/10/18 10:45
+ **/
+@DisplayName("maven仓库索引器")
+public class MavenRepoIndexerTest extends LuceneLearnApplicationTests {
+    @TempDir
+    File tempDir;
+
+    @DisplayName("并行建立索引")
+    @Test
+    public void parallelRebuild() throws IOException {
+        File repositoryDir = new File(tempDir, "repository");
+        MavenRepoFixture.writeJar(repositoryDir, "org.demo", "demo-core", "1.0.0",
+                "org/demo/core/Foo.class", "org/demo/core/Bar.class", "META-INF/MANIFEST.MF");
+        MavenRepoFixture.writeJar(repositoryDir, "org.demo", "demo-core", "1.1.0",
+                "org/demo/core/Foo.class", "org/demo/core/Bar.class", "org/demo/core/Baz.class");
+        MavenRepoFixture.writeJar(repositoryDir, "com.acme", "acme-util", "2.0",
+                "com/acme/StringUtils.class");
+        // 缓存目录需要跳过
+        MavenRepoFixture.writeJar(new File(repositoryDir, "caches"), "x", "cached", "1.0", "x/Cached.class");
+        // 损坏的jar按jar记录失败，不影响其它jar
+        File broken = new File(repositoryDir, "org/broken/broken/1.0/broken-1.0.jar");
+        broken.getParentFile().mkdirs();
+        Files.write(broken.toPath(), "not a jar".getBytes(StandardCharsets.UTF_8));
+
+        LuceneDemoConfig config = MavenRepoFixture.config(new File(tempDir, "index-db"), 4);
+        MavenIndexStats stats = MavenRepoFixture.indexer(config).rebuild(repositoryDir);
+        System.out.println(stats);
+
+        assertEquals(3, stats.getJars());
+        assertEquals(6, stats.getClasses());
+        assertEquals(1, stats.getFailedJars());
+        assertEquals(LuceneDemoConfig.PROFILE_BULK_REBUILD, stats.getWriterProfile());
+        try (Directory directory = DirectoryUtil.open(config, "mvn");
+             DirectoryReader reader = DirectoryReader.open(directory)) {
+            IndexSearcher searcher = new IndexSearcher(reader);
+            assertEquals(3, searcher.count(new TermQuery(new Term("type", String.valueOf(MavenContentType.Artifact.getType())))));
+            assertEquals(6, searcher.count(new TermQuery(new Term("type", String.valueOf(MavenContentType.Clazz.getType())))));
+
+            // class通过block join关联到class集合，再按classSetId关联到jar
+            TopDocs artifacts = searcher.search(MavenBlockJoinUtil.toArtifactQuery(new TermQuery(new Term("className", "stringutils")), searcher), 10);
+            assertEquals(1, artifacts.scoreDocs.length);
+            assertEquals("acme-util", reader.document(artifacts.scoreDocs[0].doc).get("artifactId"));
+            assertEquals(2, searcher.count(MavenBlockJoinUtil.toArtifactQuery(new TermQuery(new Term("className", "foo")), searcher)));
+            String classSetId = MavenDocValuesUtil.loadArtifact(reader, artifacts.scoreDocs[0].doc, false).getClassSetId();
+            int classSetDoc = MavenBlockJoinUtil.classSetDoc(searcher, classSetId);
+            Query matchedClass = MavenBlockJoinUtil.matchedClassQuery(new TermQuery(new Term("className", "stringutils")), classSetDoc);
+            TopDocs classes = searcher.search(matchedClass, 10);
+            assertEquals(1, classes.scoreDocs.length);
+            assertEquals("com.acme.StringUtils", reader.document(classes.scoreDocs[0].doc).get("className"));
+        }
+
+        // 重建丢弃原有索引，不会追加一份重复的文档
+        stats = MavenRepoFixture.indexer(config).rebuild(repositoryDir);
+        assertEquals(3, stats.getJars());
+        assertEquals(3, countType(config, MavenContentType.Artifact));
+    }
+
+    @DisplayName("增量索引")
+    @Test
+    public void incremental() throws IOException {
+        File repositoryDir = new File(tempDir, "repository");
+        MavenRepoFixture.writeJar(repositoryDir, "org.demo", "demo-core", "1.0.0", "org/demo/core/Foo.class");
+        File changed = MavenRepoFixture.writeJar(repositoryDir, "org.demo", "demo-core", "1.1.0", "org/demo/core/Foo.class");
+        File removed = MavenRepoFixture.writeJar(repositoryDir, "com.acme", "acme-util", "2.0", "com/acme/StringUtils.class");
+
+        LuceneDemoConfig config = MavenRepoFixture.config(new File(tempDir, "index-db"), 2);
+        MavenRepoIndexer indexer = MavenRepoFixture.indexer(config);
+        indexer.rebuild(repositoryDir);
+
+        // 没有变化时全部跳过
+        MavenIndexStats stats = indexer.incremental(repositoryDir);
+        assertEquals(3, stats.getSkippedJars());
+        assertEquals(0, stats.getJars());
+
+        MavenRepoFixture.writeJar(repositoryDir, "org.demo", "demo-core", "1.1.0",
+                "org/demo/core/Foo.class", "org/demo/core/Bar.class");
+        changed.setLastModified(changed.lastModified() + 60_000);
+        removed.delete();
+        MavenRepoFixture.writeJar(repositoryDir, "org.demo", "demo-api", "1.0.0", "org/demo/api/Api.class");
+
+        stats = indexer.incremental(repositoryDir);
+        System.out.println(stats);
+        assertEquals(1, stats.getSkippedJars());
+        assertEquals(2, stats.getJars());
+        assertEquals(1, stats.getDeletedJars());
+        try (Directory directory = DirectoryUtil.open(config, "mvn");
+             DirectoryReader reader = DirectoryReader.open(directory)) {
+            IndexSearcher searcher = new IndexSearcher(reader);
+            assertEquals(3, searcher.count(new TermQuery(new Term("type", String.valueOf(MavenContentType.Artifact.getType())))));
+            assertEquals(4, searcher.count(new TermQuery(new Term("type", String.valueOf(MavenContentType.Clazz.getType())))));
+            assertEquals(0, searcher.count(new TermQuery(new Term("filePath", removed.getAbsolutePath()))));
+        }
+    }
+
+    @DisplayName("同一版本目录下的classifier jar互不影响")
+    @Test
+    public void classifierJars() throws IOException {
+        File repositoryDir = new File(tempDir, "repository");
+        MavenRepoFixture.writeJar(repositoryDir, "org.demo", "demo-core", "1.0.0", "org/demo/core/Foo.class");
+        File sources = MavenRepoFixture.writeClassifierJar(repositoryDir, "org.demo", "demo-core", "1.0.0", "sources",
+                "org/demo/core/Foo.java");
+
+        LuceneDemoConfig config = MavenRepoFixture.config(new File(tempDir, "index-db"), 2);
+        MavenRepoIndexer indexer = MavenRepoFixture.indexer(config);
+        indexer.rebuild(repositoryDir);
+        assertEquals(2, countType(config, MavenContentType.Artifact));
+
+        // 只有sources jar变化，主jar的文档不能被一起替换
+        MavenRepoFixture.writeClassifierJar(repositoryDir, "org.demo", "demo-core", "1.0.0", "sources",
+                "org/demo/core/Foo.java", "org/demo/core/Bar.java");
+        sources.setLastModified(sources.lastModified() + 60_000);
+        MavenIndexStats stats = indexer.incremental(repositoryDir);
+        assertEquals(1, stats.getJars());
+        assertEquals(1, stats.getSkippedJars());
+        assertEquals(2, countType(config, MavenContentType.Artifact));
+        assertEquals(1, countType(config, MavenContentType.Clazz));
+
+        // 删除sources jar，主jar保留
+        sources.delete();
+        stats = indexer.incremental(repositoryDir);
+        assertEquals(1, stats.getDeletedJars());
+        assertEquals(1, countType(config, MavenContentType.Artifact));
+        assertEquals(1, countType(config, MavenContentType.Clazz));
+        assertEquals(1, indexer.incremental(repositoryDir).getSkippedJars());
+    }
+
+    @DisplayName("遍历不完整时保留无法访问路径下的jar")
+    @Test
+    public void unreadablePaths() throws IOException {
+        File repositoryDir = new File(tempDir, "repository");
+        MavenRepoFixture.writeJar(repositoryDir, "org.demo", "demo-core", "1.0.0", "org/demo/core/Foo.class");
+        MavenRepoFixture.writeJar(repositoryDir, "com.acme", "acme-util", "2.0", "com/acme/StringUtils.class");
+        LuceneDemoConfig config = MavenRepoFixture.config(new File(tempDir, "index-db"), 2);
+        MavenRepoIndexer indexer = MavenRepoFixture.indexer(config);
+        indexer.rebuild(repositoryDir);
+
+        // 仓库目录暂时不可用(例如磁盘没有挂载)，不能把所有jar当作已删除
+        File moved = new File(tempDir, "repository-moved");
+        assertTrue(repositoryDir.renameTo(moved));
+        MavenIndexStats stats = indexer.incremental(repositoryDir);
+        assertEquals(1, stats.getUnreadablePaths());
+        assertEquals(0, stats.getDeletedJars());
+        assertEquals(2, countType(config, MavenContentType.Artifact));
+        assertTrue(moved.renameTo(repositoryDir));
+
+        // root用户不受目录权限限制，只在权限生效时验证
+        File acmeDir = new File(repositoryDir, "com/acme");
+        if (acmeDir.setReadable(false) && !acmeDir.canRead()) {
+            try {
+                stats = indexer.incremental(repositoryDir);
+                assertEquals(1, stats.getUnreadablePaths());
+                assertEquals(1, stats.getSkippedJars());
+                assertEquals(0, stats.getDeletedJars());
+                assertEquals(2, countType(config, MavenContentType.Artifact));
+            } finally {
+                acmeDir.setReadable(true);
+            }
+        }
+        assertEquals(2, indexer.incremental(repositoryDir).getSkippedJars());
+    }
+
+    @DisplayName("只跳过仓库根目录下的caches目录")
+    @Test
+    public void skipCaches() throws IOException, InterruptedException {
+        File repositoryDir = new File(tempDir, "repository");
+        MavenRepoFixture.writeJar(new File(repositoryDir, "caches"), "x", "cached", "1.0", "x/Cached.class");
+        // 名称以caches开头的groupId、更深层的caches目录都要索引
+        MavenRepoFixture.writeJar(repositoryDir, "cachestore", "cachestore-core", "1.0", "cachestore/Store.class");
+        MavenRepoFixture.writeJar(repositoryDir, "org.caches", "caches", "1.0", "org/caches/Cache.class");
+
+        List<String> jarNames = new ArrayList<>();
+        List<Path> failedPaths = MavenRepoUtil.walkJarFiles(repositoryDir, file -> jarNames.add(file.getName()));
+        Collections.sort(jarNames);
+        assertEquals(Arrays.asList("caches-1.0.jar", "cachestore-core-1.0.jar"), jarNames);
+        assertTrue(failedPaths.isEmpty());
+    }
+
+    @DisplayName("从jar路径解析坐标，groupId不含artifactId目录")
+    @Test
+    public void buildMavenArtifact() throws IOException {
+        File repositoryDir = new File(tempDir, "repository");
+        File jar = MavenRepoFixture.writeJar(repositoryDir, "org.demo.sub", "demo-core", "1.0.0", "org/demo/Foo.class");
+        MavenArtifact artifact = MavenRepoUtil.buildMavenArtifact(repositoryDir, jar);
+        assertEquals("org.demo.sub", artifact.getGroupId());
+        assertEquals("demo-core", artifact.getArtifactId());
+        assertEquals("1.0.0", artifact.getVersion());
+    }
+
+    @DisplayName("提交后刷新共享的searcher")
+    @Test
+    public void refreshSearcherAfterCommit() throws IOException {
+        File repositoryDir = new File(tempDir, "repository");
+        MavenRepoFixture.writeJar(repositoryDir, "org.demo", "demo-core", "1.0.0", "org/demo/core/Foo.class");
+
+        LuceneDemoConfig config = MavenRepoFixture.config(new File(tempDir, "index-db"), 2);
+        config.getSearcher().setRefreshIntervalMillis(0);
+        LuceneSearcherRegistry registry = new LuceneSearcherRegistry(config);
+        MavenRepoIndexer indexer = new MavenRepoIndexer(config, event -> {
+            try {
+                registry.onIndexCommitted((IndexCommittedEvent) event);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        try {
+            indexer.rebuild(repositoryDir);
+            Query artifactQuery = MavenBlockJoinUtil.typeQuery(MavenContentType.Artifact);
+            assertEquals(Integer.valueOf(1), registry.search("mvn", searcher -> searcher.count(artifactQuery)));
+
+            MavenRepoFixture.writeJar(repositoryDir, "org.demo", "demo-api", "1.0.0", "org/demo/api/Api.class");
+            indexer.incremental(repositoryDir);
+            assertEquals(Integer.valueOf(2), registry.search("mvn", searcher -> searcher.count(artifactQuery)));
+        } finally {
+            registry.destroy();
+        }
+    }
+
+    @DisplayName("写入配置：按文档数刷新产生多个段，强制合并为一个段")
+    @Test
+    public void writerProfileForceMerge() throws IOException {
+        File repositoryDir = new File(tempDir, "repository");
+        MavenRepoFixture.writeSampleRepository(repositoryDir);
+        LuceneDemoConfig config = MavenRepoFixture.config(new File(tempDir, "index-db"), 1);
+        LuceneDemoConfig.WriterProfile profile = LuceneDemoConfig.WriterProfile.bulkRebuild();
+        profile.setMaxBufferedDocs(2);
+        config.getWriterProfiles().put(LuceneDemoConfig.PROFILE_BULK_REBUILD, profile);
+
+        MavenIndexStats stats = MavenRepoFixture.indexer(config).rebuild(repositoryDir);
+        assertTrue(stats.getSegments() > 1, stats.toString());
+
+        profile.setForceMergeSegments(1);
+        stats = MavenRepoFixture.indexer(config).rebuild(repositoryDir);
+        assertEquals(1, stats.getSegments());
+        assertEquals(3, stats.getJars());
+    }
+
+    @DisplayName("写入配置：内存缓冲区按分片数平分")
+    @Test
+    public void writerProfileRamBufferPerShard() {
+        LuceneDemoConfig.WriterProfile profile = LuceneDemoConfig.WriterProfile.bulkRebuild();
+        assertEquals(256, profile.shardRamBufferSizeMb(1));
+        assertEquals(64, profile.shardRamBufferSizeMb(4));
+        // 分片很多时不低于下限，总量小于下限时不放大
+        assertEquals(LuceneDemoConfig.WriterProfile.MIN_SHARD_RAM_BUFFER_SIZE_MB, profile.shardRamBufferSizeMb(64));
+        profile.setRamBufferSizeMb(8);
+        assertEquals(8, profile.shardRamBufferSizeMb(4));
+    }
+
+    @DisplayName("写入配置：只配置部分属性时保留内置默认值")
+    @Test
+    public void writerProfilePartialBinding() {
+        Map<String, String> properties = new HashMap<>();
+        properties.put("com.tc.lucene.writer-profiles.bulk-rebuild.ram-buffer-size-mb", "64");
+        properties.put("com.tc.lucene.writer-profiles.custom.max-buffered-docs", "100");
+        Binder binder = new Binder(new MapConfigurationPropertySource(properties));
+        LuceneDemoConfig config = binder.bind(LuceneDemoConfig.PREFIX, Bindable.ofInstance(new LuceneDemoConfig())).get();
+        config.bindBuiltInWriterProfiles(binder);
+
+        LuceneDemoConfig.WriterProfile bulk = config.getWriterProfile(LuceneDemoConfig.PROFILE_BULK_REBUILD);
+        assertEquals(64, bulk.getRamBufferSizeMb());
+        assertEquals(20, bulk.getSegmentsPerTier());
+        assertFalse(bulk.isUseCompoundFile());
+        // 没有配置的内置配置、其它名称的配置
+        assertEquals(32, config.getWriterProfile(LuceneDemoConfig.PROFILE_INCREMENTAL).getRamBufferSizeMb());
+        assertEquals(100, config.getWriterProfile("custom").getMaxBufferedDocs());
+        assertTrue(config.getWriterProfile("custom").isUseCompoundFile());
+    }
+
+    @DisplayName("按groupId分片，单个分片重建")
+    @Test
+    public void shards() throws IOException {
+        File repositoryDir = new File(tempDir, "repository");
+        MavenRepoFixture.writeSampleRepository(repositoryDir);
+        MavenRepoFixture.writeJar(repositoryDir, "io.sample", "sample-web", "3.0", "io/sample/web/Server.class");
+        MavenRepoFixture.writeJar(repositoryDir, "net.other", "other-io", "0.1", "net/other/io/Stream.class");
+
+        LuceneDemoConfig config = MavenRepoFixture.config(new File(tempDir, "index-db"), 2);
+        LuceneDemoConfig.MavenIndex mavenIndex = config.getMavenIndex();
+        mavenIndex.setShards(3);
+        MavenRepoIndexer indexer = MavenRepoFixture.indexer(config);
+        MavenIndexStats stats = indexer.rebuild(repositoryDir);
+        assertEquals(5, stats.getJars());
+        assertEquals(3, stats.getShards());
+
+        // 每个jar只在groupId所在的分片中
+        int artifacts = 0;
+        for (int shard = 0; shard < 3; shard++) {
+            assertEquals("mvn/shard-" + shard, mavenIndex.shardIndexName(shard));
+            for (String groupId : new String[]{"org.demo", "com.acme", "io.sample", "net.other"}) {
+                int count = countArtifacts(config, shard, new TermQuery(new Term("groupId", groupId)));
+                assertEquals(mavenIndex.shardOf(groupId) == shard, count > 0, groupId);
+                artifacts += count;
+            }
+        }
+        assertEquals(5, artifacts);
+
+        // 只重建org.demo所在的分片，其它分片不变
+        int shard = mavenIndex.shardOf("org.demo");
+        MavenRepoFixture.writeJar(repositoryDir, "org.demo", "demo-core", "1.2.0", "org/demo/core/Foo.class");
+        stats = indexer.rebuildShard(repositoryDir, shard);
+        assertEquals(1, stats.getShards());
+        assertEquals(3, countArtifacts(config, shard, new TermQuery(new Term("groupId", "org.demo"))));
+        int other = mavenIndex.shardOf("net.other");
+        if (other != shard) {
+            assertEquals(1, countArtifacts(config, other, new TermQuery(new Term("groupId", "net.other"))));
+        }
+
+        // 分片数变化后增量索引会把jar写到错误的分片
+        mavenIndex.setShards(2);
+        assertThrows(IllegalStateException.class, () -> indexer.incremental(repositoryDir));
+    }
+
+    @DisplayName("相同的class集合只索引一次，不再引用时删除")
+    @Test
+    public void classSets() throws IOException {
+        File repositoryDir = new File(tempDir, "repository");
+        for (String version : new String[]{"1.0.0", "1.1.0", "1.2.0"}) {
+            // entry顺序不同，排序后是同一个集合
+            MavenRepoFixture.writeJar(repositoryDir, "org.demo", "demo-core", version,
+                    version.equals("1.1.0") ? "org/demo/core/Bar.class" : "org/demo/core/Foo.class",
+                    version.equals("1.1.0") ? "org/demo/core/Foo.class" : "org/demo/core/Bar.class");
+        }
+        File changed = MavenRepoFixture.writeJar(repositoryDir, "org.demo", "demo-core", "2.0.0",
+                "org/demo/core/Foo.class", "org/demo/core/Bar.class", "org/demo/core/Baz.class");
+        File removed = MavenRepoFixture.writeJar(repositoryDir, "com.acme", "acme-util", "2.0", "com/acme/StringUtils.class");
+
+        LuceneDemoConfig config = MavenRepoFixture.config(new File(tempDir, "index-db"), 3);
+        MavenRepoIndexer indexer = MavenRepoFixture.indexer(config);
+        MavenIndexStats stats = indexer.rebuild(repositoryDir);
+        System.out.println(stats);
+        assertEquals(5, stats.getJars());
+        assertEquals(3, stats.getIndexedClassSets());
+        assertEquals(2, stats.getReusedClassSets());
+        assertEquals(10, stats.getClasses());
+        assertEquals(6, countType(config, MavenContentType.Clazz));
+        assertEquals(3, countType(config, MavenContentType.ClassSet));
+        try (Directory directory = DirectoryUtil.open(config, "mvn");
+             DirectoryReader reader = DirectoryReader.open(directory)) {
+            IndexSearcher searcher = new IndexSearcher(reader);
+            // 查询时展开为引用了集合的每个版本
+            assertEquals(4, searcher.count(MavenBlockJoinUtil.toArtifactQuery(new TermQuery(new Term("className", "bar")), searcher)));
+            assertEquals(1, searcher.count(MavenBlockJoinUtil.toArtifactQuery(new TermQuery(new Term("className", "baz")), searcher)));
+        }
+
+        // 2.0.0改为与旧版本相同的集合，acme-util删除：两个集合不再被引用
+        MavenRepoFixture.writeJar(repositoryDir, "org.demo", "demo-core", "2.0.0",
+                "org/demo/core/Foo.class", "org/demo/core/Bar.class");
+        changed.setLastModified(changed.lastModified() + 60_000);
+        removed.delete();
+        stats = indexer.incremental(repositoryDir);
+        System.out.println(stats);
+        assertEquals(1, stats.getJars());
+        assertEquals(1, stats.getReusedClassSets());
+        assertEquals(2, stats.getDeletedClassSets());
+        assertEquals(4, countType(config, MavenContentType.Artifact));
+        assertEquals(2, countType(config, MavenContentType.Clazz));
+        assertEquals(1, countType(config, MavenContentType.ClassSet));
+    }
+
+    @DisplayName("class集合写入失败时，等待它的jar重新写入")
+    @Test
+    public void classSetWriteFailure() throws IOException {
+        File repositoryDir = new File(tempDir, "repository");
+        // 两个jar的class集合相同
+        MavenRepoFixture.writeJar(repositoryDir, "org.demo", "demo-core", "0.9.0", "org/demo/core/Foo.class", "org/demo/core/Bar.class");
+        MavenRepoFixture.writeJar(repositoryDir, "org.demo", "demo-core", "1.0.0", "org/demo/core/Foo.class", "org/demo/core/Bar.class");
+        MavenRepoIndexer indexer = MavenRepoFixture.indexer(MavenRepoFixture.config(new File(tempDir, "index-db"), 2));
+
+        AtomicBoolean failed = new AtomicBoolean();
+        AtomicBoolean waited = new AtomicBoolean();
+        try (Directory directory = new ByteBuffersDirectory();
+             IndexWriter indexWriter = new IndexWriter(directory, new IndexWriterConfig()) {
+                 @Override
+                 public long addDocuments(Iterable<? extends Iterable<? extends IndexableField>> docs) throws IOException {
+                     if (failed.compareAndSet(false, true)) {
+                         // 另一个线程开始等待这个集合后再失败
+                         Thread writer = Thread.currentThread();
+                         waited.set(awaitBlockedOn(thread -> thread != writer && thread.getName().startsWith("mvn-indexer-"),
+                                 CompletableFuture.class));
+                         throw new IOException("模拟写入失败");
+                     }
+                     return super.addDocuments(docs);
+                 }
+             }) {
+            MavenIndexStats stats = indexer.index(repositoryDir, indexWriter);
+            assertTrue(waited.get());
+            assertEquals(1, stats.getFailedJars());
+            assertEquals(1, stats.getJars());
+            assertEquals(1, stats.getIndexedClassSets());
+            assertEquals(0, stats.getReusedClassSets());
+            indexWriter.commit();
+
+            // 写入成功的jar引用的集合在索引中
+            try (DirectoryReader reader = DirectoryReader.open(directory)) {
+                IndexSearcher searcher = new IndexSearcher(reader);
+                assertEquals(1, searcher.count(MavenBlockJoinUtil.typeQuery(MavenContentType.Artifact)));
+                assertEquals(1, searcher.count(MavenBlockJoinUtil.typeQuery(MavenContentType.ClassSet)));
+                assertEquals(2, searcher.count(MavenBlockJoinUtil.typeQuery(MavenContentType.Clazz)));
+            }
+        }
+    }
+
+    @DisplayName("遍历和索引同时进行，队列满时阻塞遍历")
+    @Test
+    public void backpressure() throws Exception {
+        File repositoryDir = new File(tempDir, "repository");
+        writeJars(repositoryDir, 20);
+        LuceneDemoConfig config = MavenRepoFixture.config(new File(tempDir, "index-db"), 1);
+        config.getMavenIndex().setQueueCapacity(1);
+        // 不输出进度日志
+        config.getMavenIndex().setProgressIntervalSeconds(0);
+        MavenRepoIndexer indexer = MavenRepoFixture.indexer(config);
+
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService walker = Executors.newSingleThreadExecutor();
+        try (Directory directory = new ByteBuffersDirectory();
+             IndexWriter indexWriter = blockingWriter(directory, writing, release)) {
+            AtomicReference<Thread> walkerThread = new AtomicReference<>();
+            Future<MavenIndexStats> future = walker.submit(() -> {
+                walkerThread.set(Thread.currentThread());
+                return indexer.index(repositoryDir, indexWriter);
+            });
+            assertTrue(writing.await(10, TimeUnit.SECONDS));
+            // 工作线程写第一个jar时，遍历线程放满队列后阻塞，不会继续遍历
+            assertTrue(awaitBlockedOn(thread -> thread == walkerThread.get(), ArrayBlockingQueue.class));
+            release.countDown();
+
+            MavenIndexStats stats = future.get(30, TimeUnit.SECONDS);
+            assertEquals(20, stats.getDiscoveredJars());
+            assertEquals(20, stats.getJars());
+            assertEquals(0, stats.getFailedJars());
+        } finally {
+            walker.shutdownNow();
+        }
+    }
+
+    @DisplayName("遍历线程被中断时停止工作线程")
+    @Test
+    public void shutdown() throws Exception {
+        File repositoryDir = new File(tempDir, "repository");
+        writeJars(repositoryDir, 20);
+        LuceneDemoConfig config = MavenRepoFixture.config(new File(tempDir, "index-db"), 2);
+        config.getMavenIndex().setQueueCapacity(1);
+        MavenRepoIndexer indexer = MavenRepoFixture.indexer(config);
+
+        CountDownLatch writing = new CountDownLatch(1);
+        ExecutorService walker = Executors.newSingleThreadExecutor();
+        try (Directory directory = new ByteBuffersDirectory();
+             IndexWriter indexWriter = blockingWriter(directory, writing, new CountDownLatch(1))) {
+            Future<MavenIndexStats> future = walker.submit(() -> indexer.index(repositoryDir, indexWriter));
+            assertTrue(writing.await(10, TimeUnit.SECONDS));
+            walker.shutdownNow();
+            ExecutionException e = assertThrows(ExecutionException.class, () -> future.get(30, TimeUnit.SECONDS));
+            // 中断按声明的IOException抛出
+            assertTrue(e.getCause() instanceof IOException, String.valueOf(e.getCause()));
+            assertTrue(awaitNoThreads("mvn-indexer-"));
+        } finally {
+            walker.shutdownNow();
+        }
+    }
+
+    @DisplayName("重建被中断时回滚，保留上一次提交的索引")
+    @Test
+    public void interruptedRebuildKeepsPreviousCommit() throws Exception {
+        File repositoryDir = new File(tempDir, "repository");
+        MavenRepoFixture.writeSampleRepository(repositoryDir);
+        LuceneDemoConfig config = MavenRepoFixture.config(new File(tempDir, "index-db"), 1);
+        config.getMavenIndex().setQueueCapacity(1);
+        config.getMavenIndex().setProgressIntervalSeconds(0);
+        MavenRepoIndexer indexer = MavenRepoFixture.indexer(config);
+        indexer.rebuild(repositoryDir);
+
+        writeJars(repositoryDir, 200);
+        ExecutorService walker = Executors.newSingleThreadExecutor();
+        try {
+            AtomicReference<Thread> walkerThread = new AtomicReference<>();
+            Future<MavenIndexStats> future = walker.submit(() -> {
+                walkerThread.set(Thread.currentThread());
+                return indexer.rebuild(repositoryDir);
+            });
+            // 遍历线程阻塞在已满的队列上时中断，此时还有jar没有写入
+            assertTrue(awaitBlockedOn(thread -> thread == walkerThread.get(), ArrayBlockingQueue.class));
+            walker.shutdownNow();
+            ExecutionException e = assertThrows(ExecutionException.class, () -> future.get(30, TimeUnit.SECONDS));
+            assertTrue(e.getCause() instanceof IOException, String.valueOf(e.getCause()));
+        } finally {
+            walker.shutdownNow();
+        }
+        assertEquals(3, countType(config, MavenContentType.Artifact));
+    }
+
+    @DisplayName("工作线程遇到Error时继续处理其它jar")
+    @Test
+    public void workerError() throws IOException {
+        File repositoryDir = new File(tempDir, "repository");
+        writeJars(repositoryDir, 5);
+        LuceneDemoConfig config = MavenRepoFixture.config(new File(tempDir, "index-db"), 1);
+        config.getMavenIndex().setQueueCapacity(1);
+        MavenRepoIndexer indexer = MavenRepoFixture.indexer(config);
+
+        AtomicBoolean failed = new AtomicBoolean();
+        try (Directory directory = new ByteBuffersDirectory();
+             IndexWriter indexWriter = new IndexWriter(directory, new IndexWriterConfig()) {
+                 @Override
+                 public long addDocument(Iterable<? extends IndexableField> doc) throws IOException {
+                     if (failed.compareAndSet(false, true)) {
+                         throw new NoClassDefFoundError("模拟Error");
+                     }
+                     return super.addDocument(doc);
+                 }
+             }) {
+            // 工作线程退出时遍历线程会一直阻塞在已满的队列上
+            MavenIndexStats stats = assertTimeoutPreemptively(Duration.ofSeconds(30),
+                    () -> indexer.index(repositoryDir, indexWriter));
+            assertEquals(1, stats.getFailedJars());
+            assertEquals(4, stats.getJars());
+        }
+    }
+
+    private static void writeJars(File repositoryDir, int count) throws IOException {
+        for (int i = 0; i < count; i++) {
+            MavenRepoFixture.writeJar(repositoryDir, "org.demo", "demo-" + i, "1.0.0", "org/demo/Foo" + i + ".class");
+        }
+    }
+
+    /**
+     * 写入jar文档时通知writing，再等待release
+     */
+    private static IndexWriter blockingWriter(Directory directory, CountDownLatch writing, CountDownLatch release)
+            throws IOException {
+        return new IndexWriter(directory, new IndexWriterConfig()) {
+            @Override
+            public long addDocument(Iterable<? extends IndexableField> doc) throws IOException {
+                writing.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException();
+                }
+                return super.addDocument(doc);
+            }
+        };
+    }
+
+    /**
+     * 等待线程阻塞在type的方法上
+     */
+    private static boolean awaitBlockedOn(Predicate<Thread> threads, Class<?> type) {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (System.currentTimeMillis() < deadline) {
+            for (Map.Entry<Thread, StackTraceElement[]> entry : Thread.getAllStackTraces().entrySet()) {
+                if (threads.test(entry.getKey())
+                        && Arrays.stream(entry.getValue()).anyMatch(frame -> frame.getClassName().equals(type.getName()))) {
+                    return true;
+                }
+            }
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(10));
+        }
+        return false;
+    }
+
+    private static boolean awaitNoThreads(String namePrefix) {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (System.currentTimeMillis() < deadline) {
+            if (Thread.getAllStackTraces().keySet().stream().noneMatch(thread -> thread.getName().startsWith(namePrefix))) {
+                return true;
+            }
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(10));
+        }
+        return false;
+    }
+
+    @DisplayName("旧格式的索引不能增量更新")
+    @Test
+    public void oldFormat() throws IOException {
+        File repositoryDir = new File(tempDir, "repository");
+        MavenRepoFixture.writeSampleRepository(repositoryDir);
+        LuceneDemoConfig config = MavenRepoFixture.config(new File(tempDir, "index-db"), 2);
+        // 没有格式标记的提交
+        try (Directory directory = DirectoryUtil.open(config, "mvn");
+             IndexWriter indexWriter = new IndexWriter(directory, new IndexWriterConfig())) {
+            indexWriter.commit();
+        }
+        MavenRepoIndexer indexer = MavenRepoFixture.indexer(config);
+        assertThrows(IllegalStateException.class, () -> indexer.incremental(repositoryDir));
+        indexer.rebuild(repositoryDir);
+        assertEquals(3, indexer.incremental(repositoryDir).getSkippedJars());
+    }
+
+    private static int countType(LuceneDemoConfig config, MavenContentType type) throws IOException {
+        try (Directory directory = DirectoryUtil.open(config, "mvn");
+             DirectoryReader reader = DirectoryReader.open(directory)) {
+            return new IndexSearcher(reader).count(MavenBlockJoinUtil.typeQuery(type));
+        }
+    }
+
+    private static int countArtifacts(LuceneDemoConfig config, int shard, Query query) throws IOException {
+        try (Directory directory = DirectoryUtil.open(config, config.getMavenIndex().shardIndexName(shard));
+             DirectoryReader reader = DirectoryReader.open(directory)) {
+            return new IndexSearcher(reader).count(new BooleanQuery.Builder()
+                    .add(query, BooleanClause.Occur.MUST)
+                    .add(MavenBlockJoinUtil.typeQuery(MavenContentType.Artifact), BooleanClause.Occur.FILTER)
+                    .build());
+        }
+    }
+}
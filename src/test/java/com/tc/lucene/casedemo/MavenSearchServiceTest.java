@@ -0,0 +1,287 @@
+package com.tc.lucene.casedemo;
+
+import com.tc.lucene.LuceneLearnApplicationTests;
+import com.tc.lucene.config.LuceneDemoConfig;
+import com.tc.lucene.dto.MavenArtifact;
+import com.tc.lucene.dto.MavenJar;
+import com.tc.lucene.dto.MavenJarClass;
+import com.tc.lucene.dto.MavenSearchRequest;
+import com.tc.lucene.dto.PageResult;
+import com.tc.lucene.dto.SearchCacheStats;
+import com.tc.lucene.enums.MavenContentType;
+import com.tc.lucene.enums.MavenSortType;
+import com.tc.lucene.service.LuceneSearcherRegistry;
+import com.tc.lucene.service.MavenSearchCache;
+import com.tc.lucene.service.MavenSearchService;
+import org.apache.lucene.queryparser.classic.ParseException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author AnthubTC
+ * @version 1.0
+ * @className MavenSearchServiceTest
+ * @description
+ * @date 2026/10/18 13:40
+ **/
+@DisplayName("maven仓库搜索")
+public class MavenSearchServiceTest extends LuceneLearnApplicationTests {
+    @TempDir
+    File tempDir;
+
+    private File repositoryDir;
+    private LuceneDemoConfig config;
+    private LuceneSearcherRegistry registry;
+    private MavenSearchService searchService;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        repositoryDir = new File(tempDir, "repository");
+        MavenRepoFixture.writeSampleRepository(repositoryDir);
+        config = MavenRepoFixture.config(new File(tempDir, "index-db"), 2);
+        MavenRepoFixture.indexer(config).rebuild(repositoryDir);
+
+        registry = new LuceneSearcherRegistry(config);
+        searchService = new MavenSearchService(config, registry);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        registry.destroy();
+    }
+
+    @DisplayName("jar搜索")
+    @Test
+    public void searchArtifact() throws ParseException, IOException {
+        PageResult<MavenJar> result = searchService.search(MavenContentType.Artifact, "demo", 1, 10);
+        assertEquals(2, result.getTotal());
+        assertEquals("demo-core", ((MavenArtifact) result.getRecords().get(0)).getArtifactId());
+
+        // 第二页
+        result = searchService.search(MavenContentType.Artifact, "demo", 2, 1);
+        assertEquals(1, result.getRecords().size());
+    }
+
+    @DisplayName("限制翻页深度")
+    @Test
+    public void resultWindow() throws ParseException, IOException {
+        int lastPage = MavenSearchService.MAX_RESULT_WINDOW / 10;
+        assertEquals(0, searchService.search(MavenContentType.Artifact, "demo", lastPage, 10).getRecords().size());
+        assertThrows(IllegalArgumentException.class,
+                () -> searchService.search(MavenContentType.Artifact, "demo", lastPage + 1, 10));
+        // page*size超过int范围
+        assertThrows(IllegalArgumentException.class,
+                () -> searchService.search(MavenContentType.Artifact, "demo", Integer.MAX_VALUE, 100));
+        assertThrows(IllegalArgumentException.class,
+                () -> searchService.search(MavenContentType.Artifact, "demo", 0, 10));
+    }
+
+    @DisplayName("class搜索")
+    @Test
+    public void searchClass() throws ParseException, IOException {
+        PageResult<MavenJar> result = searchService.search(MavenContentType.Clazz, "StringUtils", 1, 10);
+        assertEquals(1, result.getTotal());
+        MavenJarClass mavenJarClass = (MavenJarClass) result.getRecords().get(0);
+        assertEquals("com.acme.StringUtils", mavenJarClass.getClassName());
+        assertEquals("com.acme", mavenJarClass.getGroupId());
+        assertEquals("acme-util", mavenJarClass.getArtifactId());
+        assertEquals("2.0", mavenJarClass.getVersion());
+        // 默认不读取存储字段
+        assertNull(mavenJarClass.getFilePath());
+
+        MavenSearchRequest request = MavenSearchRequest.of(MavenContentType.Clazz, "StringUtils", 1, 10);
+        request.setWithFilePath(true);
+        mavenJarClass = (MavenJarClass) searchService.search(request).getRecords().get(0);
+        assertTrue(mavenJarClass.getFilePath().endsWith("acme-util-2.0.jar"));
+    }
+
+    @DisplayName("按版本排序、版本范围过滤")
+    @Test
+    public void versionSortAndRange() throws ParseException, IOException {
+        MavenSearchRequest request = MavenSearchRequest.of(MavenContentType.Artifact, "demo", 1, 10);
+        request.setSort(MavenSortType.Version);
+        PageResult<MavenJar> result = searchService.search(request);
+        assertEquals("1.1.0", ((MavenArtifact) result.getRecords().get(0)).getVersion());
+        assertEquals("1.0.0", ((MavenArtifact) result.getRecords().get(1)).getVersion());
+
+        request.setVersionRange("[1.0,1.1)");
+        result = searchService.search(request);
+        assertEquals(1, result.getTotal());
+        assertEquals("1.0.0", ((MavenArtifact) result.getRecords().get(0)).getVersion());
+
+        // 1.1 与 1.1.0 等价
+        request.setType(MavenContentType.Clazz);
+        request.setKeyword("Foo");
+        request.setVersionRange(">=1.1");
+        result = searchService.search(request);
+        assertEquals(1, result.getTotal());
+        assertEquals("1.1.0", ((MavenJarClass) result.getRecords().get(0)).getVersion());
+    }
+
+    @DisplayName("类名部分匹配、首字母匹配")
+    @Test
+    public void partialClassName() throws ParseException, IOException {
+        // 驼峰拆分后的前缀
+        assertEquals(1, searchService.search(MavenContentType.Clazz, "StrUtil", 1, 10).getTotal());
+        assertEquals(1, searchService.search(MavenContentType.Clazz, "utils", 1, 10).getTotal());
+        // 首字母
+        assertEquals(1, searchService.search(MavenContentType.Clazz, "SU", 1, 10).getTotal());
+        // 包名
+        assertEquals(2, searchService.search(MavenContentType.Clazz, "org.demo", 1, 10).getTotal());
+        // artifactId的'-'分段前缀
+        assertEquals(1, searchService.search(MavenContentType.Artifact, "acme-ut", 1, 10).getTotal());
+        // 带语法时走QueryParser
+        assertEquals(2, searchService.search(MavenContentType.Artifact, "artifactId:core", 1, 10).getTotal());
+    }
+
+    @DisplayName("按artifact合并，只保留最高版本")
+    @Test
+    public void collapse() throws ParseException, IOException {
+        MavenSearchRequest request = MavenSearchRequest.of(MavenContentType.Clazz, "Foo", 1, 10);
+        request.setCollapse(true);
+        PageResult<MavenJar> result = searchService.search(request);
+        assertEquals(1, result.getTotal());
+        assertEquals(1, result.getRecords().size());
+        MavenJarClass mavenJarClass = (MavenJarClass) result.getRecords().get(0);
+        assertEquals("1.1.0", mavenJarClass.getVersion());
+        assertEquals("org.demo.core.Foo", mavenJarClass.getClassName());
+        assertEquals(Long.valueOf(2), mavenJarClass.getVersionCount());
+
+        request = MavenSearchRequest.of(MavenContentType.Artifact, "demo OR acme", 1, 10);
+        request.setCollapse(true);
+        result = searchService.search(request);
+        assertEquals(2, result.getTotal());
+        assertEquals(2, result.getRecords().size());
+    }
+
+    @DisplayName("按artifact合并时classifier jar不计入版本数，同一版本优先取主jar")
+    @Test
+    public void collapseClassifier() throws ParseException, IOException {
+        MavenRepoFixture.writeClassifierJar(repositoryDir, "org.demo", "demo-core", "1.1.0", "sources",
+                "org/demo/core/Foo.class");
+        MavenRepoFixture.writeClassifierJar(repositoryDir, "org.demo", "demo-core", "1.0.0", "tests",
+                "org/demo/core/Foo.class");
+        MavenRepoFixture.indexer(config).rebuild(repositoryDir);
+        registry.refresh(config.getMavenIndex().getIndexName());
+
+        for (MavenContentType type : new MavenContentType[]{MavenContentType.Artifact, MavenContentType.Clazz}) {
+            MavenSearchRequest request = MavenSearchRequest.of(type,
+                    MavenContentType.Artifact == type ? "core" : "Foo", 1, 10);
+            request.setCollapse(true);
+            request.setWithFilePath(true);
+            PageResult<MavenJar> result = searchService.search(request);
+            assertEquals(1, result.getTotal(), type.name());
+            MavenArtifact artifact = (MavenArtifact) result.getRecords().get(0);
+            assertEquals("1.1.0", artifact.getVersion(), type.name());
+            assertEquals(Long.valueOf(2), artifact.getVersionCount(), type.name());
+            assertEquals("demo-core-1.1.0.jar", new File(artifact.getFilePath()).getName(), type.name());
+        }
+    }
+
+    @DisplayName("结果缓存，索引提交后失效")
+    @Test
+    public void resultCache() throws ParseException, IOException {
+        PageResult<MavenJar> first = searchService.search(MavenContentType.Clazz, "StringUtils", 1, 10);
+        // 查询语句规范化后相同
+        PageResult<MavenJar> second = searchService.search(MavenContentType.Clazz, "  StringUtils ", 1, 10);
+        assertSame(first, second);
+        SearchCacheStats stats = searchService.getCacheStats();
+        assertEquals(1, stats.getHits());
+        assertEquals(1, stats.getMisses());
+        assertEquals(1, stats.getEntries());
+
+        // 新的提交后reader版本变化，缓存失效
+        MavenRepoFixture.writeJar(repositoryDir, "com.acme", "acme-util", "2.1", "com/acme/StringUtils.class");
+        MavenRepoFixture.indexer(config).incremental(repositoryDir);
+        registry.refresh(config.getMavenIndex().getIndexName());
+        PageResult<MavenJar> third = searchService.search(MavenContentType.Clazz, "StringUtils", 1, 10);
+        assertNotSame(first, third);
+        assertEquals(2, third.getTotal());
+        assertEquals(1, searchService.getCacheStats().getInvalidations());
+    }
+
+    @DisplayName("只有更新的reader才让缓存失效，旧reader不命中也不清空")
+    @Test
+    public void resultCacheVersion() {
+        MavenSearchCache cache = new MavenSearchCache(1024 * 1024);
+        PageResult<MavenJar> result = new PageResult<>(1, 10, 0, new ArrayList<>());
+        assertNull(cache.get("q", 5));
+        cache.put("q", 5, result);
+        assertSame(result, cache.get("q", 5));
+
+        // 刷新前借出的旧reader
+        assertNull(cache.get("q", 3));
+        assertEquals(0, cache.stats().getInvalidations());
+        cache.put("q", 3, new PageResult<>(1, 10, 0, new ArrayList<>()));
+        assertSame(result, cache.get("q", 5));
+
+        // 更新的reader让旧结果失效，旧reader查出的结果不缓存
+        assertNull(cache.get("q", 6));
+        assertEquals(1, cache.stats().getInvalidations());
+        cache.put("q", 5, result);
+        assertNull(cache.get("q", 6));
+        cache.put("q", 6, result);
+        assertSame(result, cache.get("q", 6));
+    }
+
+    @DisplayName("分片索引并发查询、归并结果与不分片一致，查询内并发不影响结果")
+    @Test
+    public void shards() throws ParseException, IOException {
+        MavenRepoFixture.writeJar(repositoryDir, "io.sample", "sample-util", "3.0", "io/sample/StringUtils.class");
+        MavenRepoFixture.writeJar(repositoryDir, "net.other", "other-util", "0.1", "net/other/Foo.class");
+        MavenRepoFixture.indexer(config).rebuild(repositoryDir);
+        registry.refresh(config.getMavenIndex().getIndexName());
+
+        LuceneDemoConfig shardedConfig = MavenRepoFixture.config(new File(tempDir, "sharded-index-db"), 2);
+        shardedConfig.getMavenIndex().setShards(3);
+        shardedConfig.getSearcher().setResultCacheSizeMb(0);
+        // 同时开启查询内并发
+        shardedConfig.getSearcher().setConcurrent(true);
+        MavenRepoFixture.indexer(shardedConfig).rebuild(repositoryDir);
+        LuceneSearcherRegistry shardedRegistry = new LuceneSearcherRegistry(shardedConfig);
+        try {
+            MavenSearchService shardedService = new MavenSearchService(shardedConfig, shardedRegistry);
+            for (MavenContentType type : MavenContentType.values()) {
+                for (boolean collapse : new boolean[]{false, true}) {
+                    for (int page = 1; page <= 3; page++) {
+                        MavenSearchRequest request = MavenSearchRequest.of(type, "util OR demo OR Foo OR StringUtils", page, 2);
+                        request.setSort(MavenSortType.Version);
+                        request.setCollapse(collapse);
+                        PageResult<MavenJar> expected = searchService.search(request);
+                        PageResult<MavenJar> actual = shardedService.search(request);
+                        String message = type + ", collapse=" + collapse + ", page=" + page;
+                        assertEquals(expected.getTotal(), actual.getTotal(), message);
+                        assertEquals(describe(expected), describe(actual), message);
+                    }
+                }
+            }
+        } finally {
+            shardedRegistry.destroy();
+        }
+    }
+
+    private static List<String> describe(PageResult<MavenJar> result) {
+        List<String> records = new ArrayList<>();
+        for (MavenJar record : result.getRecords()) {
+            MavenArtifact artifact = (MavenArtifact) record;
+            String className = record instanceof MavenJarClass ? ((MavenJarClass) record).getClassName() : null;
+            records.add(artifact.getGav() + " " + className + " " + artifact.getVersionCount());
+        }
+        return records;
+    }
+}
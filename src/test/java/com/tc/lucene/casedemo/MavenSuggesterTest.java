@@ -0,0 +1,148 @@
+package com.tc.lucene.casedemo;
+
+import com.tc.lucene.LuceneLearnApplicationTests;
+import com.tc.lucene.config.LuceneDemoConfig;
+import com.tc.lucene.dto.MavenSuggestion;
+import com.tc.lucene.enums.MavenContentType;
+import com.tc.lucene.event.IndexCommittedEvent;
+import com.tc.lucene.service.LuceneSearcherRegistry;
+import com.tc.lucene.service.MavenSuggester;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author AnthubTC
+ * @version 1.0
+ * @className MavenSuggesterTest
+ * @description
+ * @date 2026/10/18 15:30
+ **/
+@DisplayName("输入提示")
+public class MavenSuggesterTest extends LuceneLearnApplicationTests {
+    @TempDir
+    File tempDir;
+
+    private LuceneDemoConfig config;
+    private LuceneSearcherRegistry registry;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        File repositoryDir = new File(tempDir, "repository");
+        MavenRepoFixture.writeSampleRepository(repositoryDir);
+        config = MavenRepoFixture.config(new File(tempDir, "index-db"), 2);
+        MavenRepoFixture.indexer(config).rebuild(repositoryDir);
+        registry = new LuceneSearcherRegistry(config);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        registry.destroy();
+    }
+
+    @DisplayName("构建、保存、加载")
+    @Test
+    public void suggest() throws IOException {
+        MavenSuggester suggester = new MavenSuggester(config, registry);
+        assertTrue(suggester.suggest("str", 10).isEmpty());
+        suggester.rebuild();
+
+        List<MavenSuggestion> suggestions = suggester.suggest("str", 10);
+        assertEquals(1, suggestions.size());
+        assertEquals("StringUtils", suggestions.get(0).getText());
+        assertEquals("com.acme.StringUtils", suggestions.get(0).getValue());
+        assertEquals(MavenContentType.Clazz.getType(), suggestions.get(0).getType());
+
+        // Bar在demo-core两个版本中都有，权重更高
+        suggestions = suggester.suggest("B", 10);
+        assertEquals("Bar", suggestions.get(0).getText());
+        assertEquals(2, suggestions.get(0).getWeight());
+        assertEquals("Baz", suggestions.get(1).getText());
+        assertEquals(1, suggestions.get(1).getWeight());
+
+        // 新实例从文件加载
+        suggestions = new MavenSuggester(config, registry).suggest("demo", 10);
+        assertEquals(1, suggestions.size());
+        assertEquals("org.demo:demo-core", suggestions.get(0).getValue());
+        assertEquals(2, suggestions.get(0).getWeight());
+    }
+
+    @DisplayName("artifact按版本数加权，classifier jar不重复计数")
+    @Test
+    public void classifierWeight() throws IOException {
+        File repositoryDir = new File(tempDir, "repository");
+        MavenRepoFixture.writeClassifierJar(repositoryDir, "org.demo", "demo-core", "1.1.0", "sources");
+        MavenRepoFixture.writeClassifierJar(repositoryDir, "org.demo", "demo-core", "1.1.0", "javadoc");
+        MavenRepoFixture.indexer(config).rebuild(repositoryDir);
+        registry.refresh(config.getMavenIndex().getIndexName());
+
+        MavenSuggester suggester = new MavenSuggester(config, registry);
+        suggester.rebuild();
+        List<MavenSuggestion> suggestions = suggester.suggest("demo", 10);
+        assertEquals(1, suggestions.size());
+        assertEquals(2, suggestions.get(0).getWeight());
+    }
+
+    @DisplayName("提交事件在后台重建，连续的事件合并")
+    @Test
+    public void rebuildOnCommit() throws IOException {
+        MavenSuggester suggester = new MavenSuggester(config, registry);
+        try {
+            for (int i = 0; i < 3; i++) {
+                suggester.onIndexCommitted(new IndexCommittedEvent(config.getMavenIndex().getIndexName()));
+            }
+            long deadline = System.currentTimeMillis() + 10_000;
+            List<MavenSuggestion> suggestions = suggester.suggest("str", 10);
+            while (suggestions.isEmpty() && System.currentTimeMillis() < deadline) {
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(10));
+                suggestions = suggester.suggest("str", 10);
+            }
+            assertEquals(1, suggestions.size());
+            assertEquals("StringUtils", suggestions.get(0).getText());
+        } finally {
+            suggester.destroy();
+        }
+    }
+
+    @DisplayName("并发重建依次执行")
+    @Test
+    public void concurrentRebuild() throws Exception {
+        MavenSuggester suggester = new MavenSuggester(config, registry);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                futures.add(executor.submit(() -> {
+                    suggester.rebuild();
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+            suggester.destroy();
+        }
+        // 没有遗留的临时文件
+        File suggestDir = new File(config.getDemoIndexDbPath(config.getMavenIndex().getIndexName() + "-suggest"));
+        String[] tmpFiles = suggestDir.list((dir, name) -> name.endsWith(".tmp"));
+        assertEquals(0, tmpFiles.length);
+        assertEquals("StringUtils", new MavenSuggester(config, registry).suggest("str", 10).get(0).getText());
+    }
+}
@@ -0,0 +1,44 @@
+package com.tc.lucene.casedemo;
+
+import com.tc.lucene.util.MavenVersionUtil;
+import org.apache.lucene.util.BytesRef;
+import org.apache.maven.artifact.versioning.ComparableVersion;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * @author AnthubTC
+ * @version 1.0
+ * @className MavenVersionUtilTest
+ * @description
+ * @date 2026/10/18 14:20
+ **/
+@DisplayName("maven版本号编码")
+public class MavenVersionUtilTest {
+    private static final List<String> VERSIONS = Arrays.asList(
+            "1", "1.0", "1.0.0", "1.0.1", "1.1", "1.9", "1.10", "1.10.1", "2", "10.0",
+            "1.0-alpha", "1.0-alpha-1", "1.0-alpha-2", "1.0-alpha-10", "1.0-beta-1", "1.0-rc1", "1.0-cr2",
+            "1.0-SNAPSHOT", "1.0-sp", "1.0-sp1", "1.0-foo", "1.0-bar", "1.0-1", "1.0.0-2",
+            "2.0.0.M1", "2.0.0.M2", "2.0.0.RC1", "2.0.0.RELEASE", "2.0.1.RELEASE", "2.0.0.Final", "2.0-GA",
+            "5.3.9", "5.3.10", "5.3.31", "6.0.0-M5", "6.0.0", "6.1.2",
+            "31.1-jre", "31.1-android", "32.0.0-jre", "1.7.36", "2.0.0-alpha7", "2.0.9",
+            "9.4.51.v20230217", "9.4.9.v20180320", "3.0.0-beta-1", "3.0.0-b2", "3.0.0-a1");
+
+    @DisplayName("编码顺序与ComparableVersion一致")
+    @Test
+    public void sortKeyMatchesComparableVersion() {
+        for (String a : VERSIONS) {
+            for (String b : VERSIONS) {
+                int expected = Integer.signum(new ComparableVersion(a).compareTo(new ComparableVersion(b)));
+                BytesRef keyA = MavenVersionUtil.sortKey(a);
+                BytesRef keyB = MavenVersionUtil.sortKey(b);
+                assertEquals(expected, Integer.signum(keyA.compareTo(keyB)), a + " <=> " + b);
+            }
+        }
+    }
+}